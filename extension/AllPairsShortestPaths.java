@@ -0,0 +1,145 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the class: Computes the distance between every pair of vertices of a graph, either
+ * with Floyd-Warshall or with one single-source search per vertex spread over a ForkJoinPool.
+ * compute() picks whichever is cheaper for the graph's density.
+ *
+ */
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ObjIntConsumer;
+
+public class AllPairsShortestPaths {
+
+    // Per-source searches are used while the average degree is below n / (SPARSE_FACTOR * log2 n)
+    public static final double SPARSE_FACTOR = 4.0;
+
+    // Largest board kept in a full square matrix of doubles (128 MB); larger boards use floats
+    public static final int DENSE_LIMIT = 4096;
+    // Largest board whose distances are all computed up front (a triangle of 800 MB)
+    public static final int TRIANGULAR_LIMIT = 20000;
+
+    /**
+     * Returns the distance table of the graph. Boards of up to DENSE_LIMIT vertices get a square
+     * matrix of doubles, filled by per-source searches for sparse graphs and Floyd-Warshall for
+     * dense ones. Boards of up to TRIANGULAR_LIMIT vertices get a packed triangular matrix of
+     * floats. Larger boards get rows computed on demand and kept in a bounded cache.
+     *
+     * @param g the graph
+     * @return the distance table of g, indexed by vertex index
+     */
+    public static DistanceTable compute(Graph g) {
+        if (g.size() > TRIANGULAR_LIMIT) {
+            return new LazyDistanceRows(g, LazyDistanceRows.defaultBudget());
+        }
+        if (g.size() > DENSE_LIMIT) {
+            return new TriangularDistanceMatrix(g);
+        }
+        return isSparse(g) ? perSource(g) : floydWarshall(g);
+    }
+
+    /**
+     * Returns whether running one single-source search per vertex is expected to beat
+     * Floyd-Warshall's n^3 work on the graph.
+     *
+     * @param g the graph
+     * @return true if g is sparse enough for per-source searches
+     */
+    public static boolean isSparse(Graph g) {
+        int n = g.size();
+        if (n < 2) {
+            return true;
+        }
+        double averageDegree = 2.0 * g.getEdges().size() / n;
+        return averageDegree < n / (SPARSE_FACTOR * (Math.log(n) / Math.log(2)));
+    }
+
+    /**
+     * Returns the distance matrix of the graph computed with the blocked, parallel Floyd-Warshall
+     * of DistanceMatrix.
+     *
+     * @param g the graph
+     * @return the distance matrix of g, indexed by vertex index
+     */
+    public static DistanceMatrix floydWarshall(Graph g) {
+        DistanceMatrix out = new DistanceMatrix(g.size());
+        for (Edge e : g.getEdges()) {
+            int u = e.first().getIndex();
+            int v = e.second().getIndex();
+            if (u != v && e.distance() < out.distance(u, v)) {
+                out.set(u, v, e.distance());
+            }
+        }
+        out.floydWarshall();
+        out.symmetrize();
+        return out;
+    }
+
+    /**
+     * Returns the distance matrix of the graph computed with one single-source search per vertex.
+     * The sources are split into ranges that run in parallel on the common ForkJoinPool, and each
+     * task writes only its own rows of the matrix.
+     *
+     * @param g the graph
+     * @return the distance matrix of g, indexed by vertex index
+     */
+    public static DistanceMatrix perSource(Graph g) {
+        DistanceMatrix out = new DistanceMatrix(g.size());
+        forEachRow(g, (row, s) -> out.setRow(s, row));
+        out.symmetrize();
+        return out;
+    }
+
+    /**
+     * Runs one single-source search from every vertex of the graph, in parallel on the common
+     * ForkJoinPool, and hands each row of distances to sink together with its source. The row
+     * array is reused once sink returns, so sink must copy anything it keeps. Calls for different
+     * sources may happen at the same time on different threads.
+     *
+     * @param g    the graph
+     * @param sink receives each row of distances and the index of its source
+     */
+    public static void forEachRow(Graph g, ObjIntConsumer<double[]> sink) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int grain = Math.max(1, g.size() / (8 * pool.getParallelism()));
+        pool.invoke(new RowsTask(g, sink, 0, g.size(), grain));
+    }
+
+    /**
+     * Runs the searches from sources [from, to), splitting the range in half until it is no
+     * larger than grain.
+     */
+    private static class RowsTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Graph graph;
+        private final transient ObjIntConsumer<double[]> sink;
+        private final int from, to, grain;
+
+        RowsTask(Graph graph, ObjIntConsumer<double[]> sink, int from, int to, int grain) {
+            this.graph = graph;
+            this.sink = sink;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > grain) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RowsTask(graph, sink, from, mid, grain), new RowsTask(graph, sink, mid, to, grain));
+                return;
+            }
+            // Engines keep scratch state, so each leaf gets its own
+            ShortestPathEngine engine = graph.shortestPathEngine();
+            double[] row = new double[graph.size()];
+            for (int s = from; s < to; s++) {
+                engine.distancesFrom(s, row);
+                sink.accept(row, s);
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the class: An immutable Voronoi board: the adjacency of the graph, the value of
+ * every vertex and the distance table. A board never changes once it is made, so any number of
+ * games (see GameState) and search threads can play on one board and share its distance table.
+ * VoronoiGraph hands out a new board after its edges or values are edited, and copies a table
+ * before editing it in place if a board still holds it.
+ *
+ * The distance tables are safe to read from several threads: the dense matrices are only read,
+ * and the tables that compute or cache anything on a lookup synchronize it.
+ *
+ * zobrist() gives every vertex and player a 64-bit key, so a game can hash its tokens by XOR-ing
+ * their keys (see GameState.hash). sideKey() and turnKey() give the player to move and the number
+ * of moves left keys of their own, for searches that tell positions apart by those too. The keys
+ * come from a seed drawn for each board, so equal token placements on different boards hash
+ * differently.
+ *
+ * valueOf() sums the values of a bitset of vertices a byte at a time, with a table of the summed
+ * value of all 256 patterns of each group of 8 vertices, built on first use.
+ *
+ */
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public final class Board {
+
+    // Largest board whose per-byte value tables are built, at 128 bytes per vertex
+    public static final int BYTE_TABLE_LIMIT = 1 << 18;
+    // Fewest set bits for which a word is summed a byte at a time rather than a bit at a time
+    private static final int BYTE_BITS = 12;
+    // Salts of the side and turn keys, so they mix other inputs than the token keys
+    private static final long SIDE_SALT = 0x2545F4914F6CDD1DL;
+    private static final long TURN_SALT = 0x6A09E667F3BCC909L;
+
+    private final CsrGraph graph; // Snapshot of the adjacency
+    private final int[] values; // Value of each vertex
+    private final DistanceTable distances; // Distances between vertices, or null
+    private final long zobristSeed = new SplittableRandom().nextLong(); // Seed of the Zobrist keys
+    private volatile int[] byteValues; // Summed value of each byte of a bitset, built on first use
+
+    /**
+     * Constructor to make a board from a snapshot of a graph. The values are copied.
+     *
+     * @param graph     the snapshot of the graph's adjacency
+     * @param values    the value of each vertex, at least graph.size() of them
+     * @param distances the distance table of the graph, or null if it has none; games then
+     *                  find the vertices a token captures by searching the graph
+     */
+    public Board(CsrGraph graph, int[] values, DistanceTable distances) {
+        if (values.length < graph.size()) {
+            throw new IllegalArgumentException(values.length + " values cannot cover " + graph.size() + " vertices");
+        }
+        if (distances != null && distances.size() != graph.size()) {
+            throw new IllegalArgumentException("A table of " + distances.size() + " vertices does not fit " + graph.size());
+        }
+        this.graph = graph;
+        this.values = Arrays.copyOf(values, graph.size());
+        this.distances = distances;
+    }
+
+    /**
+     * Returns the number of vertices on the board.
+     *
+     * @return the number of vertices
+     */
+    public int size() {
+        return graph.size();
+    }
+
+    /**
+     * Returns the snapshot of the board's adjacency.
+     *
+     * @return the CSR snapshot
+     */
+    public CsrGraph graph() {
+        return graph;
+    }
+
+    /**
+     * Returns the value of the vertex with index v.
+     *
+     * @param v the index of the vertex
+     * @return the value of v
+     */
+    public int value(int v) {
+        return values[v];
+    }
+
+    /**
+     * Returns the distance table of the board.
+     *
+     * @return the distance table, or null if the board has none
+     */
+    public DistanceTable distances() {
+        return distances;
+    }
+
+    /**
+     * Returns the distance between the vertices with indices u and v.
+     *
+     * @param u the index of the first vertex
+     * @param v the index of the second vertex
+     * @return the distance between u and v
+     * @throws IllegalStateException if the board has no distance table
+     */
+    public double distance(int u, int v) {
+        if (distances == null) {
+            throw new IllegalStateException("The board has no distance table");
+        }
+        return distances.distance(u, v);
+    }
+
+    /**
+     * Returns the Zobrist key of a token of the given player on the vertex v: the SplitMix64
+     * finalizer of a distinct input per vertex and player, which scatters like a table of random
+     * keys without storing one for every vertex and player.
+     *
+     * @param v      the index of the vertex
+     * @param player the player
+     * @return the 64-bit key of the token
+     */
+    public long zobrist(int v, int player) {
+        return mix(zobristSeed + v * 0x9E3779B97F4A7C15L + player * 0xD1B54A32D192ED03L);
+    }
+
+    /**
+     * Returns the Zobrist key of the given player being the one to move.
+     *
+     * @param player the player to move
+     * @return the 64-bit key of the side to move
+     */
+    public long sideKey(int player) {
+        return mix((zobristSeed ^ SIDE_SALT) + player * 0xD1B54A32D192ED03L);
+    }
+
+    /**
+     * Returns the Zobrist key of the given number of moves being left in the game.
+     *
+     * @param movesLeft the number of moves left
+     * @return the 64-bit key of the moves left
+     */
+    public long turnKey(int movesLeft) {
+        return mix((zobristSeed ^ TURN_SALT) + movesLeft * 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * Returns the SplitMix64 finalizer of z.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Returns the summed value of the vertices in a bitset, where vertex v is bit v % 64 of
+     * bits[v / 64]. Bits of vertices past size() must be clear. On boards up to BYTE_TABLE_LIMIT
+     * vertices, words with many set bits read a table entry per byte; sparse words, and every
+     * word of larger boards, visit each set bit.
+     *
+     * @param bits the bitset of vertices
+     * @return the summed value of the vertices in the bitset
+     */
+    public int valueOf(long[] bits) {
+        int words = Math.min(bits.length, (size() + 63) >>> 6);
+        int[] table = byteTable();
+        int sum = 0;
+        for (int i = 0; i < words; i++) {
+            long w = bits[i];
+            if (table != null && Long.bitCount(w) >= BYTE_BITS) {
+                // Table entries for the 8 bytes of word i start at i * 8 * 256
+                for (int base = i << 11; w != 0; w >>>= 8, base += 256) {
+                    sum += table[base + (int) (w & 0xFF)];
+                }
+            }
+            else {
+                for (; w != 0; w &= w - 1) {
+                    sum += values[(i << 6) + Long.numberOfTrailingZeros(w)];
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the per-byte value table, building it on first use, or null on boards larger than
+     * BYTE_TABLE_LIMIT. Entry 256 * g + p is the summed value of the vertices 8 * g + b for the
+     * bits b set in p. Threads racing to build it build equal tables, so either may be kept.
+     */
+    private int[] byteTable() {
+        int[] table = byteValues;
+        if (table == null && size() <= BYTE_TABLE_LIMIT) {
+            int n = size();
+            int groups = ((n + 63) >>> 6) << 3;
+            table = new int[groups << 8];
+            for (int g = 0; g < groups; g++) {
+                int base = g << 8;
+                for (int p = 1; p < 256; p++) {
+                    // Pattern p adds its lowest vertex to the pattern without it
+                    int v = (g << 3) + Integer.numberOfTrailingZeros(p);
+                    table[base + p] = table[base + (p & (p - 1))] + (v < n ? values[v] : 0);
+                }
+            }
+            byteValues = table;
+        }
+        return table;
+    }
+}
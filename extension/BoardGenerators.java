@@ -0,0 +1,310 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the class: Seeded generators for the board topologies used in scaling tests, each
+ * returning a ready VoronoiGraph with its distances calculated:
+ *   - random geometric graphs: points in the unit square joined when closer than a radius
+ *   - grids and tori
+ *   - Barabási–Albert scale-free graphs grown by preferential attachment
+ *   - stochastic block graphs: dense clusters joined by sparse links
+ *
+ * Edge lengths lie in [1, 2) like the game's own boards, and vertex values come from a
+ * ValueDistribution. The same arguments and seed always give the same board.
+ *
+ */
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class BoardGenerators {
+
+    /**
+     * Draws the value of each vertex of a generated board.
+     */
+    public interface ValueDistribution {
+
+        /**
+         * Returns the value of the next vertex.
+         *
+         * @param rand the random number generator
+         * @return a vertex value
+         */
+        int next(SplittableRandom rand);
+    }
+
+    // The values of the game's own boards, uniform in [0, 100)
+    public static final ValueDistribution GAME_VALUES = uniform(0, 100);
+
+    /**
+     * Returns a distribution of values uniform in [lo, hi).
+     *
+     * @param lo the smallest value
+     * @param hi one more than the largest value
+     * @return the uniform distribution
+     */
+    public static ValueDistribution uniform(int lo, int hi) {
+        if (hi <= lo) {
+            throw new IllegalArgumentException("Empty value range [" + lo + ", " + hi + ")");
+        }
+        return rand -> rand.nextInt(lo, hi);
+    }
+
+    /**
+     * Returns a distribution giving every vertex the same value.
+     *
+     * @param value the value of every vertex
+     * @return the constant distribution
+     */
+    public static ValueDistribution constant(int value) {
+        return rand -> value;
+    }
+
+    /**
+     * Returns a heavy-tailed distribution where P(value >= x) falls off as x^(1 - alpha), so a few
+     * vertices are worth far more than the rest. Values lie in [1, max].
+     *
+     * @param alpha the exponent, greater than 1; smaller exponents give heavier tails
+     * @param max   the largest value
+     * @return the power-law distribution
+     */
+    public static ValueDistribution powerLaw(double alpha, int max) {
+        if (!(alpha > 1)) {
+            throw new IllegalArgumentException("A power law needs an exponent above 1, got " + alpha);
+        }
+        return rand -> (int) Math.min(max, Math.floor(Math.pow(1 - rand.nextDouble(), -1 / (alpha - 1))));
+    }
+
+    /**
+     * Generates a random geometric graph: n points placed uniformly in the unit square, joined
+     * when they are closer than radius by an edge of length 1 + (distance / radius). The points
+     * are bucketed into cells at least radius wide, so only neighbouring cells are compared.
+     *
+     * @param n      the number of vertices
+     * @param radius the largest distance between joined points
+     * @param values the distribution of vertex values
+     * @param seed   the seed of the random number generator
+     * @return the generated board
+     */
+    public static VoronoiGraph randomGeometric(int n, double radius, ValueDistribution values, long seed) {
+        SplittableRandom rand = new SplittableRandom(seed);
+        VoronoiGraph g = board(n, values, rand);
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = rand.nextDouble();
+            y[i] = rand.nextDouble();
+        }
+
+        // Counting sort of the points by cell
+        int cells = (int) Math.max(1, Math.min(Math.floor(1 / radius), Math.ceil(Math.sqrt(n))));
+        int[] cellOf = new int[n];
+        int[] start = new int[cells * cells + 1];
+        for (int i = 0; i < n; i++) {
+            cellOf[i] = cell(x[i], cells) * cells + cell(y[i], cells);
+            start[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < cells * cells; c++) {
+            start[c + 1] += start[c];
+        }
+        int[] order = new int[n];
+        int[] fill = Arrays.copyOf(start, cells * cells);
+        for (int i = 0; i < n; i++) {
+            order[fill[cellOf[i]]++] = i;
+        }
+
+        for (int i = 0; i < n; i++) {
+            int cx = cellOf[i] / cells;
+            int cy = cellOf[i] % cells;
+            for (int nx = Math.max(0, cx - 1); nx <= Math.min(cells - 1, cx + 1); nx++) {
+                for (int ny = Math.max(0, cy - 1); ny <= Math.min(cells - 1, cy + 1); ny++) {
+                    int c = nx * cells + ny;
+                    for (int k = start[c]; k < start[c + 1]; k++) {
+                        int j = order[k];
+                        double d = Math.hypot(x[i] - x[j], y[i] - y[j]);
+                        if (j > i && d < radius) {
+                            g.addEdge(g.getVertex(i), g.getVertex(j), 1 + d / radius);
+                        }
+                    }
+                }
+            }
+        }
+        g.computeDistances();
+        return g;
+    }
+
+    /**
+     * Generates a rows x cols grid where each vertex is joined to the vertices beside it, with
+     * edge lengths in [1, 2). A torus also joins the first and last row and column.
+     *
+     * @param rows   the number of rows
+     * @param cols   the number of columns
+     * @param torus  whether the grid wraps around
+     * @param values the distribution of vertex values
+     * @param seed   the seed of the random number generator
+     * @return the generated board
+     */
+    public static VoronoiGraph grid(int rows, int cols, boolean torus, ValueDistribution values, long seed) {
+        SplittableRandom rand = new SplittableRandom(seed);
+        VoronoiGraph g = board(rows * cols, values, rand);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                Vertex v = g.getVertex(r * cols + c);
+                // Wrapping a side of two or fewer would duplicate an existing edge
+                if (c + 1 < cols || (torus && cols > 2)) {
+                    g.addEdge(v, g.getVertex(r * cols + (c + 1) % cols), rand.nextDouble(1, 2));
+                }
+                if (r + 1 < rows || (torus && rows > 2)) {
+                    g.addEdge(v, g.getVertex((r + 1) % rows * cols + c), rand.nextDouble(1, 2));
+                }
+            }
+        }
+        g.computeDistances();
+        return g;
+    }
+
+    /**
+     * Generates a Barabási–Albert scale-free graph. The first m + 1 vertices form a clique, and
+     * every later vertex is joined to m distinct earlier vertices chosen with probability
+     * proportional to their degree. Edge lengths lie in [1, 2).
+     *
+     * @param n      the number of vertices
+     * @param m      the number of edges added with each vertex
+     * @param values the distribution of vertex values
+     * @param seed   the seed of the random number generator
+     * @return the generated board
+     */
+    public static VoronoiGraph barabasiAlbert(int n, int m, ValueDistribution values, long seed) {
+        if (m < 1) {
+            throw new IllegalArgumentException("Each new vertex needs at least one edge, got " + m);
+        }
+        SplittableRandom rand = new SplittableRandom(seed);
+        VoronoiGraph g = board(n, values, rand);
+        // Every edge lists both endpoints here, so a uniform pick is proportional to degree
+        int[] ends = new int[16];
+        int size = 0;
+        int core = Math.min(n, m + 1);
+        for (int i = 0; i < core; i++) {
+            for (int j = 0; j < i; j++) {
+                g.addEdge(g.getVertex(j), g.getVertex(i), rand.nextDouble(1, 2));
+                ends = append(ends, size, j, i);
+                size += 2;
+            }
+        }
+        int[] chosen = new int[m];
+        for (int i = core; i < n; i++) {
+            for (int k = 0; k < m; k++) {
+                int t;
+                do {
+                    t = ends[rand.nextInt(size)];
+                } while (contains(chosen, k, t));
+                chosen[k] = t;
+            }
+            for (int k = 0; k < m; k++) {
+                g.addEdge(g.getVertex(chosen[k]), g.getVertex(i), rand.nextDouble(1, 2));
+                ends = append(ends, size, chosen[k], i);
+                size += 2;
+            }
+        }
+        g.computeDistances();
+        return g;
+    }
+
+    /**
+     * Generates a stochastic block graph: the vertices are split into consecutive blocks of the
+     * given sizes, two vertices of the same block are joined with probability pIn and two of
+     * different blocks with probability pOut. Edge lengths lie in [1, 2). The pairs are drawn by
+     * geometric skipping, in O(n + m) time.
+     *
+     * @param blockSizes the number of vertices in each block
+     * @param pIn        the probability of an edge inside a block
+     * @param pOut       the probability of an edge between blocks
+     * @param values     the distribution of vertex values
+     * @param seed       the seed of the random number generator
+     * @return the generated board
+     */
+    public static VoronoiGraph stochasticBlock(int[] blockSizes, double pIn, double pOut, ValueDistribution values,
+            long seed) {
+        SplittableRandom rand = new SplittableRandom(seed);
+        int[] first = new int[blockSizes.length + 1];
+        for (int b = 0; b < blockSizes.length; b++) {
+            first[b + 1] = first[b] + blockSizes[b];
+        }
+        VoronoiGraph g = board(first[blockSizes.length], values, rand);
+        for (int a = 0; a < blockSizes.length; a++) {
+            int[] pairs = GnpGenerator.pairs(blockSizes[a], pIn, rand.split());
+            for (int k = 0; k < pairs.length; k += 2) {
+                g.addEdge(g.getVertex(first[a] + pairs[k + 1]), g.getVertex(first[a] + pairs[k]), rand.nextDouble(1, 2));
+            }
+            for (int b = a + 1; b < blockSizes.length; b++) {
+                crossEdges(g, first[a], blockSizes[a], first[b], blockSizes[b], pOut, rand);
+            }
+        }
+        g.computeDistances();
+        return g;
+    }
+
+    /**
+     * Joins each pair of a vertex from the first range and one from the second with probability
+     * p, skipping over the pairs that get no edge.
+     */
+    private static void crossEdges(VoronoiGraph g, int firstA, int sizeA, int firstB, int sizeB, double p,
+            SplittableRandom rand) {
+        if (!(p > 0)) {
+            return;
+        }
+        long pairs = (long) sizeA * sizeB;
+        double logQ = Math.log1p(-p);
+        long k = -1;
+        while (true) {
+            double skip = Math.floor(Math.log1p(-rand.nextDouble()) / logQ);
+            if (skip >= pairs - k - 1) {
+                return;
+            }
+            k += 1 + (long) skip;
+            g.addEdge(g.getVertex(firstA + (int) (k / sizeB)), g.getVertex(firstB + (int) (k % sizeB)),
+                    rand.nextDouble(1, 2));
+        }
+    }
+
+    /**
+     * Returns a board of n unconnected vertices with values drawn from the distribution.
+     */
+    private static VoronoiGraph board(int n, ValueDistribution values, SplittableRandom rand) {
+        VoronoiGraph g = new VoronoiGraph(n);
+        for (Vertex v : g.getVertices()) {
+            g.setValue(v, values.next(rand));
+        }
+        return g;
+    }
+
+    /**
+     * Returns the cell of a coordinate in [0, 1) on a side of the given number of cells.
+     */
+    private static int cell(double coordinate, int cells) {
+        return Math.min(cells - 1, (int) (coordinate * cells));
+    }
+
+    /**
+     * Appends the pair (x, y) at position size of the array, growing it if it is full.
+     */
+    private static int[] append(int[] a, int size, int x, int y) {
+        if (size + 2 > a.length) {
+            a = Arrays.copyOf(a, 2 * a.length);
+        }
+        a[size] = x;
+        a[size + 1] = y;
+        return a;
+    }
+
+    /**
+     * Returns whether the first count entries of a include x.
+     */
+    private static boolean contains(int[] a, int count, int x) {
+        for (int i = 0; i < count; i++) {
+            if (a[i] == x) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,214 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the class: Writes VoronoiGraph boards to a compact, versioned binary file and reads
+ * them back, so tournaments can start from a corpus of prepared boards instead of generating or
+ * parsing them again. The adjacency is stored in CSR form, and the distances may be stored too,
+ * which saves the all-pairs computation on load.
+ *
+ * File layout (big-endian):
+ *   int magic "VBRD", int version, int flags (bit 0: distances present), int n, int entries
+ *   int[n] vertex values
+ *   int[n + 1] CSR offsets, int[entries] CSR targets, double[entries] CSR weights
+ *   double[n (n - 1) / 2] d(i, j) for every i < j, row by row, if bit 0 is set
+ *
+ * Every edge appears in the rows of both its endpoints. Reading keeps the entries with
+ * target > source (and every second self-loop entry), so each edge is rebuilt once.
+ *
+ */
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+public class BoardSnapshot {
+
+    public static final int MAGIC = 0x56425244; // "VBRD"
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 20;
+
+    // Flag set when the file holds the distance triangle
+    public static final int WITH_DISTANCES = 1;
+
+    /**
+     * Writes the board to the file, streaming the distance triangle when asked. The file is
+     * written under a temporary name and renamed into place.
+     *
+     * @param g             the board
+     * @param file          the destination file
+     * @param withDistances whether to store the board's distances
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(VoronoiGraph g, Path file, boolean withDistances) throws IOException {
+        int n = g.size();
+        if (withDistances && n > AllPairsShortestPaths.TRIANGULAR_LIMIT) {
+            throw new IllegalArgumentException("Distances are only stored for boards of up to "
+                    + AllPairsShortestPaths.TRIANGULAR_LIMIT + " vertices, not " + n);
+        }
+        CsrGraph csr = g.snapshot();
+        Path dir = file.toAbsolutePath().getParent();
+        Path tmp = Files.createTempFile(dir, "board", ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(withDistances ? WITH_DISTANCES : 0);
+            out.writeInt(n);
+            out.writeInt(csr.entries());
+            for (int v = 0; v < n; v++) {
+                out.writeInt(g.getValue(g.getVertex(v)));
+            }
+            for (int v = 0; v <= n; v++) {
+                out.writeInt(v < n ? csr.start(v) : csr.entries());
+            }
+            for (int k = 0; k < csr.entries(); k++) {
+                out.writeInt(csr.target(k));
+            }
+            for (int k = 0; k < csr.entries(); k++) {
+                out.writeDouble(csr.weight(k));
+            }
+            if (withDistances) {
+                for (int i = 0; i < n; i++) {
+                    for (int j = i + 1; j < n; j++) {
+                        out.writeDouble(g.distance(i, j));
+                    }
+                }
+            }
+        }
+        catch (IOException ex) {
+            Files.deleteIfExists(tmp);
+            throw ex;
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Returns the size in bytes of a snapshot.
+     *
+     * @param n             the number of vertices
+     * @param entries       the number of CSR entries, twice the number of edges
+     * @param withDistances whether the distance triangle is stored
+     * @return the file size in bytes
+     */
+    public static long fileBytes(int n, int entries, boolean withDistances) {
+        long bytes = HEADER_BYTES + 4L * n + 4L * (n + 1) + 12L * entries;
+        return withDistances ? bytes + 8L * n * (n - 1) / 2 : bytes;
+    }
+
+    /**
+     * Reads a board from a snapshot file. Stored distances are loaded into a DistanceMatrix, or a
+     * TriangularDistanceMatrix past AllPairsShortestPaths.DENSE_LIMIT vertices; otherwise they are
+     * calculated.
+     *
+     * @param file the snapshot file
+     * @return the board
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    public static VoronoiGraph read(Path file) throws IOException {
+        ByteBuffer in;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(file + " is not a board snapshot");
+            }
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (in.getInt() != MAGIC) {
+            throw new IOException(file + " is not a board snapshot");
+        }
+        int version = in.getInt();
+        if (version != VERSION) {
+            throw new IOException(file + " is a version " + version + " snapshot, expected version " + VERSION);
+        }
+        boolean withDistances = (in.getInt() & WITH_DISTANCES) != 0;
+        int n = in.getInt();
+        int entries = in.getInt();
+        if (n < 0 || entries < 0 || in.capacity() != fileBytes(n, entries, withDistances)) {
+            throw new IOException(file + " is truncated or damaged");
+        }
+
+        int[] values = new int[n];
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[entries];
+        double[] weights = new double[entries];
+        in.asIntBuffer().get(values);
+        in.position(in.position() + 4 * n);
+        in.asIntBuffer().get(offsets);
+        in.position(in.position() + 4 * (n + 1));
+        in.asIntBuffer().get(targets);
+        in.position(in.position() + 4 * entries);
+        in.asDoubleBuffer().get(weights);
+        in.position(in.position() + 8 * entries);
+
+        VoronoiGraph g = new VoronoiGraph(n);
+        for (int v = 0; v < n; v++) {
+            if (offsets[v] > offsets[v + 1] || offsets[v + 1] > entries) {
+                throw new IOException(file + " has a damaged adjacency");
+            }
+            g.setValue(g.getVertex(v), values[v]);
+            g.getVertex(v).incidentEdges().ensureCapacity(offsets[v + 1] - offsets[v]);
+        }
+        g.getEdges().ensureCapacity(entries / 2);
+        for (int u = 0; u < n; u++) {
+            boolean loopSeen = false;
+            for (int k = offsets[u]; k < offsets[u + 1]; k++) {
+                int t = targets[k];
+                if (t < 0 || t >= n) {
+                    throw new IOException(file + " has a damaged adjacency");
+                }
+                if (t == u) {
+                    // A self-loop sits twice in its own row, once for each end
+                    loopSeen = !loopSeen;
+                    if (!loopSeen) {
+                        continue;
+                    }
+                }
+                else if (t < u) {
+                    continue;
+                }
+                g.addEdge(g.getVertex(u), g.getVertex(t), weights[k]);
+            }
+        }
+
+        if (withDistances) {
+            g.setDistances(readDistances(g, in.slice()));
+        }
+        else {
+            g.computeDistances();
+        }
+        return g;
+    }
+
+    /**
+     * Reads the stored distance triangle into an in-memory table.
+     */
+    private static MutableDistanceTable readDistances(VoronoiGraph g, ByteBuffer in) {
+        int n = g.size();
+        double[] row = new double[n];
+        DoubleBuffer triangle = in.asDoubleBuffer();
+        if (n <= AllPairsShortestPaths.DENSE_LIMIT) {
+            DistanceMatrix d = new DistanceMatrix(n);
+            for (int i = 0; i < n; i++) {
+                triangle.get(row, i + 1, n - i - 1);
+                for (int j = i + 1; j < n; j++) {
+                    d.set(i, j, row[j]);
+                }
+            }
+            return d;
+        }
+        float[] data = new float[(int) ((long) n * (n - 1) / 2)];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            triangle.get(row, i + 1, n - i - 1);
+            for (int j = i + 1; j < n; j++) {
+                data[k++] = (float) row[j];
+            }
+        }
+        return new TriangularDistanceMatrix(g, data);
+    }
+}
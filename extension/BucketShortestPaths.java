@@ -0,0 +1,111 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the class: Computes single-source shortest distances with a bucket queue (Dial's
+ * algorithm generalised to real weights). Bucket i holds the vertices whose tentative distance
+ * lies in [i * w, (i + 1) * w), where w is the smallest edge weight. Relaxing an edge always moves
+ * a vertex to a later bucket, so every vertex in the current bucket is already final and the
+ * buckets can be emptied in any order, with no comparisons between keys.
+ *
+ * Only ceil(maxWeight / w) + 1 buckets are live at once, so they are reused circularly. This makes
+ * the engine a good fit when the ratio between the largest and smallest weight is small, as for
+ * the game boards (weights in [1, 2)) and unit-weight graphs read from file.
+ *
+ * The search runs over a CSR snapshot of the graph. An instance reuses its buckets between runs,
+ * so it is not thread-safe: give each thread its own. It must be recreated after the graph is
+ * edited.
+ *
+ */
+
+import java.util.Arrays;
+
+public class BucketShortestPaths implements ShortestPathEngine {
+
+    private final CsrGraph graph; // Snapshot of the graph to search
+    private final double width; // Width of each bucket, the smallest edge weight
+    private final int[][] buckets; // Circular array of buckets of vertex indices
+    private final int[] bucketSizes; // Number of entries in each bucket
+    private final boolean[] settled; // Whether each vertex's distance is final
+
+    /**
+     * Constructor to initialize a bucket-queue engine for a graph whose edge weights all lie
+     * in [minWeight, maxWeight].
+     *
+     * @param graph     the graph to search
+     * @param minWeight the smallest edge weight, which must be positive
+     * @param maxWeight the largest edge weight
+     */
+    public BucketShortestPaths(Graph graph, double minWeight, double maxWeight) {
+        this(graph.snapshot(), minWeight, maxWeight);
+    }
+
+    /**
+     * Constructor to initialize a bucket-queue engine for a CSR snapshot whose edge weights all
+     * lie in [minWeight, maxWeight].
+     *
+     * @param graph     the snapshot to search
+     * @param minWeight the smallest edge weight, which must be positive
+     * @param maxWeight the largest edge weight
+     */
+    public BucketShortestPaths(CsrGraph graph, double minWeight, double maxWeight) {
+        if (!(minWeight > 0)) {
+            throw new IllegalArgumentException("Bucket widths need a positive minimum edge weight, got " + minWeight);
+        }
+        this.graph = graph;
+        this.width = minWeight;
+        int count = (int) Math.ceil(maxWeight / minWeight) + 2;
+        this.buckets = new int[count][4];
+        this.bucketSizes = new int[count];
+        this.settled = new boolean[graph.size()];
+    }
+
+    /**
+     * Writes the shortest distances from the source vertex to every vertex into dist.
+     *
+     * @param source the index of the source vertex
+     * @param dist   the row to fill, indexed by vertex index; unreachable vertices are set to infinity
+     */
+    public void distancesFrom(int source, double[] dist) {
+        int n = graph.size();
+        Arrays.fill(dist, 0, n, Double.POSITIVE_INFINITY);
+        Arrays.fill(settled, false);
+        dist[source] = 0.0;
+        push(0, source);
+        int pending = 1;
+
+        for (long current = 0; pending > 0; current++) {
+            int slot = (int) (current % buckets.length);
+            // Entries added to this bucket while it is emptied are handled in the same pass
+            while (bucketSizes[slot] > 0) {
+                int u = buckets[slot][--bucketSizes[slot]];
+                pending--;
+                if (settled[u]) {
+                    continue; // stale entry left behind by a later improvement
+                }
+                settled[u] = true;
+                double du = dist[u];
+                for (int k = graph.start(u), end = graph.end(u); k < end; k++) {
+                    int v = graph.target(k);
+                    double alt = du + graph.weight(k);
+                    if (alt < dist[v]) {
+                        dist[v] = alt;
+                        push((int) ((long) (alt / width) % buckets.length), v);
+                        pending++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends the vertex to the bucket at the given slot, growing the bucket if it is full.
+     */
+    private void push(int slot, int v) {
+        int[] bucket = buckets[slot];
+        if (bucketSizes[slot] == bucket.length) {
+            bucket = Arrays.copyOf(bucket, 2 * bucket.length);
+            buckets[slot] = bucket;
+        }
+        bucket[bucketSizes[slot]++] = v;
+    }
+}
@@ -0,0 +1,348 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the class: Reads numbers and words straight from the bytes of a text file mapped
+ * into memory, without building a String per line or per field. Fields are separated by spaces,
+ * tabs or commas, and lines end with \n or \r\n. Integers and plain decimals are converted in
+ * place; the rare number with too many digits to convert exactly falls back to
+ * Double.parseDouble.
+ *
+ * Files are mapped read-only in one piece, so they may be at most 2 GB.
+ *
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class ByteParser {
+
+    // Powers of ten that a double holds exactly
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final ByteBuffer buffer; // The bytes to parse
+    private final int limit; // Number of bytes in the buffer
+    private int pos; // Position of the next unread byte
+    private int line = 1; // Number of the line holding pos, for error messages
+
+    /**
+     * Constructor to parse the bytes of a buffer from its current position to its limit.
+     *
+     * @param buffer the bytes to parse
+     */
+    public ByteParser(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.pos = buffer.position();
+        this.limit = buffer.limit();
+    }
+
+    /**
+     * Maps a file read-only and returns a parser over its bytes.
+     *
+     * @param file the file to parse
+     * @return a parser positioned at the start of the file
+     * @throws IOException if the file cannot be mapped or is larger than 2 GB
+     */
+    public static ByteParser map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(file + " is larger than 2 GB");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new ByteParser(buffer);
+        }
+    }
+
+    /**
+     * Returns whether any bytes are left.
+     *
+     * @return true if the end of the input has not been reached
+     */
+    public boolean hasMore() {
+        return pos < limit;
+    }
+
+    /**
+     * Returns the number of the line being read, starting at 1.
+     *
+     * @return the current line number
+     */
+    public int line() {
+        return line;
+    }
+
+    /**
+     * Skips spaces, tabs, commas and carriage returns, stopping at the end of the line.
+     */
+    public void skipSeparators() {
+        while (pos < limit) {
+            byte b = buffer.get(pos);
+            if (b != ' ' && b != '\t' && b != ',' && b != '\r') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    /**
+     * Skips separators and blank lines until the start of the next field.
+     */
+    public void skipBlank() {
+        while (pos < limit) {
+            byte b = buffer.get(pos);
+            if (b == '\n') {
+                line++;
+            }
+            else if (b != ' ' && b != '\t' && b != ',' && b != '\r') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    /**
+     * Skips the rest of the current line, including its line break.
+     */
+    public void skipLine() {
+        while (pos < limit) {
+            if (buffer.get(pos++) == '\n') {
+                line++;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns whether the current line has no fields left.
+     *
+     * @return true at the end of a line or of the input
+     */
+    public boolean atLineEnd() {
+        skipSeparators();
+        return pos >= limit || buffer.get(pos) == '\n';
+    }
+
+    /**
+     * Returns the next byte without consuming it.
+     *
+     * @return the next byte, or -1 at the end of the input
+     */
+    public int peek() {
+        return pos < limit ? buffer.get(pos) : -1;
+    }
+
+    /**
+     * Consumes the next byte, such as the one-letter tag at the start of a line.
+     *
+     * @return the byte consumed, or -1 at the end of the input
+     */
+    public int nextByte() {
+        if (pos >= limit) {
+            return -1;
+        }
+        byte b = buffer.get(pos++);
+        if (b == '\n') {
+            line++;
+        }
+        return b;
+    }
+
+    /**
+     * Returns whether the next field starts like a number.
+     *
+     * @return true if the next field starts with a digit, a sign or a decimal point
+     */
+    public boolean atNumber() {
+        skipSeparators();
+        int b = peek();
+        return (b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.';
+    }
+
+    /**
+     * Returns the next field as text. Meant for the few keywords of a file, not its data.
+     *
+     * @return the next field
+     */
+    public String nextWord() {
+        skipSeparators();
+        int start = pos;
+        while (pos < limit) {
+            byte b = buffer.get(pos);
+            if (b == ' ' || b == '\t' || b == ',' || b == '\r' || b == '\n') {
+                break;
+            }
+            pos++;
+        }
+        byte[] bytes = new byte[pos - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Reads the next field as an int.
+     *
+     * @return the value of the field
+     * @throws IOException if the field is not an integer that fits in an int
+     */
+    public int nextInt() throws IOException {
+        long value = nextLong();
+        if (value != (int) value) {
+            throw error("integer out of range");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Reads the next field as a long.
+     *
+     * @return the value of the field
+     * @throws IOException if the field is not an integer
+     */
+    public long nextLong() throws IOException {
+        skipSeparators();
+        boolean negative = false;
+        if (pos < limit && (buffer.get(pos) == '-' || buffer.get(pos) == '+')) {
+            negative = buffer.get(pos++) == '-';
+        }
+        int start = pos;
+        long value = 0;
+        while (pos < limit) {
+            int d = buffer.get(pos) - '0';
+            if (d < 0 || d > 9) {
+                break;
+            }
+            if (value > (Long.MAX_VALUE - d) / 10) {
+                throw error("integer out of range");
+            }
+            value = value * 10 + d;
+            pos++;
+        }
+        if (pos == start || !atFieldEnd()) {
+            throw error("expected an integer");
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Reads the next field as a double, in plain or scientific notation.
+     *
+     * @return the value of the field
+     * @throws IOException if the field is not a number
+     */
+    public double nextDouble() throws IOException {
+        skipSeparators();
+        int start = pos;
+        boolean negative = false;
+        if (pos < limit && (buffer.get(pos) == '-' || buffer.get(pos) == '+')) {
+            negative = buffer.get(pos++) == '-';
+        }
+        long mantissa = 0;
+        int digits = 0; // significant digits kept in the mantissa
+        int scale = 0; // the value is mantissa * 10^(exponent - scale)
+        boolean exact = true;
+        boolean any = false;
+        boolean point = false;
+        while (pos < limit) {
+            byte b = buffer.get(pos);
+            if (b == '.' && !point) {
+                point = true;
+            }
+            else if (b >= '0' && b <= '9') {
+                any = true;
+                if (mantissa == 0 && b == '0') {
+                    if (point) {
+                        scale++;
+                    }
+                }
+                else if (digits < 18) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    digits++;
+                    if (point) {
+                        scale++;
+                    }
+                }
+                else {
+                    exact = false;
+                }
+            }
+            else {
+                break;
+            }
+            pos++;
+        }
+        if (!any) {
+            throw error("expected a number");
+        }
+        int exponent = 0;
+        if (pos < limit && (buffer.get(pos) == 'e' || buffer.get(pos) == 'E')) {
+            pos++;
+            exponent = nextExponent();
+        }
+        if (!atFieldEnd()) {
+            throw error("expected a number");
+        }
+        int power = exponent - scale;
+        if (exact && Math.abs(power) < POWERS_OF_TEN.length && mantissa < (1L << 53)) {
+            double value = power >= 0 ? mantissa * POWERS_OF_TEN[power] : mantissa / POWERS_OF_TEN[-power];
+            return negative ? -value : value;
+        }
+        byte[] bytes = new byte[pos - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Returns an IOException naming the current line.
+     *
+     * @param message what went wrong
+     * @return the exception to throw
+     */
+    public IOException error(String message) {
+        return new IOException("line " + line + ": " + message);
+    }
+
+    /**
+     * Reads the signed exponent of a number in scientific notation.
+     */
+    private int nextExponent() throws IOException {
+        boolean negative = false;
+        if (pos < limit && (buffer.get(pos) == '-' || buffer.get(pos) == '+')) {
+            negative = buffer.get(pos++) == '-';
+        }
+        int start = pos;
+        int value = 0;
+        while (pos < limit && buffer.get(pos) >= '0' && buffer.get(pos) <= '9') {
+            value = Math.min(100000, value * 10 + buffer.get(pos++) - '0');
+        }
+        if (pos == start) {
+            throw error("expected an exponent");
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Returns whether the last field ended at a separator, a line break or the end of the input.
+     */
+    private boolean atFieldEnd() {
+        if (pos >= limit) {
+            return true;
+        }
+        byte b = buffer.get(pos);
+        return b == ' ' || b == '\t' || b == ',' || b == '\r' || b == '\n';
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the class: An immutable compressed sparse row (CSR) snapshot of a graph's adjacency.
+ * The neighbours of vertex u are targets[offsets[u] .. offsets[u + 1] - 1], with the matching edge
+ * weights in weights, so a traversal reads three flat arrays instead of following Vertex and Edge
+ * references around the heap. Every undirected edge appears once in the row of each endpoint.
+ *
+ * Graph.snapshot() builds the snapshot on first use and keeps it until the graph is edited.
+ *
+ */
+
+public final class CsrGraph {
+
+    private final int n; // Number of vertices
+    private final int[] offsets; // Row u spans offsets[u] .. offsets[u + 1] - 1
+    private final int[] targets; // Neighbour indices, row by row
+    private final double[] weights; // Edge weights, parallel to targets
+    private final double minWeight; // Smallest edge weight, or infinity without edges
+    private final double maxWeight; // Largest edge weight, or 0 without edges
+
+    /**
+     * Constructor to build the snapshot of a graph in one pass over its vertices.
+     *
+     * @param graph the graph
+     */
+    public CsrGraph(Graph graph) {
+        this.n = graph.size();
+        this.offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] = offsets[u] + graph.getVertex(u).incidentEdges().size();
+        }
+        this.targets = new int[offsets[n]];
+        this.weights = new double[offsets[n]];
+        double min = Double.POSITIVE_INFINITY;
+        double max = 0.0;
+        for (int u = 0; u < n; u++) {
+            Vertex vertex = graph.getVertex(u);
+            int k = offsets[u];
+            for (Edge e : vertex.incidentEdges()) {
+                targets[k] = e.other(vertex).getIndex();
+                weights[k] = e.distance();
+                min = Math.min(min, weights[k]);
+                max = Math.max(max, weights[k]);
+                k++;
+            }
+        }
+        this.minWeight = min;
+        this.maxWeight = max;
+    }
+
+    /**
+     * Returns the number of vertices in the snapshot.
+     *
+     * @return the number of vertices
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Returns the number of entries in all rows, twice the number of edges.
+     *
+     * @return the number of adjacency entries
+     */
+    public int entries() {
+        return targets.length;
+    }
+
+    /**
+     * Returns the position of the first entry in the row of u.
+     *
+     * @param u the vertex index
+     * @return the start of row u
+     */
+    public int start(int u) {
+        return offsets[u];
+    }
+
+    /**
+     * Returns the position just past the last entry in the row of u.
+     *
+     * @param u the vertex index
+     * @return the end of row u
+     */
+    public int end(int u) {
+        return offsets[u + 1];
+    }
+
+    /**
+     * Returns the number of edges incident to u.
+     *
+     * @param u the vertex index
+     * @return the degree of u
+     */
+    public int degree(int u) {
+        return offsets[u + 1] - offsets[u];
+    }
+
+    /**
+     * Returns the neighbour stored at position k.
+     *
+     * @param k a position between start(u) and end(u) for some u
+     * @return the index of the neighbour
+     */
+    public int target(int k) {
+        return targets[k];
+    }
+
+    /**
+     * Returns the edge weight stored at position k.
+     *
+     * @param k a position between start(u) and end(u) for some u
+     * @return the weight of the edge to target(k)
+     */
+    public double weight(int k) {
+        return weights[k];
+    }
+
+    /**
+     * Returns the smallest edge weight.
+     *
+     * @return the smallest weight, or infinity if there are no edges
+     */
+    public double minWeight() {
+        return minWeight;
+    }
+
+    /**
+     * Returns the largest edge weight.
+     *
+     * @return the largest weight, or 0 if there are no edges
+     */
+    public double maxWeight() {
+        return maxWeight;
+    }
+}
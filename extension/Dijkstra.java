@@ -0,0 +1,78 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the class: Computes single-source shortest distances on a graph with Dijkstra's
+ * algorithm, using an indexed heap with true decrease-key. Only vertices that have been reached
+ * are ever inserted into the heap, and the result is a primitive row indexed by Vertex.getIndex().
+ * The search runs over a CSR snapshot of the graph.
+ *
+ * An instance reuses its heap between runs, so it is not thread-safe: give each thread its own.
+ * It must be recreated after the graph is edited.
+ *
+ */
+
+import java.util.Arrays;
+
+public class Dijkstra implements ShortestPathEngine {
+
+    private final CsrGraph graph; // Snapshot of the graph to search
+    private final IndexedMinHeap heap; // Frontier of reached but unsettled vertices
+
+    /**
+     * Constructor to initialize a Dijkstra engine for the given graph.
+     *
+     * @param graph the graph to search
+     */
+    public Dijkstra(Graph graph) {
+        this(graph.snapshot());
+    }
+
+    /**
+     * Constructor to initialize a Dijkstra engine for a CSR snapshot.
+     *
+     * @param graph the snapshot to search
+     */
+    public Dijkstra(CsrGraph graph) {
+        this.graph = graph;
+        this.heap = new IndexedMinHeap(graph.size());
+    }
+
+    /**
+     * Returns the shortest distances from the source vertex to every vertex.
+     *
+     * @param source the index of the source vertex
+     * @return a row of distances indexed by vertex index; unreachable vertices are at infinity
+     */
+    public double[] distancesFrom(int source) {
+        double[] dist = new double[graph.size()];
+        distancesFrom(source, dist);
+        return dist;
+    }
+
+    /**
+     * Writes the shortest distances from the source vertex to every vertex into dist.
+     *
+     * @param source the index of the source vertex
+     * @param dist   the row to fill, indexed by vertex index; unreachable vertices are set to infinity
+     */
+    public void distancesFrom(int source, double[] dist) {
+        Arrays.fill(dist, 0, graph.size(), Double.POSITIVE_INFINITY);
+        dist[source] = 0.0;
+        heap.insertOrDecrease(source, 0.0);
+
+        while (!heap.isEmpty()) {
+            double du = heap.peekKey();
+            int u = heap.poll();
+
+            // Relax every incident edge; settled vertices can never improve
+            for (int k = graph.start(u), end = graph.end(u); k < end; k++) {
+                int v = graph.target(k);
+                double alt = du + graph.weight(k);
+                if (alt < dist[v]) {
+                    dist[v] = alt;
+                    heap.insertOrDecrease(v, alt);
+                }
+            }
+        }
+    }
+}
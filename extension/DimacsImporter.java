@@ -0,0 +1,283 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the class: Imports road networks in the format of the 9th DIMACS implementation
+ * challenge into VoronoiGraph boards. A .gr file lists the arcs:
+ *
+ *   c comment
+ *   p sp <nodes> <arcs>
+ *   a <from> <to> <weight>
+ *
+ * and an optional .co file lists node coordinates as "v <id> <x> <y>". The .gr file must hold
+ * exactly the arcs its problem line declares, and a .co file must place every node. Node ids
+ * start at 1 and become vertex indices starting at 0. Road networks list most roads once in each
+ * direction, so the arcs are merged into undirected edges keeping the smaller weight; self-loops
+ * are dropped.
+ *
+ * Both files are parsed straight from mapped memory by a ByteParser, without a String per line.
+ * Road networks are far beyond all-pairs distances, so imported boards always use
+ * LazyDistanceRows: each token placement computes a single row.
+ *
+ */
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+public class DimacsImporter {
+
+    // Side of the square grid of cells used to measure vertex density
+    public static final int DENSITY_CELLS = 64;
+
+    /**
+     * Imports a road network and draws each vertex's value from a distribution.
+     *
+     * @param gr     the .gr file of arcs
+     * @param values the distribution of vertex values
+     * @param seed   the seed of the random number generator
+     * @return the board, with lazily computed distances
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public static VoronoiGraph load(Path gr, BoardGenerators.ValueDistribution values, long seed) throws IOException {
+        VoronoiGraph g = readArcs(ByteParser.map(gr));
+        SplittableRandom rand = new SplittableRandom(seed);
+        for (Vertex v : g.getVertices()) {
+            g.setValue(v, values.next(rand));
+        }
+        g.setDistances(new LazyDistanceRows(g, LazyDistanceRows.defaultBudget()));
+        return g;
+    }
+
+    /**
+     * Imports a road network and values each vertex by how crowded its surroundings are: the
+     * bounding box of the coordinates is cut into DENSITY_CELLS x DENSITY_CELLS cells, and a vertex
+     * is worth maxValue times the number of vertices in its cell over the number in the fullest
+     * cell, and at least 1. Towns are worth more than the countryside between them.
+     *
+     * @param gr       the .gr file of arcs
+     * @param co       the .co file of coordinates
+     * @param maxValue the value of the vertices in the fullest cell
+     * @return the board, with lazily computed distances
+     * @throws IOException if a file cannot be read or is malformed
+     */
+    public static VoronoiGraph loadByDensity(Path gr, Path co, int maxValue) throws IOException {
+        VoronoiGraph g = readArcs(ByteParser.map(gr));
+        int n = g.size();
+        double[] x = new double[n];
+        double[] y = new double[n];
+        readCoordinates(ByteParser.map(co), x, y);
+
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int v = 0; v < n; v++) {
+            minX = Math.min(minX, x[v]);
+            minY = Math.min(minY, y[v]);
+            maxX = Math.max(maxX, x[v]);
+            maxY = Math.max(maxY, y[v]);
+        }
+        int[] cellOf = new int[n];
+        int[] counts = new int[DENSITY_CELLS * DENSITY_CELLS];
+        int fullest = 1;
+        for (int v = 0; v < n; v++) {
+            cellOf[v] = cell(x[v], minX, maxX) * DENSITY_CELLS + cell(y[v], minY, maxY);
+            fullest = Math.max(fullest, ++counts[cellOf[v]]);
+        }
+        for (int v = 0; v < n; v++) {
+            g.setValue(g.getVertex(v), (int) Math.max(1, Math.round((double) maxValue * counts[cellOf[v]] / fullest)));
+        }
+        g.setDistances(new LazyDistanceRows(g, LazyDistanceRows.defaultBudget()));
+        return g;
+    }
+
+    /**
+     * Reads the arcs of a .gr file into a board of undirected edges with value-0 vertices.
+     *
+     * @param in the parser over the .gr file
+     * @return the board, without distances
+     * @throws IOException if the input is malformed
+     */
+    public static VoronoiGraph readArcs(ByteParser in) throws IOException {
+        int n = -1;
+        int[] from = null;
+        int[] to = null;
+        double[] weight = null;
+        int arcs = 0;
+        while (skipBlank(in)) {
+            int tag = in.nextByte();
+            if (tag == 'c') {
+                in.skipLine();
+                continue;
+            }
+            if (tag == 'p') {
+                if (n >= 0) {
+                    throw in.error("second problem line");
+                }
+                in.nextWord(); // "sp"
+                n = in.nextInt();
+                int m = in.nextInt();
+                if (n < 0 || m < 0) {
+                    throw in.error("negative size in the problem line");
+                }
+                from = new int[m];
+                to = new int[m];
+                weight = new double[m];
+            }
+            else if (tag == 'a') {
+                if (n < 0) {
+                    throw in.error("arc before the problem line");
+                }
+                if (arcs == from.length) {
+                    throw in.error("more arcs than the problem line declares");
+                }
+                from[arcs] = node(in, n);
+                to[arcs] = node(in, n);
+                weight[arcs] = in.nextDouble();
+                arcs++;
+            }
+            else {
+                throw in.error("unknown line type '" + (char) tag + "'");
+            }
+            if (!in.atLineEnd()) {
+                throw in.error("too many fields");
+            }
+            in.skipLine();
+        }
+        if (n < 0) {
+            throw in.error("missing problem line");
+        }
+        if (arcs != from.length) {
+            throw new IOException("the problem line declares " + from.length + " arcs, but the file has " + arcs);
+        }
+        return merge(n, from, to, weight, arcs);
+    }
+
+    /**
+     * Reads the coordinates of a .co file into x and y, indexed by vertex index.
+     *
+     * @param in the parser over the .co file
+     * @param x  the x coordinates to fill
+     * @param y  the y coordinates to fill
+     * @throws IOException if the input is malformed or leaves a node without coordinates
+     */
+    public static void readCoordinates(ByteParser in, double[] x, double[] y) throws IOException {
+        BitSet placed = new BitSet(x.length);
+        while (skipBlank(in)) {
+            int tag = in.nextByte();
+            if (tag == 'v') {
+                int v = node(in, x.length);
+                x[v] = in.nextDouble();
+                y[v] = in.nextDouble();
+                placed.set(v);
+            }
+            else if (tag != 'c' && tag != 'p') {
+                throw in.error("unknown line type '" + (char) tag + "'");
+            }
+            in.skipLine();
+        }
+        int missing = placed.nextClearBit(0);
+        if (missing < x.length) {
+            throw new IOException("the coordinates place " + placed.cardinality() + " of " + x.length
+                    + " nodes; node " + (missing + 1) + " has none");
+        }
+    }
+
+    /**
+     * Builds the board from the arcs, merging the arcs between the same two nodes into one edge
+     * with the smallest weight. The arcs are bucketed by their smaller endpoint, and a stamp per
+     * vertex finds repeated pairs within a bucket, so the merge takes O(n + m) time.
+     */
+    private static VoronoiGraph merge(int n, int[] from, int[] to, double[] weight, int arcs) {
+        int[] start = new int[n + 1];
+        for (int k = 0; k < arcs; k++) {
+            if (from[k] != to[k]) {
+                start[Math.min(from[k], to[k]) + 1]++;
+            }
+        }
+        for (int u = 0; u < n; u++) {
+            start[u + 1] += start[u];
+        }
+        int[] order = new int[start[n]];
+        int[] fill = Arrays.copyOf(start, n);
+        for (int k = 0; k < arcs; k++) {
+            if (from[k] != to[k]) {
+                order[fill[Math.min(from[k], to[k])]++] = k;
+            }
+        }
+
+        // Unique pairs in bucket order, with their smallest weight
+        int[] edgeTo = new int[order.length];
+        double[] edgeWeight = new double[order.length];
+        int[] edgeStart = new int[n + 1];
+        int[] stamp = new int[n];
+        int[] slot = new int[n];
+        Arrays.fill(stamp, -1);
+        int[] degree = new int[n];
+        int m = 0;
+        for (int u = 0; u < n; u++) {
+            edgeStart[u] = m;
+            for (int i = start[u]; i < start[u + 1]; i++) {
+                int k = order[i];
+                int v = from[k] == u ? to[k] : from[k];
+                if (stamp[v] == u) {
+                    edgeWeight[slot[v]] = Math.min(edgeWeight[slot[v]], weight[k]);
+                    continue;
+                }
+                stamp[v] = u;
+                slot[v] = m;
+                edgeTo[m] = v;
+                edgeWeight[m] = weight[k];
+                degree[u]++;
+                degree[v]++;
+                m++;
+            }
+        }
+        edgeStart[n] = m;
+
+        VoronoiGraph g = new VoronoiGraph(n);
+        for (int v = 0; v < n; v++) {
+            g.getVertex(v).incidentEdges().ensureCapacity(degree[v]);
+        }
+        g.getEdges().ensureCapacity(m);
+        for (int u = 0; u < n; u++) {
+            for (int e = edgeStart[u]; e < edgeStart[u + 1]; e++) {
+                g.addEdge(g.getVertex(u), g.getVertex(edgeTo[e]), edgeWeight[e]);
+            }
+        }
+        return g;
+    }
+
+    /**
+     * Skips blank lines.
+     *
+     * @return true if any input is left
+     */
+    private static boolean skipBlank(ByteParser in) {
+        in.skipBlank();
+        return in.hasMore();
+    }
+
+    /**
+     * Reads a 1-based node id and returns it as a vertex index.
+     */
+    private static int node(ByteParser in, int n) throws IOException {
+        int id = in.nextInt();
+        if (id < 1 || id > n) {
+            throw in.error("node " + id + " is not between 1 and " + n);
+        }
+        return id - 1;
+    }
+
+    /**
+     * Returns the density cell of a coordinate between lo and hi.
+     */
+    private static int cell(double c, double lo, double hi) {
+        if (!(hi > lo)) {
+            return 0;
+        }
+        return Math.min(DENSITY_CELLS - 1, (int) ((c - lo) / (hi - lo) * DENSITY_CELLS));
+    }
+}
@@ -0,0 +1,197 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the class: An on-disk cache of distance matrices keyed by a fingerprint of the
+ * graph's vertices, edges and weights. A board whose distances are already on disk is mapped
+ * read-only instead of recomputed; otherwise its distances are computed once and written for
+ * the next run. Files are written under a temporary name and renamed into place, so JVMs sharing
+ * the directory never map a half-written file.
+ *
+ * VoronoiGraph uses the cache when the system property voronoi.distanceCache names a directory,
+ * e.g. java -Dvoronoi.distanceCache=boards VoronoiGame
+ *
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class DistanceCache {
+
+    public static final String PROPERTY = "voronoi.distanceCache";
+
+    private final Path directory; // Directory holding one file per fingerprint
+
+    /**
+     * Constructor to initialize a cache stored in the given directory.
+     *
+     * @param directory the directory for the distance files; it is created if missing
+     */
+    public DistanceCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the cache named by the voronoi.distanceCache system property.
+     *
+     * @return the configured cache, or null if the property is not set
+     */
+    public static DistanceCache fromSystemProperty() {
+        String dir = System.getProperty(PROPERTY);
+        return dir == null || dir.isEmpty() ? null : new DistanceCache(Paths.get(dir));
+    }
+
+    /**
+     * Returns a hex SHA-256 fingerprint of the graph's size and of its edges with their weights.
+     * Edges are hashed individually and sorted first, so the fingerprint does not depend on the
+     * order in which the edges were added.
+     *
+     * @param g the graph
+     * @return the fingerprint of g
+     */
+    public static String fingerprint(Graph g) {
+        long[] edgeHashes = new long[g.getEdges().size()];
+        int k = 0;
+        for (Edge e : g.getEdges()) {
+            int a = e.first().getIndex();
+            int b = e.second().getIndex();
+            long h = mix(Math.min(a, b) * 0x9E3779B97F4A7C15L + Math.max(a, b));
+            edgeHashes[k++] = mix(h ^ Double.doubleToLongBits(e.distance()));
+        }
+        Arrays.sort(edgeHashes);
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ByteBuffer buffer = ByteBuffer.allocate(8 * 1024);
+            buffer.putInt(g.size()).putInt(edgeHashes.length);
+            for (long h : edgeHashes) {
+                if (!buffer.hasRemaining()) {
+                    digest.update(buffer.array(), 0, buffer.position());
+                    buffer.clear();
+                }
+                buffer.putLong(h);
+            }
+            digest.update(buffer.array(), 0, buffer.position());
+            StringBuilder hex = new StringBuilder();
+            for (byte x : digest.digest()) {
+                hex.append(String.format("%02x", x));
+            }
+            return hex.toString();
+        }
+        catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    /**
+     * Returns the distance table of the graph, mapping it from disk when it has been cached and
+     * computing and caching it otherwise. Damaged files are rewritten.
+     *
+     * @param g the graph
+     * @return the distance table of g, indexed by vertex index
+     * @throws IOException if the distances are not cached and cannot be written to the cache
+     */
+    public DistanceTable load(Graph g) throws IOException {
+        Path file = directory.resolve(fingerprint(g) + ".dist");
+        if (Files.exists(file)) {
+            try {
+                MappedDistanceMatrix mapped = new MappedDistanceMatrix(file);
+                if (mapped.size() == g.size()) {
+                    return mapped;
+                }
+            }
+            catch (IOException ex) {
+                // A damaged or foreign file is rewritten below
+            }
+        }
+        write(g, file);
+        return new MappedDistanceMatrix(file);
+    }
+
+    /**
+     * Computes the distances of the graph and writes them to the file.
+     *
+     * @param g    the graph
+     * @param file the destination file
+     * @throws IOException if the file cannot be written
+     */
+    private void write(Graph g, Path file) throws IOException {
+        Files.createDirectories(directory);
+        int n = g.size();
+        Path tmp = Files.createTempFile(directory, "dist", ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(MappedDistanceMatrix.HEADER_BYTES);
+            header.putInt(MappedDistanceMatrix.MAGIC).putInt(MappedDistanceMatrix.VERSION).putInt(n).putInt(0);
+            header.flip();
+            channel.write(header, 0);
+
+            if (n <= AllPairsShortestPaths.DENSE_LIMIT) {
+                DistanceTable table = AllPairsShortestPaths.compute(g);
+                ByteBuffer row = ByteBuffer.allocate(8 * n);
+                for (int i = 0; i < n; i++) {
+                    writeRow(channel, n, i, table, null, row);
+                }
+            }
+            else {
+                // Stream each row from its own search; positional writes may run concurrently, and
+                // the first failure is kept for after the searches end
+                AtomicReference<IOException> failure = new AtomicReference<>();
+                ThreadLocal<ByteBuffer> rows = ThreadLocal.withInitial(() -> ByteBuffer.allocate(8 * n));
+                AllPairsShortestPaths.forEachRow(g, (dist, i) -> {
+                    try {
+                        writeRow(channel, n, i, null, dist, rows.get());
+                    }
+                    catch (IOException ex) {
+                        failure.compareAndSet(null, ex);
+                    }
+                });
+                if (failure.get() != null) {
+                    throw failure.get();
+                }
+            }
+            channel.force(false);
+        }
+        catch (IOException ex) {
+            Files.deleteIfExists(tmp);
+            throw ex;
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Writes the part of row i above the diagonal, taken from either table or dist.
+     */
+    private static void writeRow(FileChannel channel, int n, int i, DistanceTable table, double[] dist,
+            ByteBuffer buffer) throws IOException {
+        if (i == n - 1) {
+            return;
+        }
+        buffer.clear();
+        for (int j = i + 1; j < n; j++) {
+            buffer.putDouble(table != null ? table.distance(i, j) : dist[j]);
+        }
+        buffer.flip();
+        long position = MappedDistanceMatrix.position(n, i, i + 1);
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Scrambles the bits of x (the finalizer of SplitMix64).
+     */
+    private static long mix(long x) {
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return x ^ (x >>> 31);
+    }
+}
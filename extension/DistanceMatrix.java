@@ -0,0 +1,264 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the class: Stores the shortest distances between every pair of vertices
+ * of a graph in a single flat array of primitive doubles, indexed by vertex index.
+ *
+ */
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+public class DistanceMatrix implements MutableDistanceTable {
+
+    // Side length of the square tiles used by floydWarshall() and symmetrize()
+    public static final int BLOCK = 64;
+
+    private final int n; // Number of vertices covered by the matrix
+    private final double[] data; // Row-major n x n distances
+
+    /**
+     * Constructor to initialize an n x n matrix where every vertex is at distance 0
+     * from itself and at infinite distance from every other vertex.
+     *
+     * @param n the number of vertices
+     */
+    public DistanceMatrix(int n) {
+        if ((long) n * n > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("A dense distance matrix cannot hold " + n + " vertices");
+        }
+        this.n = n;
+        this.data = new double[n * n];
+        Arrays.fill(data, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < n; i++) {
+            data[i * n + i] = 0.0;
+        }
+    }
+
+    /**
+     * Constructor to wrap the row-major distances of another matrix.
+     *
+     * @param n    the number of vertices
+     * @param data the n x n distances
+     */
+    private DistanceMatrix(int n, double[] data) {
+        this.n = n;
+        this.data = data;
+    }
+
+    /**
+     * Returns the number of vertices covered by the matrix.
+     *
+     * @return the number of vertices
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Returns the distance between the vertices with indices u and v.
+     *
+     * @param u the index of the first vertex
+     * @param v the index of the second vertex
+     * @return the distance between u and v
+     */
+    public double distance(int u, int v) {
+        return data[u * n + v];
+    }
+
+    /**
+     * Sets the distance between the vertices with indices u and v in both directions.
+     *
+     * @param u the index of the first vertex
+     * @param v the index of the second vertex
+     * @param d the distance between u and v
+     */
+    public void set(int u, int v, double d) {
+        data[u * n + v] = d;
+        data[v * n + u] = d;
+    }
+
+    /**
+     * Returns a copy of the matrix that can be edited without changing this one.
+     *
+     * @return an independent copy of the matrix
+     */
+    public DistanceMatrix copy() {
+        return new DistanceMatrix(n, data.clone());
+    }
+
+    /**
+     * Returns a matrix one vertex larger, with the new last vertex at infinite distance from
+     * every other one. Each row is copied whole, in O(n^2) time.
+     *
+     * @return the larger matrix
+     */
+    public DistanceMatrix withVertexAdded() {
+        DistanceMatrix grown = new DistanceMatrix(n + 1);
+        for (int u = 0; u < n; u++) {
+            System.arraycopy(data, u * n, grown.data, u * (n + 1), n);
+        }
+        return grown;
+    }
+
+    /**
+     * Returns a matrix one vertex smaller, without the isolated vertex v, whose row and column
+     * are taken over by the last vertex. Each row is copied whole, in O(n^2) time.
+     *
+     * @param v the index of the removed vertex
+     * @return the smaller matrix
+     */
+    public DistanceMatrix withVertexRemoved(int v) {
+        int m = n - 1;
+        double[] shrunk = new double[m * m];
+        for (int i = 0; i < m; i++) {
+            int from = (i == v ? m : i) * n;
+            System.arraycopy(data, from, shrunk, i * m, m);
+            if (v < m) {
+                shrunk[i * m + v] = data[from + m];
+            }
+        }
+        return new DistanceMatrix(m, shrunk);
+    }
+
+    /**
+     * Copies the distances from the vertex with index u to every vertex into row u. Only row u is
+     * written, so different rows can be filled from different threads at the same time.
+     *
+     * @param u   the index of the source vertex
+     * @param row the distances from u, indexed by vertex index
+     */
+    public void setRow(int u, double[] row) {
+        System.arraycopy(row, 0, data, u * n, n);
+    }
+
+    /**
+     * Copies the distances from the vertex with index u to every vertex into row.
+     *
+     * @param u   the index of the source vertex
+     * @param row the array to fill, of length at least n
+     */
+    @Override
+    public void copyRow(int u, double[] row) {
+        System.arraycopy(data, u * n, row, 0, n);
+    }
+
+    /**
+     * Lowers every entry of min to the distance from the vertex with index u, if that is smaller.
+     * Row u is read in order, one cache line after another, so scoring many vertices against a
+     * token costs a sequential pass over its row. The loop is RowKernel.PREFERRED's, on vector
+     * lanes when jdk.incubator.vector is available.
+     *
+     * @param u   the index of the source vertex
+     * @param min the running minimum distances, of length at least n
+     */
+    public void minRow(int u, double[] min) {
+        minRow(u, min, RowKernel.PREFERRED);
+    }
+
+    /**
+     * Lowers every entry of min to the distance from the vertex with index u, if that is smaller,
+     * with the loop of the given kernel.
+     *
+     * @param u    the index of the source vertex
+     * @param min  the running minimum distances, of length at least n
+     * @param rows the kernel running the loop
+     */
+    public void minRow(int u, double[] min, RowKernel rows) {
+        rows.minRow(data, u * n, min, n);
+    }
+
+    /**
+     * Makes the matrix exactly symmetric by keeping the smaller of d(u, v) and d(v, u). Searches
+     * run from different sources add the same path up in a different order, so the two entries can
+     * differ in the last bit; game rules compare distances exactly and need them to agree.
+     */
+    public void symmetrize() {
+        for (int bi = 0; bi < n; bi += BLOCK) {
+            for (int bj = bi; bj < n; bj += BLOCK) {
+                int iEnd = Math.min(bi + BLOCK, n);
+                int jEnd = Math.min(bj + BLOCK, n);
+                for (int i = bi; i < iEnd; i++) {
+                    for (int j = Math.max(bj, i + 1); j < jEnd; j++) {
+                        double d = Math.min(data[i * n + j], data[j * n + i]);
+                        data[i * n + j] = d;
+                        data[j * n + i] = d;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the Floyd-Warshall algorithm over the matrix in place, so that every entry
+     * becomes the length of the shortest path between its two vertices.
+     *
+     * The matrix is processed in BLOCK x BLOCK tiles that stay in cache. For each diagonal tile
+     * kb, the tile itself is closed first, then every tile in row kb and column kb is updated from
+     * it, then every remaining tile (i, j) is updated from tiles (i, kb) and (kb, j). The tiles of
+     * the second and third phases are independent of each other, so they run in parallel.
+     */
+    public void floydWarshall() {
+        int blocks = (n + BLOCK - 1) / BLOCK;
+        for (int kb = 0; kb < blocks; kb++) {
+            final int k = kb;
+            // Phase 1: the diagonal tile
+            relaxTile(k, k, k);
+            // Phase 2: the tiles sharing a row or column with the diagonal tile
+            IntStream.range(0, 2 * blocks).parallel().forEach(t -> {
+                int other = t >> 1;
+                if (other == k) {
+                    return;
+                }
+                if ((t & 1) == 0) {
+                    relaxTile(k, other, k);
+                }
+                else {
+                    relaxTile(other, k, k);
+                }
+            });
+            // Phase 3: every other tile, one row of tiles per task
+            IntStream.range(0, blocks).parallel().forEach(ib -> {
+                if (ib == k) {
+                    return;
+                }
+                for (int jb = 0; jb < blocks; jb++) {
+                    if (jb != k) {
+                        relaxTile(ib, jb, k);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Relaxes every entry of tile (ib, jb) through every intermediate vertex of block kb. The
+     * intermediate loop is outermost, so the tile may be the same as the tiles it reads from.
+     *
+     * @param ib the tile row
+     * @param jb the tile column
+     * @param kb the block of intermediate vertices
+     */
+    private void relaxTile(int ib, int jb, int kb) {
+        int iEnd = Math.min((ib + 1) * BLOCK, n);
+        int jStart = jb * BLOCK;
+        int jEnd = Math.min(jStart + BLOCK, n);
+        int kEnd = Math.min((kb + 1) * BLOCK, n);
+        for (int k = kb * BLOCK; k < kEnd; k++) {
+            int rowK = k * n;
+            for (int i = ib * BLOCK; i < iEnd; i++) {
+                int rowI = i * n;
+                double dik = data[rowI + k];
+                if (dik == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                for (int j = jStart; j < jEnd; j++) {
+                    double alt = dik + data[rowK + j];
+                    if (alt < data[rowI + j]) {
+                        data[rowI + j] = alt;
+                    }
+                }
+            }
+        }
+    }
+}
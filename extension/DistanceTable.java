@@ -0,0 +1,80 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the interface: Read access to the shortest distances between pairs of vertices,
+ * indexed by Vertex.getIndex(). Implementations differ in how the distances are stored.
+ *
+ */
+
+public interface DistanceTable {
+
+    // Relative gap below which two distances are treated as a tie: sums of the same path
+    // lengths taken in different orders may differ in their last bits
+    double TIE_EPSILON = 1e-9;
+
+    /**
+     * Returns whether the distance a is shorter than b by more than a tie. Every scorer of
+     * the game compares distances with this, so that a near-tie goes to the earlier token
+     * whichever of them computed the distances.
+     *
+     * @param a the first distance
+     * @param b the second distance
+     * @return true if a < b and the two are not tied
+     */
+    static boolean shorter(double a, double b) {
+        return a < b && (b == Double.POSITIVE_INFINITY || b - a > TIE_EPSILON * b);
+    }
+
+    /**
+     * Returns whether neither of two distances is shorter than the other by more than a tie.
+     *
+     * @param a the first distance
+     * @param b the second distance
+     * @return true if a and b are tied
+     */
+    static boolean tied(double a, double b) {
+        return !shorter(a, b) && !shorter(b, a);
+    }
+
+    /**
+     * Returns the number of vertices covered by the table.
+     *
+     * @return the number of vertices
+     */
+    int size();
+
+    /**
+     * Returns the distance between the vertices with indices u and v.
+     *
+     * @param u the index of the first vertex
+     * @param v the index of the second vertex
+     * @return the distance between u and v, or infinity if v cannot be reached from u
+     */
+    double distance(int u, int v);
+
+    /**
+     * Returns whether the vertex a is strictly closer to u than the vertex b is. Tables that
+     * store rounded distances override this to settle near-ties exactly.
+     *
+     * @param u the index of the reference vertex
+     * @param a the index of the first candidate
+     * @param b the index of the second candidate
+     * @return true if d(u, a) < d(u, b)
+     */
+    default boolean closer(int u, int a, int b) {
+        return distance(u, a) < distance(u, b);
+    }
+
+    /**
+     * Copies the distances from the vertex with index u to every vertex into row. Tables that
+     * store rows contiguously override this with a bulk copy.
+     *
+     * @param u   the index of the source vertex
+     * @param row the array to fill, indexed by vertex index, of length at least size()
+     */
+    default void copyRow(int u, double[] row) {
+        for (int v = 0, n = size(); v < n; v++) {
+            row[v] = distance(u, v);
+        }
+    }
+}
@@ -10,6 +10,9 @@ public class Edge {
     private Vertex v; // The other vertex of the edge
     private Vertex u; // The vertex of the edge
     private double distance; // The distance between the two vertices
+    private int index = -1; // Position of this edge in its graph's edge list, or -1
+    private int uSlot = -1; // Position of this edge in u's incident edges, or -1
+    private int vSlot = -1; // Position of this edge in v's incident edges, or -1
 
     /**
      * Constructor to initialize an edge with two vertices and a distance.
@@ -52,11 +55,73 @@ public class Edge {
     }
 
     /**
-     * Returns the vertices of the edge.
+     * Returns the first vertex of the edge, as passed to the constructor.
+     * 
+     * @return the first vertex
+     */
+    public Vertex first(){
+        return u;
+    }
+
+    /**
+     * Returns the second vertex of the edge, as passed to the constructor.
+     * 
+     * @return the second vertex
+     */
+    public Vertex second(){
+        return v;
+    }
+
+    /**
+     * Returns the vertices of the edge in a new array. Use first() and second() in loops.
      * 
      * @return an array containing the two vertices of the edge
      */
     public Vertex[] vertices(){
         return new Vertex[]{u,v};
     }
+
+    /**
+     * Returns the position of this edge in its graph's edge list.
+     * 
+     * @return the position of this edge, or -1 if it does not belong to a graph
+     */
+    int getIndex(){
+        return index;
+    }
+
+    /**
+     * Sets the position of this edge in its graph's edge list. Only the graph assigns it.
+     * 
+     * @param index the new position of this edge
+     */
+    void setIndex(int index){
+        this.index = index;
+    }
+
+    /**
+     * Returns the last recorded position of this edge in the incident edges of x. A self-loop
+     * appears twice in its vertex's list but records only one position.
+     * 
+     * @param x one of the vertices of the edge
+     * @return the recorded position, or -1 if there is none
+     */
+    int slotIn(Vertex x){
+        return x == u ? uSlot : x == v ? vSlot : -1;
+    }
+
+    /**
+     * Records the position of this edge in the incident edges of x.
+     * 
+     * @param x    one of the vertices of the edge
+     * @param slot the position of this edge in the incident edges of x
+     */
+    void setSlot(Vertex x, int slot){
+        if (x == u) {
+            uSlot = slot;
+        }
+        else if (x == v) {
+            vSlot = slot;
+        }
+    }
 }
@@ -0,0 +1,159 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the class: Loads a VoronoiGraph board from a weighted edge-list text file, parsing
+ * the memory-mapped bytes directly with a ByteParser. The format extends the one read by
+ * Graph(String filename):
+ *
+ *   n_vertices: 4
+ *   start_vertex,end_vertex,weight
+ *   0,1,1.5
+ *   1,2
+ *   vertex,value
+ *   0,12
+ *   3,40
+ *
+ * The column header and the weight column are optional, and weights default to 1. The optional
+ * section after the vertex,value header gives vertex values; vertices it does not list are worth
+ * 0. A board without edges may go straight from n_vertices to the values. Fields may be separated by commas, spaces or tabs, and lines starting with # are comments.
+ * Any other line is an error reported with its line number.
+ *
+ */
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class EdgeListLoader {
+
+    /**
+     * Loads the board described by an edge-list file and calculates its distances.
+     *
+     * @param file the edge-list file
+     * @return the board
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public static VoronoiGraph load(Path file) throws IOException {
+        VoronoiGraph g = read(ByteParser.map(file));
+        g.computeDistances();
+        return g;
+    }
+
+    /**
+     * Reads a board from a parser positioned at the start of an edge list. The distances of the
+     * board are not calculated.
+     *
+     * @param in the parser
+     * @return the board
+     * @throws IOException if the input is malformed
+     */
+    public static VoronoiGraph read(ByteParser in) throws IOException {
+        skipComments(in);
+        String key = in.nextWord();
+        if (!key.endsWith(":")) {
+            in.nextWord(); // "n_vertices : 4"
+        }
+        int n = in.nextInt();
+        if (n < 0) {
+            throw in.error("negative vertex count " + n);
+        }
+        in.skipLine();
+        VoronoiGraph g = new VoronoiGraph(n);
+
+        // A board without edges may go straight from the vertex count to the values header
+        boolean atValues = false;
+        skipComments(in);
+        if (in.hasMore() && !in.atNumber()) {
+            atValues = header(in, "start_vertex,end_vertex", "start_vertex,end_vertex,weight",
+                    "vertex,value").equals("vertex,value");
+        }
+        // Edge lines run until the values header or the end of the file. They are parsed into
+        // primitive arrays first so that every list can be sized once before the edges are built.
+        int[] ends = new int[1024];
+        double[] weights = new double[512];
+        int m = 0;
+        while (!atValues && skipComments(in) && in.atNumber()) {
+            if (m == weights.length) {
+                ends = Arrays.copyOf(ends, 4 * m);
+                weights = Arrays.copyOf(weights, 2 * m);
+            }
+            ends[2 * m] = vertex(in, n);
+            ends[2 * m + 1] = vertex(in, n);
+            weights[m] = in.atLineEnd() ? 1.0 : in.nextDouble();
+            if (!in.atLineEnd()) {
+                throw in.error("too many fields in an edge");
+            }
+            m++;
+            in.skipLine();
+        }
+        int[] degree = new int[n];
+        for (int k = 0; k < 2 * m; k++) {
+            degree[ends[k]]++;
+        }
+        for (int v = 0; v < n; v++) {
+            g.getVertex(v).incidentEdges().ensureCapacity(degree[v]);
+        }
+        g.getEdges().ensureCapacity(m);
+        for (int k = 0; k < m; k++) {
+            g.addEdge(g.getVertex(ends[2 * k]), g.getVertex(ends[2 * k + 1]), weights[k]);
+        }
+
+        if (atValues || skipComments(in)) {
+            if (!atValues) {
+                header(in, "vertex,value");
+            }
+            while (skipComments(in)) {
+                int v = vertex(in, n);
+                g.setValue(g.getVertex(v), in.nextInt());
+                if (!in.atLineEnd()) {
+                    throw in.error("too many fields in a value");
+                }
+                in.skipLine();
+            }
+        }
+        return g;
+    }
+
+    /**
+     * Skips blank lines and comment lines.
+     *
+     * @param in the parser
+     * @return true if any input is left
+     */
+    private static boolean skipComments(ByteParser in) {
+        in.skipBlank();
+        while (in.peek() == '#') {
+            in.skipLine();
+            in.skipBlank();
+        }
+        return in.hasMore();
+    }
+
+    /**
+     * Reads a header line and checks that its columns are one of the expected lists.
+     *
+     * @return the columns read, joined by commas
+     */
+    private static String header(ByteParser in, String... expected) throws IOException {
+        StringBuilder columns = new StringBuilder(in.nextWord());
+        while (!in.atLineEnd()) {
+            columns.append(',').append(in.nextWord());
+        }
+        if (!Arrays.asList(expected).contains(columns.toString())) {
+            throw in.error("expected a " + expected[0] + " header or a number, found \"" + columns + "\"");
+        }
+        in.skipLine();
+        return columns.toString();
+    }
+
+    /**
+     * Reads a vertex index and checks that it is in range.
+     */
+    private static int vertex(ByteParser in, int n) throws IOException {
+        int v = in.nextInt();
+        if (v < 0 || v >= n) {
+            throw in.error("vertex " + v + " is not between 0 and " + (n - 1));
+        }
+        return v;
+    }
+}
@@ -0,0 +1,691 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the class: The mutable state of one Voronoi game played on a Board: the tokens in
+ * placement order, the token and player owning every vertex, and each player's score. The board
+ * is shared and never changed, so a game costs O(n) memory on top of it, and any number of games
+ * and search threads can play on one board and its distance table at once.
+ *
+ * setToken() captures the region of a new token without recomputing the partition (see
+ * VoronoiGraph.setToken), and pushToken()/popToken() try moves and take them back through an
+ * undo log. A GameState is not thread-safe: give each thread its own, for instance with copy().
+ *
+ * The game keeps the Zobrist hash of its tokens, the XOR of Board.zobrist() of every token, up to
+ * date as tokens are placed and popped, so positions reached by different move orders hash alike
+ * (see TranspositionTable).
+ *
+ * Next to the per-vertex arrays, the tokens and the vertices each player owns are kept as bitsets
+ * of 64 vertices per long, so free vertices are found a word at a time and the value of any set of
+ * vertices built from them is summed by Board.valueOf().
+ *
+ */
+
+import java.util.Arrays;
+
+public class GameState {
+
+    // Share of the vertices a walk may visit before setToken scans them all instead
+    private static final double WALK_FRACTION = 1.0 / 16;
+
+    private Board board; // The board the game is played on
+
+    // Per-vertex state, indexed by vertex index; -1 marks "none"
+    private int[] tokens; // Player of the token on each vertex
+    private int[] ownerP; // Player owning each vertex
+    private int[] ownerV; // Vertex of the token owning each vertex
+    private double[] ownerDist; // Distance from each vertex to the token owning it
+    private int[] placed = new int[0]; // Vertex indices of the tokens in placement order
+    private int placedCount;
+    private int[] scores = new int[0]; // Summed value controlled by each player
+    private long[] tokenBits; // Vertices holding a token, 64 per word
+    private long[][] ownedBits = new long[0][]; // Vertices owned by each player, 64 per word
+    private long hash; // XOR of the Zobrist keys of the tokens
+
+    private IndexedMinHeap cellHeap; // Frontier of the search from a new token
+    private double[] cellDist = new double[0]; // Distances from the new token, infinite when unvisited
+    private int[] cellSeen = new int[0]; // Vertices visited from the new token, in visiting order
+
+    // Undo log of pushed tokens: one entry per captured vertex, with the token it had before
+    private int[] undoVertex = new int[0];
+    private int[] undoOwner = new int[0];
+    private double[] undoDist = new double[0];
+    private int undoSize;
+    private int[] pushedStart = new int[0]; // Log position where each pushed token's entries begin
+    private int pushedCount;
+
+    /**
+     * Constructor to start a game without tokens on the board.
+     *
+     * @param board the board
+     */
+    public GameState(Board board) {
+        this.board = board;
+        int n = board.size();
+        this.tokens = new int[n];
+        this.ownerP = new int[n];
+        this.ownerV = new int[n];
+        this.ownerDist = new double[n];
+        this.tokenBits = new long[(n + 63) >>> 6];
+        reset();
+    }
+
+    /**
+     * Constructor to copy another game, sharing its board.
+     *
+     * @param other the game to copy
+     */
+    private GameState(GameState other) {
+        this.board = other.board;
+        this.tokens = other.tokens.clone();
+        this.ownerP = other.ownerP.clone();
+        this.ownerV = other.ownerV.clone();
+        this.ownerDist = other.ownerDist.clone();
+        this.placed = other.placed.clone();
+        this.placedCount = other.placedCount;
+        this.scores = other.scores.clone();
+        this.hash = other.hash;
+        this.tokenBits = other.tokenBits.clone();
+        this.ownedBits = new long[other.ownedBits.length][];
+        for (int p = 0; p < ownedBits.length; p++) {
+            this.ownedBits[p] = other.ownedBits[p].clone();
+        }
+        this.undoVertex = Arrays.copyOf(other.undoVertex, other.undoSize);
+        this.undoOwner = Arrays.copyOf(other.undoOwner, other.undoSize);
+        this.undoDist = Arrays.copyOf(other.undoDist, other.undoSize);
+        this.undoSize = other.undoSize;
+        this.pushedStart = Arrays.copyOf(other.pushedStart, other.pushedCount);
+        this.pushedCount = other.pushedCount;
+    }
+
+    /**
+     * Returns a copy of the game on the same board, which can be played independently of this
+     * one, pushed tokens included.
+     *
+     * @return an independent copy of the game
+     */
+    public GameState copy() {
+        return new GameState(this);
+    }
+
+    /**
+     * Returns the board the game is played on.
+     *
+     * @return the board
+     */
+    public Board board() {
+        return board;
+    }
+
+    /**
+     * Removes every token, starting the game over on the same board.
+     */
+    public final void reset() {
+        Arrays.fill(tokens, -1);
+        Arrays.fill(ownerP, -1);
+        Arrays.fill(ownerV, -1);
+        Arrays.fill(ownerDist, Double.POSITIVE_INFINITY);
+        placedCount = 0;
+        scores = new int[0];
+        Arrays.fill(tokenBits, 0L);
+        ownedBits = new long[0][];
+        hash = 0L;
+        undoSize = 0;
+        pushedCount = 0;
+    }
+
+    /**
+     * Places a token of the given player on the free vertex v and captures the vertices now
+     * closer to it than to any earlier token.
+     *
+     * @param v      the index of the vertex chosen
+     * @param player the player placing the token
+     * @throws IllegalArgumentException if v already holds a token
+     * @throws IllegalStateException    if pushed tokens have not been popped
+     */
+    public void setToken(int v, int player) {
+        if (pushedCount > 0) {
+            throw new IllegalStateException("Pop the " + pushedCount + " pushed tokens before setting one");
+        }
+        if (tokens[v] != -1) {
+            throw new IllegalArgumentException("There is already a token at " + v);
+        }
+        placeToken(v, player);
+    }
+
+    /**
+     * Places a token like setToken, and records every ownership change so that popToken() can
+     * take it back.
+     *
+     * @param v      the index of the vertex chosen
+     * @param player the player placing the token
+     * @throws IllegalArgumentException if v already holds a token
+     */
+    public void pushToken(int v, int player) {
+        if (tokens[v] != -1) {
+            throw new IllegalArgumentException("Cannot push a token at " + v);
+        }
+        if (pushedCount == pushedStart.length) {
+            pushedStart = Arrays.copyOf(pushedStart, Math.max(8, 2 * pushedCount));
+        }
+        pushedStart[pushedCount++] = undoSize;
+        placeToken(v, player);
+    }
+
+    /**
+     * Takes back the last token added with pushToken, restoring the owners and scores it
+     * changed.
+     *
+     * @return the index of the vertex the token was taken from
+     * @throws IllegalStateException if there is no pushed token
+     */
+    public int popToken() {
+        if (pushedCount == 0) {
+            throw new IllegalStateException("There is no pushed token to pop");
+        }
+        int vIndex = placed[--placedCount];
+        int start = pushedStart[--pushedCount];
+        for (int i = undoSize - 1; i >= start; i--) {
+            int u = undoVertex[i];
+            int old = undoOwner[i];
+            int value = board.value(u);
+            scores[ownerP[u]] -= value;
+            ownedBits[ownerP[u]][u >>> 6] &= ~(1L << u);
+            ownerV[u] = old;
+            ownerP[u] = old == -1 ? -1 : tokens[old];
+            ownerDist[u] = undoDist[i];
+            if (old != -1) {
+                scores[ownerP[u]] += value;
+                ownedBits[ownerP[u]][u >>> 6] |= 1L << u;
+            }
+        }
+        undoSize = start;
+        hash ^= board.zobrist(vIndex, tokens[vIndex]);
+        tokens[vIndex] = -1;
+        tokenBits[vIndex >>> 6] &= ~(1L << vIndex);
+        return vIndex;
+    }
+
+    /**
+     * Returns the number of tokens added with pushToken that have not been popped.
+     *
+     * @return the number of pushed tokens
+     */
+    public int pushedCount() {
+        return pushedCount;
+    }
+
+    /**
+     * Returns whether there is a token on the vertex v.
+     *
+     * @param v the index of the vertex
+     * @return true if v holds a token
+     */
+    public boolean hasToken(int v) {
+        return tokens[v] != -1;
+    }
+
+    /**
+     * Returns the player who placed the token on the vertex v.
+     *
+     * @param v the index of the vertex
+     * @return the player of the token on v, or -1 if v holds no token
+     */
+    public int tokenPlayer(int v) {
+        return tokens[v];
+    }
+
+    /**
+     * Returns the Zobrist hash of the tokens on the board: equal for every order of placing the
+     * same tokens with the same players. The owners can still differ between such orders where
+     * two tokens are equally near a vertex, since ties go to the earlier token.
+     *
+     * @return the 64-bit hash of the position
+     */
+    public long hash() {
+        return hash;
+    }
+
+    /**
+     * Returns the number of vertices without a token, counted a word of 64 vertices at a time.
+     *
+     * @return the number of free vertices
+     */
+    public int freeCount() {
+        int taken = 0;
+        for (int i = 0, words = (board.size() + 63) >>> 6; i < words; i++) {
+            taken += Long.bitCount(tokenBits[i]);
+        }
+        return board.size() - taken;
+    }
+
+    /**
+     * Returns the first vertex at or after from without a token, skipping 64 taken vertices at
+     * a time. Looping v = nextFree(v + 1) from nextFree(0) visits every free vertex in order.
+     *
+     * @param from the index to start from
+     * @return the index of the next free vertex, or -1 if there is none
+     */
+    public int nextFree(int from) {
+        int n = board.size();
+        if (from >= n) {
+            return -1;
+        }
+        int i = from >>> 6;
+        long w = ~tokenBits[i] & (-1L << from);
+        if ((w & 1L << from) != 0) {
+            return from;
+        }
+        while (w == 0) {
+            if (++i << 6 >= n) {
+                return -1;
+            }
+            w = ~tokenBits[i];
+        }
+        int v = (i << 6) + Long.numberOfTrailingZeros(w);
+        return v < n ? v : -1;
+    }
+
+    /**
+     * Returns a bitset of the vertices holding a token, vertex v being bit v % 64 of word v / 64.
+     *
+     * @return a new bitset of the tokens
+     */
+    public long[] tokenBits() {
+        return Arrays.copyOf(tokenBits, (board.size() + 63) >>> 6);
+    }
+
+    /**
+     * Returns a bitset of the vertices the given player owns, vertex v being bit v % 64 of word
+     * v / 64. Board.valueOf() of it is the player's score while the values have not changed.
+     *
+     * @param player the player
+     * @return a new bitset of the player's vertices, empty for a player without tokens
+     */
+    public long[] ownedBits(int player) {
+        int words = (board.size() + 63) >>> 6;
+        if (player < 0 || player >= ownedBits.length) {
+            return new long[words];
+        }
+        return Arrays.copyOf(ownedBits[player], words);
+    }
+
+    /**
+     * Returns the number of tokens on the board.
+     *
+     * @return the number of tokens placed since the last reset
+     */
+    public int tokenCount() {
+        return placedCount;
+    }
+
+    /**
+     * Returns the vertex holding the k-th token placed, counting from 0.
+     *
+     * @param k the position of the token in placement order
+     * @return the index of the vertex holding the k-th token
+     */
+    public int token(int k) {
+        if (k < 0 || k >= placedCount) {
+            throw new IndexOutOfBoundsException("Token " + k + " of " + placedCount);
+        }
+        return placed[k];
+    }
+
+    /**
+     * Returns the player owning the vertex v.
+     *
+     * @param v the index of the vertex
+     * @return the player of the nearest token, or -1 if no token reaches v
+     */
+    public int ownerPlayer(int v) {
+        return ownerP[v];
+    }
+
+    /**
+     * Returns the vertex holding the token that owns the vertex v.
+     *
+     * @param v the index of the vertex
+     * @return the index of the nearest token's vertex, or -1 if no token reaches v
+     */
+    public int ownerToken(int v) {
+        return ownerV[v];
+    }
+
+    /**
+     * Returns the summed value of the vertices the given player controls.
+     *
+     * @param player the player
+     * @return the player's score, 0 for a player without tokens
+     */
+    public int score(int player) {
+        return player >= 0 && player < scores.length ? scores[player] : 0;
+    }
+
+    /**
+     * Returns the number of players with a score, one more than the highest player who has
+     * placed a token since the last reset.
+     *
+     * @return the number of players
+     */
+    public int playerCount() {
+        return scores.length;
+    }
+
+    /**
+     * Moves the game onto another board, keeping its tokens and owners, and grows the per-vertex
+     * arrays to cover the board. VoronoiGraph uses this after its board is edited.
+     *
+     * @param board the new board
+     */
+    void rebase(Board board) {
+        boolean rehash = board != this.board;
+        this.board = board;
+        int n = board.size();
+        if (n > tokens.length) {
+            int capacity = Math.max(n, 2 * tokens.length);
+            tokens = grow(tokens, capacity);
+            ownerP = grow(ownerP, capacity);
+            ownerV = grow(ownerV, capacity);
+            int old = ownerDist.length;
+            ownerDist = Arrays.copyOf(ownerDist, capacity);
+            Arrays.fill(ownerDist, old, capacity, Double.POSITIVE_INFINITY);
+            int words = (capacity + 63) >>> 6;
+            tokenBits = Arrays.copyOf(tokenBits, words);
+            for (int p = 0; p < ownedBits.length; p++) {
+                ownedBits[p] = Arrays.copyOf(ownedBits[p], words);
+            }
+        }
+        // Every board has its own keys
+        if (rehash) {
+            hash = 0L;
+            for (int k = 0; k < placedCount; k++) {
+                hash ^= board.zobrist(placed[k], tokens[placed[k]]);
+            }
+        }
+    }
+
+    /**
+     * Takes the vertex v out of the game before VoronoiGraph removes it: its value leaves the
+     * score of the player owning it, and its token, if any, leaves the placement order. The
+     * vertices the token owned still name it, so replay() must follow once the indices have
+     * moved.
+     *
+     * @param v the index of the vertex
+     * @return true if the vertex held a token
+     */
+    boolean dropVertex(int v) {
+        int owner = ownerP[v];
+        if (owner != -1) {
+            scores[owner] -= board.value(v);
+            ownedBits[owner][v >>> 6] &= ~(1L << v);
+            ownerP[v] = -1;
+        }
+        if (tokens[v] == -1) {
+            return false;
+        }
+        int k = 0;
+        while (placed[k] != v) {
+            k++;
+        }
+        System.arraycopy(placed, k + 1, placed, k, placedCount - k - 1);
+        placedCount--;
+        return true;
+    }
+
+    /**
+     * Places the tokens again in their placement order on a cleared board, recomputing every
+     * owner and score. VoronoiGraph uses this after removing a vertex that held a token.
+     */
+    void replay() {
+        int count = placedCount;
+        int[] order = Arrays.copyOf(placed, count);
+        int[] players = new int[count];
+        for (int k = 0; k < count; k++) {
+            players[k] = tokens[order[k]];
+        }
+        reset();
+        for (int k = 0; k < count; k++) {
+            placeToken(order[k], players[k]);
+        }
+    }
+
+    /**
+     * Moves the state of the vertex at index from to index to, as VoronoiGraph does when a
+     * vertex is removed. Only a vertex holding a token is named by others as their owner, so
+     * only then are the vertices its player owns visited to rename it.
+     *
+     * @param from the old index of the moved vertex
+     * @param to   the new index of the moved vertex
+     */
+    void moveVertex(int from, int to) {
+        int player = tokens[from];
+        tokens[to] = player;
+        ownerP[to] = ownerP[from];
+        ownerV[to] = ownerV[from];
+        ownerDist[to] = ownerDist[from];
+        copyBit(tokenBits, from, to);
+        for (long[] bits : ownedBits) {
+            copyBit(bits, from, to);
+        }
+        if (player == -1) {
+            return;
+        }
+        long[] bits = ownedBits[player];
+        for (int w = 0; w < bits.length; w++) {
+            for (long word = bits[w]; word != 0; word &= word - 1) {
+                int u = (w << 6) + Long.numberOfTrailingZeros(word);
+                if (ownerV[u] == from) {
+                    ownerV[u] = to;
+                }
+            }
+        }
+        for (int k = 0; k < placedCount; k++) {
+            if (placed[k] == from) {
+                placed[k] = to;
+            }
+        }
+    }
+
+    /**
+     * Clears the state of the vertex v, whose index has been freed.
+     *
+     * @param v the index of the vertex
+     */
+    void clearVertex(int v) {
+        tokens[v] = -1;
+        ownerP[v] = -1;
+        ownerV[v] = -1;
+        ownerDist[v] = Double.POSITIVE_INFINITY;
+        tokenBits[v >>> 6] &= ~(1L << v);
+        for (long[] bits : ownedBits) {
+            bits[v >>> 6] &= ~(1L << v);
+        }
+    }
+
+    /**
+     * Sets bit to of the bitset to bit from.
+     */
+    private static void copyBit(long[] bits, int from, int to) {
+        long bit = (bits[from >>> 6] >>> from) & 1L;
+        bits[to >>> 6] = (bits[to >>> 6] & ~(1L << to)) | (bit << to);
+    }
+
+    /**
+     * Places the token of the given player on the free vertex at vIndex and captures its region.
+     * The vertices a token captures form a region around it: every shortest path from the token
+     * to a captured vertex stays inside it, so only the region and its border are visited, by a
+     * walk checked against the distance table when the table is in memory and otherwise by a
+     * Dijkstra search. Ties go to the earlier token.
+     */
+    private void placeToken(int vIndex, int player) {
+        tokens[vIndex] = player;
+        tokenBits[vIndex >>> 6] |= 1L << vIndex;
+        hash ^= board.zobrist(vIndex, player);
+        if (placedCount == placed.length) {
+            placed = Arrays.copyOf(placed, Math.max(8, 2 * placedCount));
+        }
+        placed[placedCount++] = vIndex;
+        if (player >= scores.length) {
+            scores = Arrays.copyOf(scores, player + 1);
+            int old = ownedBits.length;
+            ownedBits = Arrays.copyOf(ownedBits, player + 1);
+            for (int p = old; p <= player; p++) {
+                ownedBits[p] = new long[tokenBits.length];
+            }
+        }
+
+        int n = board.size();
+        if (cellHeap == null || cellHeap.capacity() < n) {
+            cellHeap = new IndexedMinHeap(tokens.length);
+            cellDist = new double[tokens.length];
+            Arrays.fill(cellDist, Double.POSITIVE_INFINITY);
+            cellSeen = new int[tokens.length];
+        }
+        DistanceTable distances = board.distances();
+        if (distances == null || distances instanceof LazyDistanceRows) {
+            searchCell(vIndex, player);
+        }
+        else {
+            walkCell(distances, vIndex, player);
+        }
+    }
+
+    /**
+     * Captures the region of the new token at vIndex by walking out from it breadth first and
+     * deciding each vertex with the distance table, without going past a vertex it keeps. Once
+     * the region and its border cover more than WALK_FRACTION of the vertices, a scan of every
+     * vertex finishes the capture instead, since reading the table in order is much cheaper per
+     * vertex than walking.
+     */
+    private void walkCell(DistanceTable distances, int vIndex, int player) {
+        CsrGraph csr = board.graph();
+        int n = board.size();
+        int budget = (int) (n * WALK_FRACTION);
+        int seen = 0;
+        cellDist[vIndex] = 0.0;
+        cellSeen[seen++] = vIndex;
+        for (int head = 0; head < seen && seen <= budget; head++) {
+            int u = cellSeen[head];
+            double d = distances.distance(vIndex, u);
+            if (ownerP[u] != -1 && !capturedFrom(u, vIndex, d)) {
+                continue;
+            }
+            capture(u, vIndex, player, d);
+            for (int k = csr.start(u), end = csr.end(u); k < end; k++) {
+                int w = csr.target(k);
+                if (cellDist[w] == Double.POSITIVE_INFINITY) {
+                    cellDist[w] = 0.0;
+                    cellSeen[seen++] = w;
+                }
+            }
+        }
+        for (int i = 0; i < seen; i++) {
+            cellDist[cellSeen[i]] = Double.POSITIVE_INFINITY;
+        }
+        if (seen > budget) {
+            // cellDist holds the row of the new token for the length of the scan
+            double[] row = cellDist;
+            distances.copyRow(vIndex, row);
+            for (int u = 0; u < n; u++) {
+                double d = row[u];
+                if (ownerV[u] == vIndex || DistanceTable.shorter(ownerDist[u], d)) {
+                    continue;
+                }
+                if (ownerP[u] == -1 ? d != Double.POSITIVE_INFINITY : capturedFrom(u, vIndex, d)) {
+                    capture(u, vIndex, player, d);
+                }
+            }
+            Arrays.fill(row, Double.POSITIVE_INFINITY);
+        }
+    }
+
+    /**
+     * Captures the region of the new token at vIndex with a Dijkstra search from it that does
+     * not expand a vertex already at least as close to an earlier token.
+     */
+    private void searchCell(int vIndex, int player) {
+        CsrGraph csr = board.graph();
+        int seen = 0;
+        cellDist[vIndex] = 0.0;
+        cellSeen[seen++] = vIndex;
+        cellHeap.insertOrDecrease(vIndex, 0.0);
+        while (!cellHeap.isEmpty()) {
+            double d = cellHeap.peekKey();
+            int u = cellHeap.poll();
+            if (ownerP[u] != -1 && !capturedFrom(u, vIndex, d)) {
+                continue;
+            }
+            capture(u, vIndex, player, d);
+            for (int k = csr.start(u), end = csr.end(u); k < end; k++) {
+                int w = csr.target(k);
+                double alt = d + csr.weight(k);
+                if (alt < cellDist[w]) {
+                    if (cellDist[w] == Double.POSITIVE_INFINITY) {
+                        cellSeen[seen++] = w;
+                    }
+                    cellDist[w] = alt;
+                    cellHeap.insertOrDecrease(w, alt);
+                }
+            }
+        }
+        for (int i = 0; i < seen; i++) {
+            cellDist[cellSeen[i]] = Double.POSITIVE_INFINITY;
+        }
+    }
+
+    /**
+     * Gives the vertex u to the new token at vIndex, moving its value between the players'
+     * scores and logging its previous token while pushed tokens are being placed.
+     */
+    private void capture(int u, int vIndex, int player, double d) {
+        int uOwner = ownerP[u];
+        if (pushedCount > 0) {
+            if (undoSize == undoVertex.length) {
+                int capacity = Math.max(64, 2 * undoSize);
+                undoVertex = Arrays.copyOf(undoVertex, capacity);
+                undoOwner = Arrays.copyOf(undoOwner, capacity);
+                undoDist = Arrays.copyOf(undoDist, capacity);
+            }
+            undoVertex[undoSize] = u;
+            undoOwner[undoSize] = ownerV[u];
+            undoDist[undoSize] = ownerDist[u];
+            undoSize++;
+        }
+        int value = board.value(u);
+        if (uOwner != -1) {
+            scores[uOwner] -= value;
+            ownedBits[uOwner][u >>> 6] &= ~(1L << u);
+        }
+        scores[player] += value;
+        ownedBits[player][u >>> 6] |= 1L << u;
+        ownerP[u] = player;
+        ownerV[u] = vIndex;
+        ownerDist[u] = d;
+    }
+
+    /**
+     * Returns whether the new token at vIndex, at distance d from the owned vertex u, is strictly
+     * closer to u than u's current token. Distances DistanceTable.tied() calls a tie go to the
+     * earlier token: u's current one, since the new token is always the last placed. Only a table
+     * of rounded floats is asked to settle them, as two of its equal entries can stand for
+     * different distances.
+     */
+    private boolean capturedFrom(int u, int vIndex, double d) {
+        double old = ownerDist[u];
+        if (!DistanceTable.tied(d, old)) {
+            return d < old;
+        }
+        DistanceTable distances = board.distances();
+        return distances instanceof TriangularDistanceMatrix && distances.closer(u, vIndex, ownerV[u]);
+    }
+
+    /**
+     * Returns a copy of the array a grown to the given capacity, with new slots set to -1.
+     */
+    private static int[] grow(int[] a, int capacity) {
+        int old = a.length;
+        a = Arrays.copyOf(a, capacity);
+        Arrays.fill(a, old, capacity, -1);
+        return a;
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the class: Draws the edges of an Erdős–Rényi G(n, p) graph, in which every pair of
+ * vertices is joined independently with probability p, in O(n + m) time instead of one random
+ * draw per pair. Following Batagelj and Brandes, the pairs (v, w) with w < v are walked in order
+ * and the gap to the next edge is drawn from a geometric distribution, so pairs that get no edge
+ * are skipped without being visited.
+ *
+ * The rows v are cut into chunks of ROWS_PER_CHUNK, each with its own SplittableRandom split off
+ * the caller's in chunk order. Chunks are generated in parallel, yet a given seed always yields
+ * the same edges in the same order, whatever the number of threads.
+ *
+ */
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+public class GnpGenerator {
+
+    // Number of consecutive rows generated from one random stream
+    public static final int ROWS_PER_CHUNK = 2048;
+
+    /**
+     * Returns the edges of a random G(n, p) graph as a flat array of endpoints: edge k joins
+     * pairs[2k] and pairs[2k + 1], where pairs[2k] > pairs[2k + 1]. Edges are listed by their
+     * larger endpoint, then by their smaller one.
+     *
+     * @param n    the number of vertices
+     * @param p    the probability of an edge between any two vertices
+     * @param rand the random number generator; chunk streams are split off it
+     * @return the endpoints of the edges
+     */
+    public static int[] pairs(int n, double p, SplittableRandom rand) {
+        if (n < 2 || !(p > 0)) {
+            return new int[0];
+        }
+        int chunks = (n + ROWS_PER_CHUNK - 1) / ROWS_PER_CHUNK;
+        SplittableRandom[] streams = new SplittableRandom[chunks];
+        for (int c = 0; c < chunks; c++) {
+            streams[c] = rand.split();
+        }
+        int[][] parts = new int[chunks][];
+        IntStream.range(0, chunks).parallel().forEach(c -> parts[c] = chunk(c * ROWS_PER_CHUNK,
+                Math.min(n, (c + 1) * ROWS_PER_CHUNK), p, streams[c]));
+
+        long total = 0;
+        for (int[] part : parts) {
+            total += part.length;
+        }
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("G(" + n + ", " + p + ") has too many edges for one array");
+        }
+        int[] out = new int[(int) total];
+        int at = 0;
+        for (int[] part : parts) {
+            System.arraycopy(part, 0, out, at, part.length);
+            at += part.length;
+        }
+        return out;
+    }
+
+    /**
+     * Draws the edges (v, w) with w < v for the rows lo <= v < hi.
+     */
+    private static int[] chunk(int lo, int hi, double p, SplittableRandom rand) {
+        // log(1 - p) is -infinity for p = 1, which makes every gap 0 as it should
+        double logQ = Math.log1p(-p);
+        int[] out = new int[16];
+        int size = 0;
+        long v = Math.max(lo, 1);
+        long w = -1;
+        while (v < hi) {
+            double skip = Math.floor(Math.log1p(-rand.nextDouble()) / logQ);
+            if (skip >= (double) hi * hi) {
+                break; // the gap runs past the last pair of the chunk
+            }
+            w += 1 + (long) skip;
+            // Carry the skip over into the following rows
+            while (w >= v && v < hi) {
+                w -= v;
+                v++;
+            }
+            if (v < hi) {
+                if (size == out.length) {
+                    out = Arrays.copyOf(out, 2 * size);
+                }
+                out[size++] = (int) v;
+                out[size++] = (int) w;
+            }
+        }
+        return Arrays.copyOf(out, size);
+    }
+}
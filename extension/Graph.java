@@ -8,13 +8,16 @@
 import java.util.ArrayList;
 import java.io.* ;
 import java.util.HashMap;
-import java.util.PriorityQueue;
-import java.util.Comparator;
+import java.util.SplittableRandom;
 
 public class Graph {
+
+    // Largest max/min edge weight ratio for which the bucket-queue engine is preferred
+    public static final double MAX_BUCKET_RATIO = 64.0;
     
     private ArrayList<Vertex> vertices; // List of vertices in the graph
     private ArrayList<Edge> edges; // List of edges in the graph
+    private CsrGraph snapshot; // Flat copy of the adjacency, or null after an edit
 
     /**
      * Constructor to initialize a graph with a 0 vertices.
@@ -39,22 +42,36 @@ public class Graph {
      * @param probability the probability of creating an edge between any two vertices
      */
     public Graph(int n, double probability){
+        this(n, probability, new SplittableRandom());
+    }
+
+    /**
+     * Constructor to initialize a reproducible graph with n vertices and a specified probability
+     * of edge creation. The edges are drawn in O(n + m) time by GnpGenerator.
+     * 
+     * @param n           the number of vertices in the graph
+     * @param probability the probability of creating an edge between any two vertices
+     * @param seed        the seed of the random number generator
+     */
+    public Graph(int n, double probability, long seed){
+        this(n, probability, new SplittableRandom(seed));
+    }
+
+    /**
+     * Constructor to initialize a graph with n vertices and edges of length 1 drawn with the
+     * given probability from the given random number generator.
+     */
+    private Graph(int n, double probability, SplittableRandom rand){
         vertices = new ArrayList<Vertex>();
         edges = new ArrayList<Edge>();
 
         for(int i = 0; i < n; i++){
-            vertices.add(new Vertex());
+            appendVertex();
         }
 
-        for(int i = 0; i < n; i++){
-            for(int j = i + 1; j < n; j++){
-                if(Math.random() < probability){
-                    Edge e = new Edge(vertices.get(i), vertices.get(j), 1.0);
-                    vertices.get(i).addEdge(e);
-                    vertices.get(j).addEdge(e);
-                    edges.add(e);
-                }
-            }
+        int[] pairs = GnpGenerator.pairs(n, probability, rand);
+        for(int k = 0; k < pairs.length; k += 2){
+            insert(new Edge(vertices.get(pairs[k + 1]), vertices.get(pairs[k]), 1.0));
         }
     }
 
@@ -76,7 +93,7 @@ public class Graph {
             vertices = new ArrayList<Vertex>() ;
             Integer numVertices = Integer.valueOf( br.readLine().split( ": " )[ 1 ] ) ;
             for ( int i = 0 ; i < numVertices ; i ++ ) {
-                vertices.add( new Vertex() );
+                appendVertex();
             }
 
             //Read in the edges specified by the file and create them
@@ -92,11 +109,8 @@ public class Graph {
 
                     //Make the edge that starts at start and ends at end with weight 1
                     Edge edge = new Edge( vertices.get( start ) , vertices.get( end ) , 1. ) ;
-                    //Add the edge to the set of edges for each of the vertices
-                    vertices.get( start ).addEdge( edge ) ;
-                vertices.get( end ).addEdge( edge ) ;
-                //Add the edge to the ArrayList of edges in the graph
-                this.edges.add( edge );
+                    //Add the edge to both vertices and to the ArrayList of edges in the graph
+                    insert( edge ) ;
 
                 //Read the next line
                 line = br.readLine();
@@ -140,13 +154,25 @@ public class Graph {
     }
 
     /**
-     * Adds a vertex to the graph.
+     * Adds a vertex to the graph. The new vertex is given the next free index.
      * 
      * @return the newly added vertex
      */
     public Vertex addVertex(){
+        return appendVertex();
+    }
+
+    /**
+     * Adds a vertex with the next free index. The constructors call this rather than
+     * addVertex(), which a subclass overrides to grow its own per-vertex state.
+     * 
+     * @return the newly added vertex
+     */
+    private Vertex appendVertex(){
         Vertex v = new Vertex();
+        v.setIndex(vertices.size());
         vertices.add(v);
+        snapshot = null;
         return v;
     }
 
@@ -160,26 +186,33 @@ public class Graph {
      */
     public Edge addEdge(Vertex u, Vertex v, double distance){
         Edge e = new Edge(u, v, distance);
-        u.addEdge(e);
-        v.addEdge(e);
-        edges.add(e);
+        insert(e);
         return e;
     }
 
     /**
-     * Returns the edge between two vertices if it exists.
+     * Adds an edge to both of its vertices and to the end of the edge list.
+     * 
+     * @param e the edge to add
+     */
+    private void insert(Edge e){
+        e.first().addEdge(e);
+        e.second().addEdge(e);
+        e.setIndex(edges.size());
+        edges.add(e);
+        snapshot = null;
+    }
+
+    /**
+     * Returns the edge between two vertices if it exists. Only the incident edges of the vertex
+     * with the smaller degree are searched.
      * 
      * @param u the first vertex
      * @param v the second vertex
      * @return the edge between the two vertices, or null if no such edge exists
      */
     public Edge getEdge(Vertex u, Vertex v) {
-        for (Edge e : edges) {
-            if (e.vertices()[0].equals(u) && e.vertices()[1].equals(v) || e.vertices()[0].equals(v) && e.vertices()[1].equals(u)) {
-                return e;
-            }
-        }
-        return null;
+        return u.incidentEdges().size() <= v.incidentEdges().size() ? u.getEdgeTo(v) : v.getEdgeTo(u);
     }
 
     /**
@@ -193,39 +226,88 @@ public class Graph {
     }
 
     /**
-     * Removes a vertex from the graph.
+     * Removes a vertex and its incident edges from the graph in time proportional to its degree.
      * 
      * @param vertex the vertex to be removed
      * @return true if the vertex was successfully removed, false otherwise
      */
     public boolean remove(Vertex vertex){
-        if (!vertices.contains(vertex)) {
+        int index = vertex.getIndex();
+        if (index < 0 || index >= vertices.size() || vertices.get(index) != vertex) {
             return false;
         }
-        // Remove the vertex from the incident edges of all its adjacent vertices
-        vertices.remove(vertex);
-        for (Edge e : edges) {
-            if (e.vertices()[0].equals(vertex) || e.vertices()[1].equals(vertex)) {
-                edges.remove(e);
+        snapshot = null;
+        // Keep indices dense by moving the last vertex into the freed slot
+        Vertex last = vertices.remove(vertices.size() - 1);
+        if (last != vertex) {
+            vertices.set(index, last);
+            last.setIndex(index);
+            moveVertexData(vertices.size(), index);
+        }
+        vertex.setIndex(-1);
+        // Remove the incident edges from the adjacent vertices and from the edge list
+        for (Edge e : vertex.incidentEdges()) {
+            Vertex other = e.other(vertex);
+            if (other != vertex) {
+                other.removeEdge(e);
             }
+            unlist(e);
+        }
+        for (Edge e : vertex.incidentEdges()) {
+            e.setSlot(vertex, -1);
         }
+        vertex.incidentEdges().clear();
         return true;
     }
 
     /**
-     * Removes an edge from the graph.
+     * Called when the vertex at index from is moved to index to while removing a vertex.
+     * Subclasses keeping array-backed per-vertex state override this to move their entries.
+     * 
+     * @param from the old index of the moved vertex
+     * @param to   the new index of the moved vertex
+     */
+    protected void moveVertexData(int from, int to){
+    }
+
+    /**
+     * Removes an edge from the graph in constant time.
      * 
      * @param edge the edge to be removed
      * @return true if the edge was successfully removed, false otherwise
      */
     public boolean remove(Edge edge){
-        if (!edges.contains(edge)) {
+        if (!unlist(edge)) {
             return false;
         }
         // Remove the edge from the incident edges of both vertices
-        edge.vertices()[0].removeEdge(edge);
-        edge.vertices()[1].removeEdge(edge);
-        edges.remove(edge);
+        edge.first().removeEdge(edge);
+        edge.second().removeEdge(edge);
+        return true;
+    }
+
+    /**
+     * Removes an edge from the edge list in constant time by moving the last edge into its place.
+     * 
+     * @param edge the edge to remove
+     * @return true if the edge was in the list, false otherwise
+     */
+    private boolean unlist(Edge edge){
+        int index = edge.getIndex();
+        if (index < 0 || index >= edges.size() || edges.get(index) != edge) {
+            // The list was changed through getEdges(), so fall back to a search
+            index = edges.indexOf(edge);
+            if (index < 0) {
+                return false;
+            }
+        }
+        Edge last = edges.remove(edges.size() - 1);
+        if (last != edge) {
+            edges.set(index, last);
+            last.setIndex(index);
+        }
+        edge.setIndex(-1);
+        snapshot = null;
         return true;
     }
 
@@ -237,53 +319,67 @@ public class Graph {
      */
     public HashMap<Vertex, Double> distanceFrom(Vertex source){
 
-        // Initialize the distance map
-        HashMap<Vertex, Double> dist = new HashMap<>();
-        // Set the distance to the source vertex to 0 and all other vertices to infinity
+        double[] dist = distanceRow(source);
+
+        // Copy the distances into a map keyed by vertex, marking unreachable vertices with Double.MAX_VALUE
+        HashMap<Vertex, Double> out = new HashMap<>();
         for(Vertex v : vertices){
-            if(v==source){
-                dist.put(v, 0.0);
-            }
-            else{
-                dist.put(v, Double.MAX_VALUE);
-            }
+            double d = dist[v.getIndex()];
+            out.put(v, d == Double.POSITIVE_INFINITY ? Double.MAX_VALUE : d);
         }
+        return out;
+    }
 
-        // Create a priority queue to store vertices based on their distances
-        Comparator<Vertex> vertexComparator = new Comparator<>(){
-            @Override
-            public int compare(Vertex v, Vertex u){
-                return dist.get(v).compareTo(dist.get(u));
-            }
-
-        };
-
-        // Create a priority queue to store vertices based on their distances
-        PriorityQueue<Vertex> pq = new PriorityQueue<>(vertexComparator);
+    /**
+     * Calculates the shortest distance from a source vertex to all other vertices in the graph using Dijkstra's algorithm.
+     * 
+     * @param source the source vertex
+     * @return an array of the shortest distances indexed by vertex index, with unreachable vertices at infinity
+     */
+    public double[] distanceRow(Vertex source){
+        double[] dist = new double[vertices.size()];
+        shortestPathEngine().distancesFrom(source.getIndex(), dist);
+        return dist;
+    }
 
-        // Add all vertices to the priority queue
-        for(Vertex v: vertices){
-            pq.add(v);
+    /**
+     * Returns an immutable CSR snapshot of the graph's adjacency. It is built on first use and
+     * rebuilt after the graph is edited through its own methods; edits made directly on a Vertex
+     * or on the list returned by getEdges() are not noticed.
+     * 
+     * @return the CSR snapshot of this graph
+     */
+    public synchronized CsrGraph snapshot(){
+        if(snapshot == null){
+            snapshot = new CsrGraph(this);
         }
+        return snapshot;
+    }
 
-        // While the priority queue is not empty, process the vertices
-        while(!pq.isEmpty()){
-            Vertex u =pq.poll();
-
-            // For each incident edge of the vertex, update the distance to the other vertex
-            for(Edge e : u.incidentEdges()){
-                Vertex v = e.other(u);
-                Double alt = dist.get(u) + e.distance();
-
-                // If the new distance is less than the current distance, update it
-                // and re-add the vertex to the priority queue
-                if (alt<dist.get(v)){
-                    dist.put(v, alt);
-                    pq.remove(v);
-                    pq.add(v);
-                }
-            }
+    /**
+     * Returns a single-source shortest path engine over the graph's current snapshot: a bucket
+     * queue when all weights are positive and the max/min weight ratio is at most MAX_BUCKET_RATIO,
+     * and an indexed-heap Dijkstra otherwise. The engine must be recreated after the graph changes.
+     * 
+     * @return a shortest path engine for this graph
+     */
+    public ShortestPathEngine shortestPathEngine(){
+        return shortestPathEngine(snapshot());
+    }
+
+    /**
+     * Returns a single-source shortest path engine over the given snapshot, chosen as in
+     * shortestPathEngine(). The snapshot never changes, so neither do the engine's distances.
+     * 
+     * @param csr the snapshot to search
+     * @return a shortest path engine for the snapshot
+     */
+    public static ShortestPathEngine shortestPathEngine(CsrGraph csr){
+        double minWeight = csr.minWeight();
+        double maxWeight = csr.maxWeight();
+        if(minWeight > 0 && minWeight != Double.POSITIVE_INFINITY && maxWeight / minWeight <= MAX_BUCKET_RATIO){
+            return new BucketShortestPaths(csr, minWeight, maxWeight);
         }
-        return dist;
+        return new Dijkstra(csr);
     }
 }
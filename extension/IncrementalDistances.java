@@ -0,0 +1,174 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the class: Keeps an all-pairs distance table up to date when a single edge is added
+ * to or removed from its graph, instead of recomputing every pair.
+ *
+ * Adding an edge (a, b) of weight w can only shorten paths, and the new distance of every pair is
+ * min(d(i, j), d(i, a) + w + d(b, j), d(i, b) + w + d(a, j)), which takes O(n^2) time. Rows where
+ * the edge does not shorten the way to a or b are skipped entirely.
+ *
+ * Removing an edge can only lengthen paths that used it. A shortest path from s uses the edge only
+ * if d(s, b) = d(s, a) + w or d(s, a) = d(s, b) + w, so only the rows of those sources are recomputed
+ * with a single-source search.
+ *
+ * Removing every edge of a vertex v at once works the same way: a shortest path from s runs on
+ * through v only if d(s, x) = d(s, v) + w for some edge (v, x) of weight w, so only the rows of those
+ * sources are recomputed, each once however many of v's edges it used.
+ *
+ */
+
+import java.util.stream.IntStream;
+
+public class IncrementalDistances {
+
+    // Relative slack when testing whether a shortest path runs through an edge; rows caught by
+    // mistake are merely recomputed, so the test errs on the generous side
+    public static final double TOLERANCE = 1e-6;
+
+    /**
+     * Updates the table after an edge of weight w between a and b has been added, or after the
+     * weight of that edge has decreased to w.
+     *
+     * @param d the distance table of the graph before the change
+     * @param a the index of one endpoint
+     * @param b the index of the other endpoint
+     * @param w the weight of the new edge
+     */
+    public static void edgeAdded(MutableDistanceTable d, int a, int b, double w) {
+        int n = d.size();
+        if (a == b || !(w < d.distance(a, b))) {
+            return;
+        }
+        // Row a and row b change too, so read the old values of both first
+        double[] fromA = new double[n];
+        double[] fromB = new double[n];
+        for (int j = 0; j < n; j++) {
+            fromA[j] = d.distance(a, j);
+            fromB[j] = d.distance(b, j);
+        }
+        for (int i = 0; i < n; i++) {
+            double ia = fromA[i];
+            double ib = fromB[i];
+            boolean viaA = ia + w < ib; // the edge shortens the way from i to b
+            boolean viaB = ib + w < ia; // the edge shortens the way from i to a
+            if (!viaA && !viaB) {
+                continue;
+            }
+            for (int j = i + 1; j < n; j++) {
+                double alt = viaA ? ia + w + fromB[j] : ib + w + fromA[j];
+                if (alt < d.distance(i, j)) {
+                    d.set(i, j, alt);
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates the table after an edge of weight w between a and b has been removed from the graph.
+     * The graph passed in must no longer contain the edge.
+     *
+     * @param d the distance table of the graph before the change
+     * @param g the graph after the change
+     * @param a the index of one endpoint
+     * @param b the index of the other endpoint
+     * @param w the weight of the removed edge
+     */
+    public static void edgeRemoved(MutableDistanceTable d, Graph g, int a, int b, double w) {
+        int n = d.size();
+        if (a == b) {
+            return;
+        }
+        // A remaining parallel edge that is no longer than w leaves every distance unchanged
+        Edge parallel = g.getEdge(g.getVertex(a), g.getVertex(b));
+        if (parallel != null && parallel.distance() <= w) {
+            return;
+        }
+
+        int[] affected = IntStream.range(0, n).filter(s -> usesEdge(d.distance(s, a), d.distance(s, b), w)).toArray();
+        if (affected.length == 0) {
+            return;
+        }
+        // Compute the new rows in parallel, then write them; set() touches other rows' columns
+        double[][] rows = new double[affected.length][];
+        IntStream.range(0, affected.length).parallel().forEach(k -> {
+            rows[k] = new double[n];
+            g.shortestPathEngine().distancesFrom(affected[k], rows[k]);
+        });
+        for (int k = 0; k < affected.length; k++) {
+            int s = affected[k];
+            for (int j = 0; j < n; j++) {
+                if (j != s) {
+                    d.set(s, j, rows[k][j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates the table after every edge of the vertex v has been removed from the graph. The
+     * graph passed in must still hold v, without edges.
+     *
+     * @param d          the distance table of the graph before the change
+     * @param g          the graph after the change
+     * @param v          the index of the isolated vertex
+     * @param neighbours the index of the other endpoint of each removed edge
+     * @param weights    the weight of each removed edge
+     * @return true if the row of any vertex other than v changed
+     */
+    public static boolean vertexIsolated(MutableDistanceTable d, Graph g, int v, int[] neighbours, double[] weights) {
+        int n = d.size();
+        int[] affected = IntStream.range(0, n).filter(s -> s != v && runsThrough(d, s, v, neighbours, weights)).toArray();
+        for (int j = 0; j < n; j++) {
+            if (j != v) {
+                d.set(v, j, Double.POSITIVE_INFINITY);
+            }
+        }
+        if (affected.length == 0) {
+            return false;
+        }
+        double[][] rows = new double[affected.length][];
+        IntStream.range(0, affected.length).parallel().forEach(k -> {
+            rows[k] = new double[n];
+            g.shortestPathEngine().distancesFrom(affected[k], rows[k]);
+        });
+        for (int k = 0; k < affected.length; k++) {
+            int s = affected[k];
+            for (int j = 0; j < n; j++) {
+                if (j != s) {
+                    d.set(s, j, rows[k][j]);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether a shortest path from s may run on through v along one of its edges.
+     */
+    private static boolean runsThrough(MutableDistanceTable d, int s, int v, int[] neighbours, double[] weights) {
+        double sv = d.distance(s, v);
+        if (sv == Double.POSITIVE_INFINITY) {
+            return false;
+        }
+        for (int k = 0; k < neighbours.length; k++) {
+            double sx = d.distance(s, neighbours[k]);
+            if (neighbours[k] != v && Math.abs(sv + weights[k] - sx) <= TOLERANCE * Math.max(1.0, Math.max(sv, sx))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether a shortest path from a source at distances sa and sb from the endpoints
+     * of an edge of weight w may run through that edge.
+     */
+    private static boolean usesEdge(double sa, double sb, double w) {
+        if (sa == Double.POSITIVE_INFINITY) {
+            return false;
+        }
+        double slack = TOLERANCE * Math.max(1.0, Math.max(sa, sb));
+        return Math.abs(sa + w - sb) <= slack || Math.abs(sb + w - sa) <= slack;
+    }
+}
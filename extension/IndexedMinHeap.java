@@ -0,0 +1,154 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the class: A binary min-heap over the integers 0..capacity-1 keyed by doubles,
+ * supporting decrease-key in O(log n) by remembering where each item sits in the heap.
+ *
+ */
+
+import java.util.Arrays;
+
+public class IndexedMinHeap {
+
+    private final int[] heap; // heap[i] is the item stored at heap position i
+    private final int[] pos; // pos[item] is the heap position of item, or -1 if absent
+    private final double[] keys; // keys[item] is the current key of item
+    private int size; // Number of items in the heap
+
+    /**
+     * Constructor to initialize an empty heap able to hold the items 0..capacity-1.
+     *
+     * @param capacity the number of distinct items the heap can hold
+     */
+    public IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        pos = new int[capacity];
+        keys = new double[capacity];
+        Arrays.fill(pos, -1);
+    }
+
+    /**
+     * Returns the number of items the heap can hold.
+     *
+     * @return the capacity of the heap
+     */
+    public int capacity() {
+        return heap.length;
+    }
+
+    /**
+     * Returns whether the heap is empty.
+     *
+     * @return true if the heap holds no items
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns whether the item is currently in the heap.
+     *
+     * @param item the item to check
+     * @return true if the item is in the heap
+     */
+    public boolean contains(int item) {
+        return pos[item] != -1;
+    }
+
+    /**
+     * Inserts the item with the given key, or lowers its key if it is already in the heap
+     * with a larger key.
+     *
+     * @param item the item to insert
+     * @param key  the key of the item
+     */
+    public void insertOrDecrease(int item, double key) {
+        int p = pos[item];
+        if (p == -1) {
+            p = size++;
+        }
+        else if (key >= keys[item]) {
+            return;
+        }
+        keys[item] = key;
+        siftUp(p, item);
+    }
+
+    /**
+     * Returns the key of the item with the smallest key without removing it.
+     *
+     * @return the smallest key in the heap
+     */
+    public double peekKey() {
+        return keys[heap[0]];
+    }
+
+    /**
+     * Removes and returns the item with the smallest key.
+     *
+     * @return the item with the smallest key
+     */
+    public int poll() {
+        int top = heap[0];
+        pos[top] = -1;
+        int last = heap[--size];
+        if (size > 0) {
+            siftDown(0, last);
+        }
+        return top;
+    }
+
+    /**
+     * Removes every item from the heap.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            pos[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Moves the item up from heap position p until its parent has a smaller key.
+     */
+    private void siftUp(int p, int item) {
+        double key = keys[item];
+        while (p > 0) {
+            int parent = (p - 1) >>> 1;
+            int parentItem = heap[parent];
+            if (keys[parentItem] <= key) {
+                break;
+            }
+            heap[p] = parentItem;
+            pos[parentItem] = p;
+            p = parent;
+        }
+        heap[p] = item;
+        pos[item] = p;
+    }
+
+    /**
+     * Moves the item down from heap position p until both children have larger keys.
+     */
+    private void siftDown(int p, int item) {
+        double key = keys[item];
+        int half = size >>> 1;
+        while (p < half) {
+            int child = 2 * p + 1;
+            int childItem = heap[child];
+            int right = child + 1;
+            if (right < size && keys[heap[right]] < keys[childItem]) {
+                child = right;
+                childItem = heap[child];
+            }
+            if (key <= keys[childItem]) {
+                break;
+            }
+            heap[p] = childItem;
+            pos[childItem] = p;
+            p = child;
+        }
+        heap[p] = item;
+        pos[item] = p;
+    }
+}
@@ -0,0 +1,200 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the class: A distance table for boards too large for all-pairs shortest paths. Rows
+ * of distances are computed with a single-source search the first time they are needed and kept
+ * in a least-recently-used cache bounded by a memory budget. Voronoi scoring only reads rows from
+ * token vertices and a few candidates, so a small cache serves almost every lookup.
+ *
+ * distance(u, v) reads row u when it is cached, otherwise row v, and only computes row u when
+ * neither is. Callers that scan many vertices against one source should pass the source first.
+ *
+ */
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class LazyDistanceRows implements DistanceTable {
+
+    public static final String BUDGET_PROPERTY = "voronoi.rowCacheMB";
+
+    private final Graph graph; // The graph the rows are computed on
+    private final int n; // Number of vertices covered by the table
+    private final long budgetBytes; // Memory budget of the cached rows
+    private final int maxRows; // Number of rows that fit in the memory budget
+    private final LinkedHashMap<Integer, double[]> rows; // Cached rows in access order
+    private ShortestPathEngine engine; // Engine used for misses, over the adjacency the rows follow
+
+    private long hits; // Lookups answered from the cache
+    private long misses; // Lookups that computed a row
+    private long evictions; // Rows dropped to stay within the budget
+
+    /**
+     * Constructor to initialize an empty row cache for the graph. Rows are computed on the graph's
+     * adjacency as it is now, so a Board holding the table is not changed by later edits; call
+     * clear() to follow them.
+     *
+     * @param graph       the graph
+     * @param budgetBytes the most memory the cached rows may use; at least one row is always kept
+     */
+    public LazyDistanceRows(Graph graph, long budgetBytes) {
+        this.graph = graph;
+        this.n = graph.size();
+        this.budgetBytes = budgetBytes;
+        this.engine = graph.shortestPathEngine();
+        this.maxRows = (int) Math.max(1, Math.min(Integer.MAX_VALUE, budgetBytes / (8L * Math.max(1, n))));
+        this.rows = new LinkedHashMap<Integer, double[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, double[]> eldest) {
+                if (size() > maxRows) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the default memory budget: the voronoi.rowCacheMB system property in megabytes, or
+     * a quarter of the maximum heap when it is not set.
+     *
+     * @return the default budget in bytes
+     */
+    public static long defaultBudget() {
+        String mb = System.getProperty(BUDGET_PROPERTY);
+        if (mb != null && !mb.isEmpty()) {
+            return Long.parseLong(mb) << 20;
+        }
+        return Runtime.getRuntime().maxMemory() / 4;
+    }
+
+    /**
+     * Returns the memory budget the table was made with.
+     *
+     * @return the budget in bytes
+     */
+    public long budget() {
+        return budgetBytes;
+    }
+
+    /**
+     * Returns the number of vertices covered by the table.
+     *
+     * @return the number of vertices
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Returns the distance between the vertices with indices u and v.
+     *
+     * @param u the index of the first vertex
+     * @param v the index of the second vertex
+     * @return the distance between u and v
+     */
+    public synchronized double distance(int u, int v) {
+        double[] row = rows.get(u);
+        if (row != null) {
+            hits++;
+            return row[v];
+        }
+        row = rows.get(v);
+        if (row != null) {
+            hits++;
+            return row[u];
+        }
+        return computeRow(u)[v];
+    }
+
+    /**
+     * Returns whether the vertex a is strictly closer to u than the vertex b is, reading the rows
+     * of a and b so that scans over many u against the same candidates reuse two rows.
+     *
+     * @param u the index of the reference vertex
+     * @param a the index of the first candidate
+     * @param b the index of the second candidate
+     * @return true if d(u, a) < d(u, b)
+     */
+    public synchronized boolean closer(int u, int a, int b) {
+        return row(a)[u] < row(b)[u];
+    }
+
+    /**
+     * Returns the distances from u to every vertex, computing them if they are not cached. The
+     * returned array must not be modified.
+     *
+     * @param u the index of the source vertex
+     * @return the row of distances from u
+     */
+    public synchronized double[] row(int u) {
+        double[] row = rows.get(u);
+        if (row != null) {
+            hits++;
+            return row;
+        }
+        return computeRow(u);
+    }
+
+    /**
+     * Computes row u and adds it to the cache, evicting the least recently used row if needed.
+     */
+    private double[] computeRow(int u) {
+        misses++;
+        double[] row = new double[n];
+        engine.distancesFrom(u, row);
+        rows.put(u, row);
+        return row;
+    }
+
+    /**
+     * Drops every cached row, for instance after the graph's edges have changed, and computes
+     * later rows on the graph's current adjacency. The counters are kept.
+     */
+    public synchronized void clear() {
+        rows.clear();
+        engine = graph.shortestPathEngine();
+    }
+
+    /**
+     * Returns the number of lookups answered from the cache.
+     *
+     * @return the number of hits
+     */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that had to compute a row.
+     *
+     * @return the number of misses
+     */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of rows dropped to stay within the memory budget.
+     *
+     * @return the number of evictions
+     */
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the number of rows currently cached.
+     *
+     * @return the number of cached rows
+     */
+    public synchronized int cachedRows() {
+        return rows.size();
+    }
+
+    public String toString() {
+        return "LazyDistanceRows{rows=" + cachedRows() + "/" + maxRows + ", hits=" + hits() + ", misses=" + misses()
+                + ", evictions=" + evictions() + "}";
+    }
+}
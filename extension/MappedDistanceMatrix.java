@@ -0,0 +1,107 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the class: A read-only distance table backed by a memory-mapped file written by
+ * DistanceCache. The file holds the upper triangle of the distance matrix as doubles, so the
+ * distances are exact and several JVMs mapping the same file share one page-cached copy.
+ *
+ * File layout (big-endian): int magic, int version, int n, int reserved, then d(i, j) for every
+ * i < j, row by row.
+ *
+ */
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class MappedDistanceMatrix implements DistanceTable {
+
+    public static final int MAGIC = 0x56445354; // "VDST"
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 16;
+
+    // Each mapping covers 2^SEGMENT_BITS bytes, since a single mapping is limited to 2 GB
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
+    private final int n; // Number of vertices covered by the matrix
+    private final MappedByteBuffer[] segments; // Consecutive read-only mappings of the file
+
+    /**
+     * Constructor to map an existing distance file read-only.
+     *
+     * @param file the distance file
+     * @throws IOException if the file cannot be read or is not a distance file
+     */
+    public MappedDistanceMatrix(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES) {
+                throw new IOException("truncated header");
+            }
+            int count = (int) ((length + SEGMENT_MASK) >>> SEGMENT_BITS);
+            segments = new MappedByteBuffer[count];
+            for (int s = 0; s < count; s++) {
+                long start = (long) s << SEGMENT_BITS;
+                segments[s] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(length - start, SEGMENT_MASK + 1));
+            }
+            MappedByteBuffer header = segments[0];
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("not a version " + VERSION + " distance file");
+            }
+            n = header.getInt(8);
+            if (length != fileBytes(n)) {
+                throw new IOException("expected " + fileBytes(n) + " bytes for " + n + " vertices but found " + length);
+            }
+        }
+    }
+
+    /**
+     * Returns the size in bytes of the distance file for n vertices.
+     *
+     * @param n the number of vertices
+     * @return the file size in bytes
+     */
+    public static long fileBytes(int n) {
+        return HEADER_BYTES + 8L * n * (n - 1) / 2;
+    }
+
+    /**
+     * Returns the byte position of d(i, j), for i < j, in a distance file for n vertices.
+     *
+     * @param n the number of vertices
+     * @param i the smaller vertex index
+     * @param j the larger vertex index
+     * @return the byte position of d(i, j)
+     */
+    public static long position(int n, int i, int j) {
+        return HEADER_BYTES + 8L * ((long) i * (2L * n - i - 1) / 2 + (j - i - 1));
+    }
+
+    /**
+     * Returns the number of vertices covered by the matrix.
+     *
+     * @return the number of vertices
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Returns the distance between the vertices with indices u and v.
+     *
+     * @param u the index of the first vertex
+     * @param v the index of the second vertex
+     * @return the distance between u and v
+     */
+    public double distance(int u, int v) {
+        if (u == v) {
+            return 0.0;
+        }
+        long p = u < v ? position(n, u, v) : position(n, v, u);
+        // Entries are 8-byte aligned, so none straddles two segments
+        return segments[(int) (p >>> SEGMENT_BITS)].getDouble((int) (p & SEGMENT_MASK));
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the interface: A distance table whose entries can be overwritten, so that it can be
+ * kept up to date as edges are added to or removed from its graph (see IncrementalDistances), and
+ * grown or shrunk by a vertex as vertices are added or removed.
+ *
+ */
+
+public interface MutableDistanceTable extends DistanceTable {
+
+    /**
+     * Sets the distance between the vertices with indices u and v in both directions.
+     *
+     * @param u the index of the first vertex
+     * @param v the index of the second vertex
+     * @param d the distance between u and v
+     */
+    void set(int u, int v, double d);
+
+    /**
+     * Returns a copy of the table that can be edited without changing this one. VoronoiGraph
+     * edits the copy when a Board still holds this table.
+     *
+     * @return an independent copy of the table
+     */
+    MutableDistanceTable copy();
+
+    /**
+     * Returns a table one vertex larger, holding these distances and a new last vertex at
+     * infinite distance from every other one, as after adding a vertex without edges. This
+     * table is left as it is.
+     *
+     * @return the larger table
+     */
+    MutableDistanceTable withVertexAdded();
+
+    /**
+     * Returns a table one vertex smaller, for the graph after the vertex v, whose edges are
+     * already gone, has been removed: the last vertex takes over index v, as Graph.remove(Vertex)
+     * moves it. This table is left as it is.
+     *
+     * @param v the index of the removed vertex
+     * @return the smaller table
+     */
+    MutableDistanceTable withVertexRemoved(int v);
+}
@@ -0,0 +1,62 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the interface: The two loops ScoringKernel runs over flat rows of a distance
+ * matrix: the elementwise minimum of a token's row into a player's running minima, and the value
+ * each of two players owns once those minima are known. ScalarRowKernel runs them as plain
+ * loops. VectorRowKernel, kept in the vector directory because it needs the incubating
+ * jdk.incubator.vector module to compile and run, runs them a vector of lanes at a time:
+ *
+ *   javac --add-modules jdk.incubator.vector -cp . -d . vector/*.java
+ *   java --add-modules jdk.incubator.vector VoronoiGame
+ *
+ * PREFERRED is the vector kernel when it loads, and the scalar one otherwise.
+ *
+ */
+
+public interface RowKernel {
+
+    /**
+     * The kernel ScoringKernel and DistanceMatrix.minRow use: VectorRowKernel if it was compiled
+     * and jdk.incubator.vector was added at run time, ScalarRowKernel otherwise.
+     */
+    RowKernel PREFERRED = load();
+
+    /**
+     * Lowers every entry of min to the matching entry of the row starting at offset in data, if
+     * that is smaller.
+     *
+     * @param data   the row-major distances
+     * @param offset the index in data of the row's first entry
+     * @param min    the running minimum distances, of length at least n
+     * @param n      the length of the row
+     */
+    void minRow(double[] data, int offset, double[] min, int n);
+
+    /**
+     * Sums the values of the vertices each of two players reaches first, by DistanceTable.shorter()
+     * on their minimum distances, into totals[0] and totals[1].
+     *
+     * @param best0  the distance from player 0's nearest token to each vertex
+     * @param best1  the distance from player 1's nearest token to each vertex
+     * @param values the value of each vertex
+     * @param n      the number of vertices
+     * @param totals the array receiving the two players' totals
+     * @return true if some vertex reached by both players is tied, by DistanceTable.tied(), and
+     *         so left out of both totals
+     */
+    boolean split(double[] best0, double[] best1, int[] values, int n, int[] totals);
+
+    /**
+     * Loads VectorRowKernel by name, so that this tree compiles and runs without it, and falls
+     * back to ScalarRowKernel when the class or the jdk.incubator.vector module is missing.
+     */
+    private static RowKernel load() {
+        try {
+            return (RowKernel) Class.forName("VectorRowKernel").getConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException | LinkageError ex) {
+            return new ScalarRowKernel();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the class: The loops of RowKernel as plain scalar Java over flat arrays read in
+ * order. It is the kernel used when VectorRowKernel is not compiled or jdk.incubator.vector is
+ * not added at run time, and the reference the vector kernel is benchmarked and tested against.
+ *
+ */
+
+public class ScalarRowKernel implements RowKernel {
+
+    @Override
+    public void minRow(double[] data, int offset, double[] min, int n) {
+        for (int v = 0; v < n; v++) {
+            min[v] = Math.min(min[v], data[offset + v]);
+        }
+    }
+
+    @Override
+    public boolean split(double[] best0, double[] best1, int[] values, int n, int[] totals) {
+        int sum0 = 0;
+        int sum1 = 0;
+        boolean tied = false;
+        for (int v = 0; v < n; v++) {
+            double d0 = best0[v];
+            double d1 = best1[v];
+            boolean near0 = DistanceTable.shorter(d0, d1);
+            boolean near1 = DistanceTable.shorter(d1, d0);
+            sum0 += near0 ? values[v] : 0;
+            sum1 += near1 ? values[v] : 0;
+            tied |= !near0 && !near1 && d0 != Double.POSITIVE_INFINITY;
+        }
+        totals[0] = sum0;
+        totals[1] = sum1;
+        return tied;
+    }
+}
@@ -0,0 +1,182 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the class: Scores token placements on a board, giving each player's total value
+ * without the owner of every vertex, for evaluations that only need the totals.
+ *
+ * On boards with a dense distance matrix where a table scan pays off (see
+ * VoronoiPartition.prefersTable), every player's distance to each vertex is the elementwise
+ * minimum of the rows of their tokens, and a vertex goes to the player whose minimum is smallest.
+ * Both loops run over flat arrays read in order, in a RowKernel: on jdk.incubator.vector lanes
+ * when VectorRowKernel loads, as scalar loops otherwise. Most of the gain over the table scan of
+ * VoronoiPartition, which reads one entry of every token's row per vertex, is cache locality:
+ * each row is streamed once from memory, and the loops are bound by that. Vertices where two
+ * players tie, by DistanceTable.tied(), are settled afterwards by the game's rule: the earliest
+ * placed of the nearest tokens wins. Other boards are scored with a VoronoiPartition.
+ *
+ * An instance reuses its arrays between runs, so it is not thread-safe: give each thread its own.
+ *
+ */
+
+import java.util.Arrays;
+
+public class ScoringKernel {
+
+    private final Board board; // The board
+    private final int[] values; // Value of each vertex
+    private final VoronoiPartition partition; // Scores boards the kernel does not suit
+    private final RowKernel rows; // Loops over the rows of the distance matrix
+    private double[][] best = new double[0][]; // Distance from each player's nearest token to each vertex
+    private int[] totals = new int[0]; // Summed value owned by each player
+
+    /**
+     * Constructor to initialize a kernel for the board.
+     *
+     * @param board the board
+     */
+    public ScoringKernel(Board board) {
+        this(board, RowKernel.PREFERRED);
+    }
+
+    /**
+     * Constructor to initialize a kernel for the board that runs its loops over distance rows in
+     * the given RowKernel, so that the scalar and vector loops can be compared.
+     *
+     * @param board the board
+     * @param rows  the kernel of the loops over distance rows
+     */
+    public ScoringKernel(Board board, RowKernel rows) {
+        this.board = board;
+        this.rows = rows;
+        this.values = new int[board.size()];
+        for (int v = 0; v < values.length; v++) {
+            values[v] = board.value(v);
+        }
+        this.partition = new VoronoiPartition(board);
+    }
+
+    /**
+     * Returns the board the kernel scores.
+     *
+     * @return the board
+     */
+    public Board board() {
+        return board;
+    }
+
+    /**
+     * Scores the tokens: afterwards total(p) is the value player p owns.
+     *
+     * @param tokenIndices the vertex indices of the tokens, in placement order
+     * @param tokenPlayers the player of each token
+     * @param count        the number of tokens to use
+     */
+    public void score(int[] tokenIndices, int[] tokenPlayers, int count) {
+        if (!VoronoiPartition.prefersTable(board, count)) {
+            partition.compute(tokenIndices, tokenPlayers, count);
+            int players = 0;
+            for (int k = 0; k < count; k++) {
+                players = Math.max(players, tokenPlayers[k] + 1);
+            }
+            ensurePlayers(players);
+            for (int p = 0; p < players; p++) {
+                totals[p] = partition.total(p);
+            }
+            return;
+        }
+        scoreFromMatrix((DistanceMatrix) board.distances(), tokenIndices, tokenPlayers, count);
+    }
+
+    /**
+     * Returns the summed value of the vertices a player owns after the last score().
+     *
+     * @param player the player
+     * @return the player's total, 0 for a player without tokens
+     */
+    public int total(int player) {
+        return player >= 0 && player < totals.length ? totals[player] : 0;
+    }
+
+    /**
+     * Scores the tokens with elementwise minima over the rows of the distance matrix.
+     */
+    private void scoreFromMatrix(DistanceMatrix matrix, int[] tokenIndices, int[] tokenPlayers, int count) {
+        int n = values.length;
+        int players = 0;
+        for (int k = 0; k < count; k++) {
+            players = Math.max(players, tokenPlayers[k] + 1);
+        }
+        ensurePlayers(players);
+        for (int p = 0; p < players; p++) {
+            Arrays.fill(best[p], Double.POSITIVE_INFINITY);
+        }
+        for (int k = 0; k < count; k++) {
+            matrix.minRow(tokenIndices[k], best[tokenPlayers[k]], rows);
+        }
+
+        if (players == 2) {
+            double[] best0 = best[0];
+            double[] best1 = best[1];
+            if (rows.split(best0, best1, values, n, totals)) {
+                for (int v = 0; v < n; v++) {
+                    if (DistanceTable.tied(best0[v], best1[v]) && best0[v] != Double.POSITIVE_INFINITY) {
+                        settleTie(matrix, tokenIndices, tokenPlayers, count, v, Math.min(best0[v], best1[v]));
+                    }
+                }
+            }
+            return;
+        }
+
+        for (int v = 0; v < n; v++) {
+            double min = Double.POSITIVE_INFINITY;
+            int owner = -1;
+            boolean tied = false;
+            for (int p = 0; p < players; p++) {
+                double d = best[p][v];
+                if (DistanceTable.shorter(d, min)) {
+                    min = d;
+                    owner = p;
+                    tied = false;
+                }
+                else if (DistanceTable.tied(d, min) && d != Double.POSITIVE_INFINITY) {
+                    min = Math.min(min, d);
+                    tied = true;
+                }
+            }
+            if (tied) {
+                settleTie(matrix, tokenIndices, tokenPlayers, count, v, min);
+            }
+            else if (owner != -1) {
+                totals[owner] += values[v];
+            }
+        }
+    }
+
+    /**
+     * Gives the vertex v, at distance d from the nearest tokens of several players, to the
+     * player of the earliest placed token tied with that distance.
+     */
+    private void settleTie(DistanceMatrix matrix, int[] tokenIndices, int[] tokenPlayers, int count, int v, double d) {
+        for (int k = 0; k < count; k++) {
+            if (!DistanceTable.shorter(d, matrix.distance(tokenIndices[k], v))) {
+                totals[tokenPlayers[k]] += values[v];
+                return;
+            }
+        }
+    }
+
+    /**
+     * Grows the per-player arrays to cover the given number of players and clears the totals.
+     */
+    private void ensurePlayers(int players) {
+        if (best.length < players) {
+            int old = best.length;
+            best = Arrays.copyOf(best, players);
+            for (int p = old; p < players; p++) {
+                best[p] = new double[values.length];
+            }
+            totals = new int[players];
+        }
+        Arrays.fill(totals, 0);
+    }
+}
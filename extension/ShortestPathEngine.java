@@ -0,0 +1,19 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the interface: A single-source shortest path algorithm that writes its result into
+ * a primitive row indexed by Vertex.getIndex(). Graph.shortestPathEngine() picks the engine that
+ * suits the graph's edge weights.
+ *
+ */
+
+public interface ShortestPathEngine {
+
+    /**
+     * Writes the shortest distances from the source vertex to every vertex into dist.
+     *
+     * @param source the index of the source vertex
+     * @param dist   the row to fill, indexed by vertex index; unreachable vertices are set to infinity
+     */
+    void distancesFrom(int source, double[] dist);
+}
@@ -0,0 +1,142 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the class: A fixed-size table of evaluated positions, keyed by the Zobrist hash of a
+ * game (see GameState.hash), that the threads of a search can share to avoid evaluating the same
+ * position twice. Each entry keeps a value, the best move found and the depth of the search behind it.
+ *
+ * The table is lock-free: entries are three longs in an AtomicLongArray, a check word holding the
+ * key XOR-ed with the two data words, the value and a meta word packing the move, the depth and
+ * the generation. A reader accepts an entry only if the check word matches its
+ * key and the data it read, so an entry torn by two threads writing at once reads as a miss instead
+ * of a wrong answer, and threads never wait on each other.
+ *
+ * Each key has one slot. A store replaces the entry there when it is for the same position, was
+ * stored before the last newSearch(), or comes from a search no deeper than the new one.
+ *
+ */
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class TranspositionTable {
+
+    // Most entries a table may have, 3 longs each
+    public static final int MAX_ENTRIES = 1 << 26;
+
+    // Bit of the meta word set in every stored entry, so that empty slots read as misses
+    private static final long STORED = 1L << 15;
+    // Bits of the meta word holding the generation
+    private static final int AGE_MASK = 0x7FFF;
+
+    private final AtomicLongArray slots; // Check, value and meta word of each entry
+    private final int mask; // Number of entries minus one
+    private volatile int age; // Search generation, stored with each entry
+
+    /**
+     * A reusable holder for the entry a probe found, so probing allocates nothing. Give each
+     * thread its own.
+     */
+    public static class Entry {
+        public double value; // Value of the position
+        public int move; // Best move found, or -1
+        public int depth; // Depth of the search behind the value
+    }
+
+    /**
+     * Constructor to initialize an empty table.
+     *
+     * @param entries the number of entries, rounded up to a power of two
+     */
+    public TranspositionTable(int entries) {
+        if (entries < 1 || entries > MAX_ENTRIES) {
+            throw new IllegalArgumentException("A transposition table cannot have " + entries + " entries");
+        }
+        int size = Integer.highestOneBit(entries);
+        if (size < entries) {
+            size <<= 1;
+        }
+        this.slots = new AtomicLongArray(3 * size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns the number of entries of the table.
+     *
+     * @return the number of entries
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Starts a new search generation: entries stored before it are replaced by any new entry.
+     */
+    public void newSearch() {
+        age = (age + 1) & AGE_MASK;
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param key the Zobrist hash of the position
+     * @param out receives the entry when there is one
+     * @return true if the table holds an entry for the key
+     */
+    public boolean probe(long key, Entry out) {
+        int i = 3 * slot(key);
+        long value = slots.get(i + 1);
+        long meta = slots.get(i + 2);
+        if ((slots.get(i) ^ value ^ meta) != key || (meta & STORED) == 0L) {
+            return false;
+        }
+        out.value = Double.longBitsToDouble(value);
+        out.move = (int) (meta >>> 32) - 1;
+        out.depth = (int) (meta >>> 16) & 0xFFFF;
+        return true;
+    }
+
+    /**
+     * Stores the result of a search of a position, unless the slot holds a deeper result for
+     * another position from the current generation.
+     *
+     * @param key   the Zobrist hash of the position
+     * @param value the value of the position
+     * @param move  the best move found, or -1
+     * @param depth the depth of the search, from 0 to 65535
+     */
+    public void store(long key, double value, int move, int depth) {
+        if (depth < 0 || depth > 0xFFFF) {
+            throw new IllegalArgumentException("Depth " + depth + " does not fit in an entry");
+        }
+        int i = 3 * slot(key);
+        long oldValue = slots.get(i + 1);
+        long oldMeta = slots.get(i + 2);
+        int current = age;
+        boolean samePosition = (slots.get(i) ^ oldValue ^ oldMeta) == key;
+        boolean stale = (int) (oldMeta & AGE_MASK) != current;
+        if ((oldMeta & STORED) != 0L && !samePosition && !stale && depth < ((int) (oldMeta >>> 16) & 0xFFFF)) {
+            return;
+        }
+        long bits = Double.doubleToRawLongBits(value);
+        long meta = ((long) (move + 1) << 32) | ((long) depth << 16) | STORED | current;
+        slots.set(i + 1, bits);
+        slots.set(i + 2, meta);
+        slots.set(i, key ^ bits ^ meta);
+    }
+
+    /**
+     * Empties the table.
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, 0L);
+        }
+    }
+
+    /**
+     * Returns the slot of a key, folding its high half into the low one.
+     */
+    private int slot(long key) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,224 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the class: Stores the shortest distances of a graph as floats in a packed upper
+ * triangle. Distances are symmetric and the diagonal is always 0, so only the n(n-1)/2 entries
+ * above the diagonal are kept, a quarter of the memory of a square matrix of doubles.
+ *
+ * Rounding a double to the nearest float never swaps the order of two distances, but it can
+ * make two different distances equal. closer() therefore trusts the floats unless the two values
+ * are within FLOAT_EPSILON of each other, and then recomputes the exact distances in double.
+ *
+ */
+
+public class TriangularDistanceMatrix implements MutableDistanceTable {
+
+    // Relative gap below which two stored distances are treated as a possible tie
+    public static final double FLOAT_EPSILON = 4 * Math.ulp(1.0f);
+
+    private final Graph graph; // The graph, used to recompute exact distances
+    private final int n; // Number of vertices covered by the matrix
+    private final float[] data; // Row i holds d(i, j) for j = i + 1 .. n - 1
+
+    private CsrGraph exactGraph; // Adjacency the distances were kept for once copied, or null
+    private int exactSource = -1; // Source of the cached exact row, or -1
+    private double[] exactRow; // Exact distances from exactSource
+
+    /**
+     * Constructor to compute the triangular distance matrix of a graph with one single-source
+     * search per vertex, run in parallel.
+     *
+     * @param graph the graph
+     */
+    public TriangularDistanceMatrix(Graph graph) {
+        long entries = (long) graph.size() * (graph.size() - 1) / 2;
+        if (entries > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("A triangular distance matrix cannot hold " + graph.size() + " vertices");
+        }
+        this.graph = graph;
+        this.n = graph.size();
+        this.data = new float[(int) entries];
+        // Each source writes only its own part of the triangle
+        AllPairsShortestPaths.forEachRow(graph, (row, s) -> {
+            int offset = rowOffset(s) - s - 1;
+            for (int j = s + 1; j < n; j++) {
+                data[offset + j] = (float) row[j];
+            }
+        });
+    }
+
+    /**
+     * Constructor to wrap distances that were computed earlier, such as those stored in a board
+     * snapshot.
+     *
+     * @param graph the graph, used to settle near ties exactly
+     * @param data  the packed upper triangle, row i holding d(i, j) for j = i + 1 .. n - 1
+     */
+    TriangularDistanceMatrix(Graph graph, float[] data) {
+        if (data.length != (long) graph.size() * (graph.size() - 1) / 2) {
+            throw new IllegalArgumentException("A triangle of " + data.length + " entries does not fit " + graph.size() + " vertices");
+        }
+        this.graph = graph;
+        this.n = graph.size();
+        this.data = data;
+    }
+
+    /**
+     * Returns the number of vertices covered by the matrix.
+     *
+     * @return the number of vertices
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Returns the distance between the vertices with indices u and v, rounded to a float.
+     *
+     * @param u the index of the first vertex
+     * @param v the index of the second vertex
+     * @return the distance between u and v
+     */
+    public double distance(int u, int v) {
+        if (u == v) {
+            return 0.0;
+        }
+        return u < v ? data[rowOffset(u) + v - u - 1] : data[rowOffset(v) + u - v - 1];
+    }
+
+    /**
+     * Sets the distance between the vertices with indices u and v, rounded to a float.
+     *
+     * @param u the index of the first vertex
+     * @param v the index of the second vertex
+     * @param d the distance between u and v
+     */
+    public void set(int u, int v, double d) {
+        if (u == v) {
+            return;
+        }
+        data[u < v ? rowOffset(u) + v - u - 1 : rowOffset(v) + u - v - 1] = (float) d;
+        synchronized (this) {
+            exactSource = -1;
+        }
+    }
+
+    /**
+     * Returns a copy of the matrix that can be edited without changing this one. The copy goes
+     * on following the graph's edits, while this matrix keeps settling near ties on the graph's
+     * adjacency as it is now, so it stays consistent with the distances it holds.
+     *
+     * @return an independent copy of the matrix
+     */
+    public synchronized TriangularDistanceMatrix copy() {
+        if (exactGraph == null) {
+            exactGraph = graph.snapshot();
+        }
+        return new TriangularDistanceMatrix(graph, data.clone());
+    }
+
+    /**
+     * Returns a matrix one vertex larger, with the new last vertex at infinite distance from
+     * every other one. The graph must already hold the new vertex.
+     *
+     * @return the larger matrix
+     */
+    public TriangularDistanceMatrix withVertexAdded() {
+        int m = n + 1;
+        float[] grown = new float[(int) ((long) m * (m - 1) / 2)];
+        int to = 0;
+        for (int i = 0; i < n; i++) {
+            int length = n - i - 1;
+            System.arraycopy(data, rowOffset(i), grown, to, length);
+            to += length;
+            grown[to++] = Float.POSITIVE_INFINITY;
+        }
+        return new TriangularDistanceMatrix(graph, grown);
+    }
+
+    /**
+     * Returns a matrix one vertex smaller, without the isolated vertex v, whose entries are taken
+     * over by the last vertex. The graph must no longer hold the removed vertex.
+     *
+     * @param v the index of the removed vertex
+     * @return the smaller matrix
+     */
+    public TriangularDistanceMatrix withVertexRemoved(int v) {
+        int m = n - 1;
+        float[] shrunk = new float[(int) ((long) m * (m - 1) / 2)];
+        int to = 0;
+        for (int i = 0; i < m; i++) {
+            int from = i == v ? m : i;
+            for (int j = i + 1; j < m; j++) {
+                shrunk[to++] = (float) distance(from, j == v ? m : j);
+            }
+        }
+        return new TriangularDistanceMatrix(graph, shrunk);
+    }
+
+    /**
+     * Copies the distances from the vertex with index u to every vertex into row, reading the
+     * column of u above the diagonal and then row u of the triangle.
+     *
+     * @param u   the index of the source vertex
+     * @param row the array to fill, of length at least n
+     */
+    @Override
+    public void copyRow(int u, double[] row) {
+        // Entry (v, u) for v < u moves n - v - 2 places from one row of the triangle to the next
+        int k = u - 1;
+        for (int v = 0; v < u; v++) {
+            row[v] = data[k];
+            k += n - v - 2;
+        }
+        row[u] = 0.0;
+        int offset = rowOffset(u) - u - 1;
+        for (int v = u + 1; v < n; v++) {
+            row[v] = data[offset + v];
+        }
+    }
+
+    /**
+     * Returns whether the vertex a is strictly closer to u than the vertex b is, recomputing
+     * the distances from u in double precision when the stored floats are too close to tell.
+     *
+     * @param u the index of the reference vertex
+     * @param a the index of the first candidate
+     * @param b the index of the second candidate
+     * @return true if d(u, a) < d(u, b)
+     */
+    public boolean closer(int u, int a, int b) {
+        double da = distance(u, a);
+        double db = distance(u, b);
+        if (Double.isInfinite(da) || Double.isInfinite(db)) {
+            return da < db;
+        }
+        if (Math.abs(da - db) > FLOAT_EPSILON * Math.max(da, db)) {
+            return da < db;
+        }
+        return exactlyCloser(u, a, b);
+    }
+
+    /**
+     * Compares d(u, a) and d(u, b) in double precision, reusing the last exact row when u
+     * has not changed.
+     */
+    private synchronized boolean exactlyCloser(int u, int a, int b) {
+        if (exactSource != u) {
+            if (exactRow == null) {
+                exactRow = new double[n];
+            }
+            ShortestPathEngine engine = exactGraph != null ? Graph.shortestPathEngine(exactGraph) : graph.shortestPathEngine();
+            engine.distancesFrom(u, exactRow);
+            exactSource = u;
+        }
+        return exactRow[a] < exactRow[b];
+    }
+
+    /**
+     * Returns the position in data of the entry (i, i + 1), where row i starts.
+     */
+    private int rowOffset(int i) {
+        return (int) ((long) i * (2L * n - i - 1) / 2);
+    }
+}
@@ -11,12 +11,33 @@ import java.util.ArrayList;
 public class Vertex {
  
     private ArrayList<Edge> incidentEdges; // List of incident edges
+    private int index; // Position of this vertex in its graph, or -1 if it is in no graph
 
     /**
      * Constructor to initialize a vertex with empty lists for adjacent vertices and incident edges.
      */
     public Vertex() {
         this.incidentEdges = new ArrayList<Edge>();
+        this.index = -1;
+    }
+
+    /**
+     * Returns the dense index of this vertex in its graph. Indices run from 0 to size() - 1
+     * and are used to key array-backed per-vertex state.
+     *
+     * @return the index of this vertex, or -1 if it does not belong to a graph
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Sets the dense index of this vertex. Only the graph owning the vertex assigns indices.
+     *
+     * @param index the new index of this vertex
+     */
+    void setIndex(int index) {
+        this.index = index;
     }
 
     /**
@@ -26,7 +47,8 @@ public class Vertex {
      * @return the edge connecting this vertex and v, or null if no such edge exists
      */
     public Edge getEdgeTo(Vertex v) {
-        for (Edge e : incidentEdges) {
+        for (int i = 0; i < incidentEdges.size(); i++) {
+            Edge e = incidentEdges.get(i);
             Vertex other = e.other(this);
             if (other != null && other.equals(v)) {
                 return e;
@@ -35,27 +57,79 @@ public class Vertex {
         return null;
     }
 
+    /**
+     * Returns the number of incident edges. Together with edge(i), neighbour(i) and weight(i)
+     * this walks the adjacency of the vertex without allocating, unlike adjacentVertices().
+     *
+     * @return the degree of this vertex
+     */
+    public int degree() {
+        return incidentEdges.size();
+    }
+
+    /**
+     * Returns the i-th incident edge.
+     *
+     * @param i a position between 0 and degree() - 1
+     * @return the i-th incident edge
+     */
+    public Edge edge(int i) {
+        return incidentEdges.get(i);
+    }
+
+    /**
+     * Returns the vertex at the other end of the i-th incident edge.
+     *
+     * @param i a position between 0 and degree() - 1
+     * @return the i-th adjacent vertex
+     */
+    public Vertex neighbour(int i) {
+        return incidentEdges.get(i).other(this);
+    }
+
+    /**
+     * Returns the length of the i-th incident edge.
+     *
+     * @param i a position between 0 and degree() - 1
+     * @return the distance to the i-th adjacent vertex along that edge
+     */
+    public double weight(int i) {
+        return incidentEdges.get(i).distance();
+    }
+
     /**
      * Adds the specified edge to this vertex’s incident edges.
      *
      * @param e the edge to add
      */
     public void addEdge(Edge e) {
+        e.setSlot(this, incidentEdges.size());
         incidentEdges.add(e);
     }
 
     /**
-     * Removes an edge from the list of incident edges.
+     * Removes an edge from the list of incident edges in constant time by moving the last
+     * incident edge into its place.
      * 
      * @param e the edge to be removed
      * @return true if the edge was successfully removed, false otherwise
      */
     public boolean removeEdge(Edge e){
-        if (incidentEdges.contains(e)) {
-            incidentEdges.remove(e);
-            return true;
+        int slot = e.slotIn(this);
+        if (slot < 0 || slot >= incidentEdges.size() || incidentEdges.get(slot) != e) {
+            // The recorded position is stale, e.g. for the second copy of a self-loop
+            slot = incidentEdges.indexOf(e);
+            if (slot < 0) {
+                return false;
+            }
+        }
+        Edge last = incidentEdges.remove(incidentEdges.size() - 1);
+        if (last != e) {
+            incidentEdges.set(slot, last);
+            last.setSlot(this, slot);
         }
-        return false;
+        e.setSlot(this, -1);
+        return true;
     }
 
     /**
@@ -0,0 +1,1166 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the class: Micro-benchmarks for the graph engine. Each suite warms up before it
+ * measures and reports the average time per operation.
+ *
+ * Usage: java VoronoiBenchmark [suite ...]   (runs every suite when none is given)
+ *
+ */
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+public class VoronoiBenchmark {
+
+    // Keeps results alive so the JIT cannot drop the measured work
+    private static double sink;
+
+    /**
+     * Builds a random sparse graph where each vertex is joined to degree / 2 random others,
+     * with edge weights in [1, 2) like the game generator.
+     *
+     * @param n      the number of vertices
+     * @param degree the average degree
+     * @param rand   the random number generator
+     * @return the generated graph
+     */
+    public static Graph sparseGraph(int n, int degree, Random rand) {
+        Graph g = new Graph();
+        for (int i = 0; i < n; i++)
+            g.addVertex();
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < degree / 2; j++) {
+                int k = rand.nextInt(n);
+                if (k != i)
+                    g.addEdge(g.getVertex(i), g.getVertex(k), rand.nextDouble(1, 2));
+            }
+        return g;
+    }
+
+    /**
+     * Times the given work and returns the average number of milliseconds per operation.
+     *
+     * @param ops  the number of operations the work performs
+     * @param work the work to time
+     * @return milliseconds per operation
+     */
+    private static double time(int ops, Runnable work) {
+        long start = System.nanoTime();
+        work.run();
+        return (System.nanoTime() - start) / 1e6 / ops;
+    }
+
+    /**
+     * Compares the indexed-heap Dijkstra engine against the original PriorityQueue version
+     * of Graph.distanceFrom on sparse graphs of 1k to 50k vertices.
+     */
+    public static void dijkstraSuite() {
+        System.out.println("== dijkstra: ms per single-source run (average degree 8)");
+        Random rand = new Random(231);
+        for (int n : new int[] { 1000, 5000, 10000, 50000 }) {
+            Graph g = sparseGraph(n, 8, rand);
+            Dijkstra engine = new Dijkstra(g);
+            double[] row = new double[n];
+            int sources = 50;
+
+            time(sources, () -> {
+                for (int s = 0; s < sources; s++) {
+                    engine.distancesFrom(s, row);
+                    sink += row[n - 1];
+                }
+            });
+            double heapMs = time(sources, () -> {
+                for (int s = 0; s < sources; s++) {
+                    engine.distancesFrom(s, row);
+                    sink += row[n - 1];
+                }
+            });
+
+            String legacy = "skipped (quadratic)";
+            if (n <= 10000) {
+                int legacySources = 3;
+                legacyDistanceFrom(g, g.getVertex(0));
+                double legacyMs = time(legacySources, () -> {
+                    for (int s = 0; s < legacySources; s++)
+                        sink += legacyDistanceFrom(g, g.getVertex(s)).size();
+                });
+                legacy = String.format("%.3f ms (%.0fx)", legacyMs, legacyMs / heapMs);
+            }
+            System.out.printf("n=%6d  indexed heap %.3f ms   PriorityQueue %s%n", n, heapMs, legacy);
+        }
+    }
+
+    /**
+     * Compares the bucket-queue engine against the indexed-heap Dijkstra engine on game-style
+     * weights in [1, 2) and on unit weights.
+     */
+    public static void bucketSuite() {
+        System.out.println("== buckets: ms per single-source run (average degree 8)");
+        Random rand = new Random(231);
+        for (boolean unit : new boolean[] { false, true }) {
+            for (int n : new int[] { 1000, 10000, 50000, 200000 }) {
+                Graph g = sparseGraph(n, 8, rand);
+                if (unit) {
+                    Graph unitGraph = new Graph();
+                    for (int i = 0; i < n; i++)
+                        unitGraph.addVertex();
+                    for (Edge e : g.getEdges())
+                        unitGraph.addEdge(unitGraph.getVertex(e.first().getIndex()),
+                                unitGraph.getVertex(e.second().getIndex()), 1.0);
+                    g = unitGraph;
+                }
+                double[] row = new double[n];
+                int sources = 40;
+                ShortestPathEngine heap = new Dijkstra(g);
+                ShortestPathEngine buckets = g.shortestPathEngine();
+                double heapMs = 0, bucketMs = 0;
+                for (int round = 0; round < 2; round++) {
+                    heapMs = time(sources, () -> {
+                        for (int s = 0; s < sources; s++) {
+                            heap.distancesFrom(s, row);
+                            sink += row[n - 1];
+                        }
+                    });
+                    bucketMs = time(sources, () -> {
+                        for (int s = 0; s < sources; s++) {
+                            buckets.distancesFrom(s, row);
+                            sink += row[n - 1];
+                        }
+                    });
+                }
+                System.out.printf("n=%6d %-11s heap %.3f ms   buckets %.3f ms (%.1fx)%n", n,
+                        unit ? "unit" : "[1, 2)", heapMs, bucketMs, heapMs / bucketMs);
+            }
+        }
+    }
+
+    /**
+     * Compares per-source parallel all-pairs shortest paths against Floyd-Warshall on sparse
+     * boards.
+     */
+    public static void apspSuite() {
+        System.out.println("== apsp: ms per all-pairs computation (average degree 8, "
+                + java.util.concurrent.ForkJoinPool.commonPool().getParallelism() + " workers)");
+        Random rand = new Random(231);
+        for (int n : new int[] { 500, 1000, 2000, 5000 }) {
+            Graph g = sparseGraph(n, 8, rand);
+            AllPairsShortestPaths.perSource(g);
+            double rowsMs = time(1, () -> sink += AllPairsShortestPaths.perSource(g).distance(0, n - 1));
+            String fw = "skipped (cubic)";
+            if (n <= 2000) {
+                double fwMs = time(1, () -> sink += AllPairsShortestPaths.floydWarshall(g).distance(0, n - 1));
+                fw = String.format("%.1f ms (%.1fx)", fwMs, fwMs / rowsMs);
+            }
+            System.out.printf("n=%5d  per-source %.1f ms   Floyd-Warshall %s%n", n, rowsMs, fw);
+        }
+    }
+
+    /**
+     * Compares the blocked, parallel Floyd-Warshall against the plain triple loop on dense boards.
+     */
+    public static void floydWarshallSuite() {
+        System.out.println("== floyd: ms per Floyd-Warshall run (edge probability 0.3)");
+        Random rand = new Random(231);
+        for (int n : new int[] { 500, 1000, 2000 }) {
+            Graph g = new Graph();
+            for (int i = 0; i < n; i++)
+                g.addVertex();
+            for (int i = 0; i < n; i++)
+                for (int j = 0; j < i; j++)
+                    if (rand.nextDouble() < 0.3)
+                        g.addEdge(g.getVertex(j), g.getVertex(i), rand.nextDouble(1, 2));
+            double blockedMs = time(1, () -> sink += AllPairsShortestPaths.floydWarshall(g).distance(0, n - 1));
+            double plainMs = time(1, () -> sink += plainFloydWarshall(g)[n - 1]);
+            System.out.printf("n=%5d  blocked %.1f ms   plain %.1f ms (%.1fx)%n", n, blockedMs, plainMs,
+                    plainMs / blockedMs);
+        }
+    }
+
+    /**
+     * Compares full adjacency sweeps and Dijkstra runs over the CSR snapshot against the same
+     * work done by walking Vertex and Edge objects.
+     */
+    public static void csrSuite() {
+        System.out.println("== csr: adjacency sweep and Dijkstra over objects vs CSR (average degree 8)");
+        Random rand = new Random(231);
+        for (int n : new int[] { 10000, 100000, 500000 }) {
+            Graph g = sparseGraph(n, 8, rand);
+            double buildMs = time(1, () -> sink += new CsrGraph(g).entries());
+            CsrGraph csr = g.snapshot();
+            int sweeps = 20;
+
+            Runnable objects = () -> {
+                for (int r = 0; r < sweeps; r++)
+                    for (Vertex u : g.getVertices())
+                        for (Edge e : u.incidentEdges())
+                            sink += e.other(u).getIndex() * e.distance();
+            };
+            Runnable flat = () -> {
+                for (int r = 0; r < sweeps; r++)
+                    for (int u = 0; u < n; u++)
+                        for (int k = csr.start(u), end = csr.end(u); k < end; k++)
+                            sink += csr.target(k) * csr.weight(k);
+            };
+            objects.run();
+            flat.run();
+            double objectMs = time(sweeps, objects);
+            double flatMs = time(sweeps, flat);
+
+            Dijkstra engine = new Dijkstra(csr);
+            double[] row = new double[n];
+            int sources = 10;
+            Runnable csrRuns = () -> {
+                for (int s = 0; s < sources; s++) {
+                    engine.distancesFrom(s, row);
+                    sink += row[n - 1];
+                }
+            };
+            Runnable objectRuns = () -> {
+                for (int s = 0; s < sources; s++) {
+                    objectDijkstra(g, s, row);
+                    sink += row[n - 1];
+                }
+            };
+            csrRuns.run();
+            objectRuns.run();
+            double csrRunMs = time(sources, csrRuns);
+            double objectRunMs = time(sources, objectRuns);
+
+            double entries = 2.0 * g.getEdges().size();
+            System.out.printf("n=%6d  build %.1f ms   sweep %.0f vs %.0f M edges/s (%.1fx)   Dijkstra %.2f vs %.2f ms (%.1fx)%n",
+                    n, buildMs, entries / flatMs / 1e3, entries / objectMs / 1e3, objectMs / flatMs, csrRunMs,
+                    objectRunMs, objectRunMs / csrRunMs);
+        }
+    }
+
+    /**
+     * The indexed-heap Dijkstra walking Vertex and Edge objects, as it was before the CSR snapshot.
+     *
+     * @param g      the graph
+     * @param source the index of the source vertex
+     * @param dist   the row to fill
+     */
+    private static void objectDijkstra(Graph g, int source, double[] dist) {
+        IndexedMinHeap heap = new IndexedMinHeap(g.size());
+        java.util.Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        dist[source] = 0.0;
+        heap.insertOrDecrease(source, 0.0);
+        while (!heap.isEmpty()) {
+            double du = heap.peekKey();
+            Vertex u = g.getVertex(heap.poll());
+            for (Edge e : u.incidentEdges()) {
+                int v = e.other(u).getIndex();
+                double alt = du + e.distance();
+                if (alt < dist[v]) {
+                    dist[v] = alt;
+                    heap.insertOrDecrease(v, alt);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compares G(n, p) generation with geometric skipping against one random draw per pair, at
+     * an average degree of 8.
+     */
+    public static void gnpSuite() {
+        System.out.println("== gnp: ms to draw the edges of G(n, 8 / n)");
+        for (int n : new int[] { 10000, 50000, 1000000 }) {
+            double p = 8.0 / n;
+            java.util.SplittableRandom rand = new java.util.SplittableRandom(231);
+            GnpGenerator.pairs(n, p, rand);
+            int[] edges = new int[1];
+            double skipMs = time(1, () -> edges[0] = GnpGenerator.pairs(n, p, rand).length / 2);
+            String pairwise = "skipped (quadratic)";
+            if (n <= 50000) {
+                double pairMs = time(1, () -> {
+                    int m = 0;
+                    for (int i = 0; i < n; i++)
+                        for (int j = 0; j < i; j++)
+                            if (rand.nextDouble() < p)
+                                m++;
+                    sink += m;
+                });
+                pairwise = String.format("%.1f ms (%.0fx)", pairMs, pairMs / skipMs);
+            }
+            System.out.printf("n=%7d  m=%7d  skipping %.1f ms   per pair %s%n", n, edges[0], skipMs, pairwise);
+        }
+    }
+
+    /**
+     * Writes a weighted edge list of a million edges with vertex values and times loading it
+     * through EdgeListLoader against the BufferedReader and String.split parsing of
+     * Graph(String filename).
+     */
+    public static void loadSuite() {
+        System.out.println("== load: ms to load a text edge list");
+        try {
+            for (int m : new int[] { 100000, 1000000 }) {
+                int n = m / 4;
+                java.nio.file.Path file = java.nio.file.Files.createTempFile("edges", ".txt");
+                java.util.SplittableRandom rand = new java.util.SplittableRandom(231);
+                try (java.io.PrintWriter out = new java.io.PrintWriter(java.nio.file.Files.newBufferedWriter(file))) {
+                    out.println("n_vertices: " + n);
+                    out.println("start_vertex,end_vertex,weight");
+                    for (int k = 0; k < m; k++)
+                        out.printf("%d,%d,%.6f%n", rand.nextInt(n), rand.nextInt(n), rand.nextDouble(1, 2));
+                    out.println("vertex,value");
+                    for (int v = 0; v < n; v++)
+                        out.println(v + "," + rand.nextInt(100));
+                }
+                long bytes = java.nio.file.Files.size(file);
+                for (int warm = 0; warm < 2; warm++)
+                    sink += EdgeListLoader.load(file).size();
+                double mappedMs = time(1, () -> {
+                    try {
+                        sink += EdgeListLoader.load(file).getEdges().size();
+                    }
+                    catch (java.io.IOException ex) {
+                        throw new java.io.UncheckedIOException(ex);
+                    }
+                });
+                // The legacy reader stops at the values section, so it gets a file of edges only
+                java.nio.file.Path edgesOnly = java.nio.file.Files.createTempFile("edges", ".txt");
+                try (java.util.stream.Stream<String> lines = java.nio.file.Files.lines(file)) {
+                    java.nio.file.Files.write(edgesOnly, (Iterable<String>) lines.limit(m + 2)::iterator);
+                }
+                sink += new Graph(edgesOnly.toString()).size();
+                double legacyMs = time(1, () -> sink += new Graph(edgesOnly.toString()).getEdges().size());
+                System.out.printf("m=%7d (%.0f MB)  mapped %.0f ms   BufferedReader %.0f ms (%.1fx)%n", m, bytes / 1e6,
+                        mappedMs, legacyMs, legacyMs / mappedMs);
+                java.nio.file.Files.delete(file);
+                java.nio.file.Files.delete(edgesOnly);
+            }
+        }
+        catch (java.io.IOException ex) {
+            System.out.println("VoronoiBenchmark:: unable to write the edge list: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Writes a DIMACS road network shaped like a city grid, with every road listed in both
+     * directions, then times its import and a ten-token game on lazily computed distances.
+     */
+    public static void dimacsSuite() {
+        System.out.println("== dimacs: import and play on grid road networks");
+        try {
+            for (int side : new int[] { 300, 1000 }) {
+                int n = side * side;
+                java.nio.file.Path gr = java.nio.file.Files.createTempFile("road", ".gr");
+                java.util.SplittableRandom rand = new java.util.SplittableRandom(231);
+                int arcs = 4 * side * (side - 1);
+                try (java.io.Writer out = java.nio.file.Files.newBufferedWriter(gr)) {
+                    out.write("c synthetic grid road network\np sp " + n + " " + arcs + "\n");
+                    StringBuilder line = new StringBuilder();
+                    for (int v = 1; v <= n; v++) {
+                        line.setLength(0);
+                        if (v % side != 0) {
+                            int w = 100 + rand.nextInt(900);
+                            line.append("a ").append(v).append(' ').append(v + 1).append(' ').append(w).append('\n');
+                            line.append("a ").append(v + 1).append(' ').append(v).append(' ').append(w).append('\n');
+                        }
+                        if (v + side <= n) {
+                            int w = 100 + rand.nextInt(900);
+                            line.append("a ").append(v).append(' ').append(v + side).append(' ').append(w).append('\n');
+                            line.append("a ").append(v + side).append(' ').append(v).append(' ').append(w).append('\n');
+                        }
+                        out.append(line);
+                    }
+                }
+                long bytes = java.nio.file.Files.size(gr);
+                VoronoiGraph[] board = new VoronoiGraph[1];
+                double importMs = time(1, () -> {
+                    try {
+                        board[0] = DimacsImporter.load(gr, BoardGenerators.GAME_VALUES, 231);
+                    }
+                    catch (java.io.IOException ex) {
+                        throw new java.io.UncheckedIOException(ex);
+                    }
+                });
+                VoronoiGraph g = board[0];
+                int tokens = 10;
+                double moveMs = time(tokens, () -> {
+                    for (int k = 0; k < tokens; k++)
+                        g.setToken(g.getVertex(rand.nextInt(n)), k % 2);
+                });
+                System.out.printf("n=%8d  arcs=%8d (%.0f MB)  import %.0f ms   setToken %.0f ms   score %s%n", n, arcs,
+                        bytes / 1e6, importMs, moveMs, g.playerValues());
+                java.nio.file.Files.delete(gr);
+            }
+        }
+        catch (java.io.IOException ex) {
+            System.out.println("VoronoiBenchmark:: unable to write the road network: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Compares a full Voronoi partition by table scan against the multi-source search, and times
+     * the search on large boards that have no all-pairs table.
+     */
+    public static void partitionSuite() {
+        System.out.println("== partition: ms per full Voronoi partition, table scan vs multi-source Dijkstra");
+        Random rand = new Random(19);
+        for (int n : new int[] { 500, 2000 }) {
+            // density is the legacy sparsity, the square of 1 - p
+            VoronoiGraph g = new VoronoiGraph(n, (1 - 8.0 / n) * (1 - 8.0 / n), 19);
+            VoronoiPartition partition = new VoronoiPartition(g);
+            for (int tokens : new int[] { 4, 10, 40 }) {
+                int[] tokenIndices = new int[tokens];
+                int[] tokenPlayers = new int[tokens];
+                for (int k = 0; k < tokens; k++) {
+                    tokenIndices[k] = rand.nextInt(n);
+                    tokenPlayers[k] = k % 2;
+                }
+                int ops = 200;
+                double scanMs = time(ops, () -> {
+                    for (int i = 0; i < ops; i++) {
+                        partition.computeFromTable(g.distances(), tokenIndices, tokenPlayers, tokens);
+                        sink += partition.total(0);
+                    }
+                });
+                double searchMs = time(ops, () -> {
+                    for (int i = 0; i < ops; i++) {
+                        partition.compute(tokenIndices, tokenPlayers, tokens);
+                        sink += partition.total(0);
+                    }
+                });
+                System.out.printf("n=%8d  tokens=%3d   table scan %.3f ms   multi-source %.3f ms   computeBest picks %s%n", n,
+                        tokens, scanMs, searchMs, VoronoiPartition.prefersTable(g, tokens) ? "scan" : "search");
+            }
+        }
+        // Boards this large keep lazy rows, so only the search applies
+        for (int side : new int[] { 300, 1000 }) {
+            VoronoiGraph g = BoardGenerators.grid(side, side, false, BoardGenerators.GAME_VALUES, 19);
+            VoronoiPartition partition = new VoronoiPartition(g);
+            int[] tokenIndices = new int[10];
+            int[] tokenPlayers = new int[10];
+            for (int k = 0; k < 10; k++) {
+                tokenIndices[k] = rand.nextInt(g.size());
+                tokenPlayers[k] = k % 2;
+            }
+            double searchMs = time(5, () -> {
+                for (int i = 0; i < 5; i++) {
+                    partition.compute(tokenIndices, tokenPlayers, 10);
+                    sink += partition.total(0);
+                }
+            });
+            System.out.printf("n=%8d  tokens= 10   multi-source %.1f ms   (%s)%n", g.size(), searchMs,
+                    g.distances().getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Compares setToken, which visits only the captured region, against the original scan of
+     * every vertex for each move, on random boards (average degree 8) and grids.
+     */
+    public static void cellSuite() {
+        System.out.println("== cells: ms per move over 20 games of 20 tokens");
+        int games = 20;
+        for (int n : new int[] { 1000, 4000, 10000, 40000, 90000 }) {
+            int side = (int) Math.sqrt(n);
+            VoronoiGraph[] boards = {
+                    n <= 10000 ? new VoronoiGraph(n, (1 - 8.0 / n) * (1 - 8.0 / n), 23) : null,
+                    BoardGenerators.grid(side, side, false, BoardGenerators.GAME_VALUES, 23) };
+            for (VoronoiGraph g : boards) {
+                if (g == null)
+                    continue;
+                int size = g.size();
+                int[] picks = new Random(23).ints(0, size).distinct().limit(20).toArray();
+                double scanMs = time(games * picks.length, () -> {
+                    for (int game = 0; game < games; game++) {
+                        int[] ownerV = new int[size];
+                        java.util.Arrays.fill(ownerV, -1);
+                        for (int t : picks)
+                            for (int u = 0; u < size; u++)
+                                if ((ownerV[u] == -1 && g.distance(t, u) != Double.POSITIVE_INFINITY)
+                                        || (ownerV[u] != -1 && g.distances().closer(u, t, ownerV[u])))
+                                    ownerV[u] = t;
+                        sink += ownerV[0];
+                    }
+                });
+                double cellMs = time(games * picks.length, () -> {
+                    for (int game = 0; game < games; game++) {
+                        g.reset();
+                        for (int k = 0; k < picks.length; k++)
+                            g.setToken(g.getVertex(picks[k]), k % 2);
+                        sink += g.playerValues().getOrDefault(0, 0);
+                    }
+                });
+                System.out.printf("%-6s n=%6d  %-24s scan %.3f ms   setToken %.3f ms%n", g == boards[0] ? "G(n,p)" : "grid",
+                        size, g.distances().getClass().getSimpleName(), scanMs, cellMs);
+            }
+        }
+    }
+
+    /**
+     * Compares scoring positions by pushing and popping tokens on the board against recomputing
+     * the partition from scratch: once at the end of random 9-token playouts, and after each
+     * single candidate move.
+     */
+    public static void undoSuite() {
+        System.out.println("== undo: ms per 9-token playout from a board with 1 token");
+        for (int n : new int[] { 500, 2000, 10000, 90000 }) {
+            VoronoiGraph[] boards = { n <= 10000 ? new VoronoiGraph(n, (1 - 8.0 / n) * (1 - 8.0 / n), 29) : null,
+                    BoardGenerators.grid((int) Math.sqrt(n), (int) Math.sqrt(n), false, BoardGenerators.GAME_VALUES, 29) };
+            for (VoronoiGraph g : boards) {
+                if (g == null)
+                    continue;
+                Random rand = new Random(29);
+                int size = g.size();
+                g.reset();
+                g.setToken(g.getVertex(0), 0);
+                int playouts = size > 10000 ? 20 : 2000;
+                int[][] picks = new int[playouts][];
+                for (int i = 0; i < playouts; i++)
+                    picks[i] = rand.ints(1, size).distinct().limit(9).toArray();
+                Runnable undo = () -> {
+                    for (int[] playout : picks) {
+                        for (int k = 0; k < playout.length; k++)
+                            g.pushToken(g.getVertex(playout[k]), (k + 1) % 2);
+                        sink += g.getScore(0) - g.getScore(1);
+                        for (int k = 0; k < playout.length; k++)
+                            g.popToken();
+                    }
+                };
+                undo.run();
+                double undoMs = time(playouts, undo);
+                VoronoiPartition partition = new VoronoiPartition(g);
+                int[] tokens = new int[10];
+                int[] players = new int[10];
+                for (int k = 0; k < 10; k++)
+                    players[k] = k % 2;
+                Runnable scratch = () -> {
+                    for (int[] playout : picks) {
+                        System.arraycopy(playout, 0, tokens, 1, playout.length);
+                        partition.computeBest(tokens, players, 10);
+                        sink += partition.total(0) - partition.total(1);
+                    }
+                };
+                scratch.run();
+                double scratchMs = time(playouts, scratch);
+                System.out.printf("%-6s n=%6d  %-24s push/pop %.4f ms   from scratch %.4f ms%n", g == boards[0] ? "G(n,p)" : "grid",
+                        size, g.distances().getClass().getSimpleName(), undoMs, scratchMs);
+            }
+        }
+        System.out.println("== undo: ms per scored candidate when every free vertex is tried as the 11th token");
+        for (int n : new int[] { 500, 2000, 10000 }) {
+            VoronoiGraph g = BoardGenerators.grid((int) Math.sqrt(n), (int) Math.sqrt(n), false, BoardGenerators.GAME_VALUES, 31);
+            Random rand = new Random(31);
+            int size = g.size();
+            int[] tokens = new int[11];
+            int[] players = new int[11];
+            g.reset();
+            for (int k = 0; k < 10; k++) {
+                do {
+                    tokens[k] = rand.nextInt(size);
+                } while (g.hasToken(g.getVertex(tokens[k])));
+                players[k] = k % 2;
+                g.setToken(g.getVertex(tokens[k]), players[k]);
+            }
+            players[10] = 0;
+            Runnable undo = () -> {
+                for (int v = 0; v < size; v++) {
+                    if (!g.hasToken(g.getVertex(v))) {
+                        g.pushToken(g.getVertex(v), 0);
+                        sink += g.getScore(0);
+                        g.popToken();
+                    }
+                }
+            };
+            VoronoiPartition partition = new VoronoiPartition(g);
+            Runnable scratch = () -> {
+                for (int v = 0; v < size; v++) {
+                    if (!g.hasToken(g.getVertex(v))) {
+                        tokens[10] = v;
+                        partition.computeBest(tokens, players, 11);
+                        sink += partition.total(0);
+                    }
+                }
+            };
+            undo.run();
+            scratch.run();
+            System.out.printf("grid   n=%6d  %-24s push/pop %.4f ms   from scratch %.4f ms%n", size,
+                    g.distances().getClass().getSimpleName(), time(size - 10, undo), time(size - 10, scratch));
+        }
+    }
+
+    /**
+     * Compares starting a tournament board from a binary snapshot, with and without stored
+     * distances, against generating it and calculating its distances.
+     */
+    public static void snapshotSuite() {
+        System.out.println("== snapshot: ms to get a ready board (average degree 8)");
+        try {
+            for (int n : new int[] { 2000, 4000, 10000 }) {
+                java.nio.file.Path file = java.nio.file.Files.createTempFile("board", ".vbrd");
+                double density = Math.pow(1 - 8.0 / n, 2);
+                new VoronoiGraph(n, density, 231);
+                VoronoiGraph[] board = new VoronoiGraph[1];
+                double generateMs = time(1, () -> board[0] = new VoronoiGraph(n, density, 231));
+                String[] results = new String[2];
+                for (int stored = 0; stored < 2; stored++) {
+                    BoardSnapshot.write(board[0], file, stored == 1);
+                    long bytes = java.nio.file.Files.size(file);
+                    sink += BoardSnapshot.read(file).size();
+                    double readMs = time(1, () -> {
+                        try {
+                            sink += BoardSnapshot.read(file).distance(0, n - 1);
+                        }
+                        catch (java.io.IOException ex) {
+                            throw new java.io.UncheckedIOException(ex);
+                        }
+                    });
+                    results[stored] = String.format("%.0f ms (%.1f MB)", readMs, bytes / 1e6);
+                }
+                System.out.printf("n=%5d  generate %.0f ms   read %s   read with distances %s%n", n, generateMs,
+                        results[0], results[1]);
+                java.nio.file.Files.delete(file);
+            }
+        }
+        catch (java.io.IOException ex) {
+            System.out.println("VoronoiBenchmark:: unable to write the snapshot: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Generates a board of each topology with about 4000 vertices and average degree near 8, and
+     * reports the generation and distance times and the time of one neighbour greedy move.
+     */
+    public static void boardSuite() {
+        System.out.println("== boards: ms per step on 4000-vertex boards of each topology");
+        String[] names = { "G(n, p)", "geometric", "torus", "Barabasi-Albert", "stochastic block" };
+        for (String name : names) {
+            long start = System.nanoTime();
+            VoronoiGraph g;
+            switch (name) {
+                case "G(n, p)":
+                    g = new VoronoiGraph(4000, Math.pow(1 - 8.0 / 4000, 2), 231);
+                    break;
+                case "geometric":
+                    g = BoardGenerators.randomGeometric(4000, Math.sqrt(8 / (Math.PI * 4000)), BoardGenerators.GAME_VALUES, 231);
+                    break;
+                case "torus":
+                    g = BoardGenerators.grid(64, 63, true, BoardGenerators.GAME_VALUES, 231);
+                    break;
+                case "Barabasi-Albert":
+                    g = BoardGenerators.barabasiAlbert(4000, 4, BoardGenerators.GAME_VALUES, 231);
+                    break;
+                default:
+                    g = BoardGenerators.stochasticBlock(new int[] { 1000, 1000, 1000, 1000 }, 0.0075, 0.0002,
+                            BoardGenerators.GAME_VALUES, 231);
+            }
+            double totalMs = (System.nanoTime() - start) / 1e6;
+            VoronoiGraph board = g;
+            double distMs = time(1, () -> board.computeDistances());
+            VoronoiPlayerAlgorithm player = new VoronoiNeighbourGreedyPlayer2(board);
+            board.setToken(player.chooseVertex(0, 1), 0);
+            double moveMs = time(10, () -> {
+                for (int r = 0; r < 10; r++)
+                    sink += player.chooseVertex(1, 1).getIndex();
+            });
+            System.out.printf("%-17s m=%6d  build+distances %.0f ms   distances %.0f ms   greedy move %.2f ms%n", name,
+                    board.getEdges().size(), totalMs, distMs, moveMs);
+        }
+    }
+
+    /**
+     * Measures the bytes allocated by neighbourhood scans through adjacentVertices(), getEdgeTo()
+     * and vertices() against the index-based Vertex and Edge accessors, and by a full move of the
+     * neighbour greedy players. Allocation is read from the JVM's per-thread counter.
+     */
+    public static void allocationSuite() {
+        System.out.println("== alloc: bytes allocated per operation (board of 2000 vertices, density 0.99)");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory
+                .getThreadMXBean();
+        long self = Thread.currentThread().threadId();
+        VoronoiGraph g = new VoronoiGraph(2000, 0.99);
+        int rounds = 50;
+
+        Runnable listScan = () -> {
+            for (int r = 0; r < rounds; r++)
+                for (Vertex v : g.getVertices())
+                    for (Vertex u : v.adjacentVertices())
+                        sink += v.getEdgeTo(u).distance();
+        };
+        Runnable indexScan = () -> {
+            for (int r = 0; r < rounds; r++)
+                for (int i = 0; i < g.size(); i++) {
+                    Vertex v = g.getVertex(i);
+                    for (int k = 0; k < v.degree(); k++)
+                        sink += v.weight(k) + v.neighbour(k).getIndex();
+                }
+        };
+        Runnable arrayEnds = () -> {
+            for (int r = 0; r < rounds; r++)
+                for (Edge e : g.getEdges())
+                    sink += e.vertices()[0].getIndex() + e.vertices()[1].getIndex();
+        };
+        Runnable accessorEnds = () -> {
+            for (int r = 0; r < rounds; r++)
+                for (int i = 0; i < g.getEdges().size(); i++) {
+                    Edge e = g.getEdges().get(i);
+                    sink += e.first().getIndex() + e.second().getIndex();
+                }
+        };
+        VoronoiPlayerAlgorithm greedy = new VoronoiNeighbourGreedyPlayer(g);
+        VoronoiPlayerAlgorithm greedy2 = new VoronoiNeighbourGreedyPlayer2(g);
+        Runnable moves = () -> {
+            for (int r = 0; r < rounds; r++) {
+                sink += greedy.chooseVertex(0, 1).getIndex();
+                sink += greedy2.chooseVertex(1, 1).getIndex();
+            }
+        };
+
+        String[] names = { "adjacentVertices + getEdgeTo", "degree/neighbour/weight", "Edge.vertices()",
+                "Edge.first/second", "neighbour greedy moves" };
+        Runnable[] work = { listScan, indexScan, arrayEnds, accessorEnds, moves };
+        long[] ops = { (long) rounds * g.size(), (long) rounds * g.size(), (long) rounds * g.getEdges().size(),
+                (long) rounds * g.getEdges().size(), 2L * rounds };
+        for (int w = 0; w < work.length; w++) {
+            for (int warm = 0; warm < 20; warm++)
+                work[w].run();
+            long before = threads.getThreadAllocatedBytes(self);
+            double ms = time(1, work[w]);
+            long bytes = threads.getThreadAllocatedBytes(self) - before;
+            System.out.printf("%-30s %10.1f bytes/op   %.2f us/op%n", names[w], (double) bytes / ops[w],
+                    ms * 1e3 / ops[w]);
+        }
+    }
+
+    /**
+     * Measures edge lookups and edits on a large sparse board, against the original getEdge
+     * scan of the whole edge list.
+     */
+    public static void mutationSuite() {
+        System.out.println("== mutate: microseconds per operation (average degree 8)");
+        Random rand = new Random(231);
+        for (int n : new int[] { 10000, 100000 }) {
+            Graph g = sparseGraph(n, 8, rand);
+            int ops = 20000;
+            int[] pairs = new int[2 * ops];
+            for (int i = 0; i < pairs.length; i++)
+                pairs[i] = rand.nextInt(n);
+
+            double lookupMs = time(ops, () -> {
+                for (int i = 0; i < ops; i++)
+                    sink += g.getEdge(g.getVertex(pairs[2 * i]), g.getVertex(pairs[2 * i + 1])) == null ? 0 : 1;
+            });
+            int scans = 200;
+            double scanMs = time(scans, () -> {
+                for (int i = 0; i < scans; i++)
+                    sink += legacyGetEdge(g, g.getVertex(pairs[2 * i]), g.getVertex(pairs[2 * i + 1])) == null ? 0 : 1;
+            });
+            double editMs = time(2 * ops, () -> {
+                for (int i = 0; i < ops; i++) {
+                    Edge e = g.getEdges().get(pairs[i] % g.getEdges().size());
+                    g.remove(e);
+                    g.addEdge(g.getVertex(pairs[2 * i]), g.getVertex(pairs[2 * i + 1]), 1.5);
+                }
+            });
+            int removals = n / 10;
+            double vertexMs = time(removals, () -> {
+                for (int i = 0; i < removals; i++)
+                    g.remove(g.getVertex(pairs[i] % g.size()));
+            });
+            System.out.printf("n=%6d  getEdge %.2f us (scan %.1f us)   edge edit %.2f us   vertex removal %.2f us%n", n,
+                    lookupMs * 1e3, scanMs * 1e3, editMs * 1e3, vertexMs * 1e3);
+        }
+    }
+
+    /**
+     * The original Graph.getEdge, a scan of the whole edge list.
+     *
+     * @param g the graph
+     * @param u the first vertex
+     * @param v the second vertex
+     * @return the edge between u and v, or null if there is none
+     */
+    private static Edge legacyGetEdge(Graph g, Vertex u, Vertex v) {
+        for (Edge e : g.getEdges())
+            if (e.vertices()[0].equals(u) && e.vertices()[1].equals(v) || e.vertices()[0].equals(v) && e.vertices()[1].equals(u))
+                return e;
+        return null;
+    }
+
+    /**
+     * The untiled Floyd-Warshall triple loop over a flat matrix.
+     *
+     * @param g the graph
+     * @return the row-major distance matrix of g
+     */
+    private static double[] plainFloydWarshall(Graph g) {
+        int n = g.size();
+        double[] d = new double[n * n];
+        java.util.Arrays.fill(d, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < n; i++)
+            d[i * n + i] = 0.0;
+        for (Edge e : g.getEdges()) {
+            int u = e.first().getIndex();
+            int v = e.second().getIndex();
+            d[u * n + v] = Math.min(d[u * n + v], e.distance());
+            d[v * n + u] = d[u * n + v];
+        }
+        for (int k = 0; k < n; k++)
+            for (int i = 0; i < n; i++) {
+                double dik = d[i * n + k];
+                for (int j = 0; j < n; j++)
+                    if (dik + d[k * n + j] < d[i * n + j])
+                        d[i * n + j] = dik + d[k * n + j];
+            }
+        return d;
+    }
+
+    /**
+     * The original Graph.distanceFrom: every vertex starts in a java.util.PriorityQueue and each
+     * relaxation removes and re-adds the vertex, which is a linear scan of the queue.
+     *
+     * @param g      the graph to search
+     * @param source the source vertex
+     * @return a HashMap containing the shortest distances from the source vertex
+     */
+    private static HashMap<Vertex, Double> legacyDistanceFrom(Graph g, Vertex source) {
+        HashMap<Vertex, Double> dist = new HashMap<>();
+        for (Vertex v : g.getVertices())
+            dist.put(v, v == source ? 0.0 : Double.MAX_VALUE);
+        Comparator<Vertex> vertexComparator = (v, u) -> dist.get(v).compareTo(dist.get(u));
+        PriorityQueue<Vertex> pq = new PriorityQueue<>(vertexComparator);
+        for (Vertex v : g.getVertices())
+            pq.add(v);
+        while (!pq.isEmpty()) {
+            Vertex u = pq.poll();
+            for (Edge e : u.incidentEdges()) {
+                Vertex v = e.other(u);
+                Double alt = dist.get(u) + e.distance();
+                if (alt < dist.get(v)) {
+                    pq.remove(v);
+                    dist.put(v, alt);
+                    pq.add(v);
+                }
+            }
+        }
+        return dist;
+    }
+
+    /**
+     * Compares playing many games at once on one shared Board, each with its own GameState,
+     * against giving every game its own VoronoiGraph with its own distance table.
+     */
+    public static void gameSuite() {
+        System.out.println("== games: ms to set up and play 8 games of 20 tokens in parallel (average degree 8)");
+        int games = 8;
+        for (int n : new int[] { 500, 2000 }) {
+            double density = (1 - 8.0 / n) * (1 - 8.0 / n);
+            int[][] picks = new int[games][];
+            for (int k = 0; k < games; k++)
+                picks[k] = new Random(37 + k).ints(0, n).distinct().limit(20).toArray();
+            Runnable shared = () -> {
+                Board board = new VoronoiGraph(n, density, 37).board();
+                java.util.stream.IntStream.range(0, games).parallel().forEach(k -> {
+                    GameState state = new GameState(board);
+                    for (int i = 0; i < picks[k].length; i++)
+                        state.setToken(picks[k][i], i % 2);
+                    sink += state.score(0);
+                });
+            };
+            Runnable separate = () -> java.util.stream.IntStream.range(0, games).parallel().forEach(k -> {
+                VoronoiGraph g = new VoronoiGraph(n, density, 37);
+                for (int i = 0; i < picks[k].length; i++)
+                    g.setToken(g.getVertex(picks[k][i]), i % 2);
+                sink += g.getScore(0);
+            });
+            shared.run();
+            separate.run();
+            double tableMB = 8.0 * n * n / (1 << 20);
+            System.out.printf("n=%5d  shared board %.1f ms (%.0f MB of distances)   one board per game %.1f ms (%.0f MB)%n", n,
+                    time(1, shared), tableMB, time(1, separate), games * tableMB);
+        }
+    }
+
+    /**
+     * Compares summing the value a player owns from a bitset with the per-byte tables of
+     * Board.valueOf against visiting every set bit and against scanning an owner per vertex,
+     * and enumerating free vertices with nextFree against testing every vertex.
+     */
+    public static void bitsetSuite() {
+        System.out.println("== bits: us per owned-value sum of one player");
+        for (int n : new int[] { 2000, 10000, 90000 }) {
+            int side = (int) Math.sqrt(n);
+            Board board = BoardGenerators.grid(side, side, false, BoardGenerators.GAME_VALUES, 41).board();
+            int size = board.size();
+            for (double share : new double[] { 0.05, 0.5 }) {
+                Random rand = new Random(41);
+                int[] owner = new int[size];
+                long[] bits = new long[(size + 63) >>> 6];
+                for (int v = 0; v < size; v++) {
+                    owner[v] = rand.nextDouble() < share ? 0 : 1;
+                    if (owner[v] == 0)
+                        bits[v >>> 6] |= 1L << v;
+                }
+                int reps = 20000000 / size;
+                Runnable table = () -> {
+                    for (int r = 0; r < reps; r++)
+                        sink += board.valueOf(bits);
+                };
+                Runnable setBits = () -> {
+                    for (int r = 0; r < reps; r++) {
+                        int sum = 0;
+                        for (int i = 0; i < bits.length; i++)
+                            for (long w = bits[i]; w != 0; w &= w - 1)
+                                sum += board.value((i << 6) + Long.numberOfTrailingZeros(w));
+                        sink += sum;
+                    }
+                };
+                Runnable scan = () -> {
+                    for (int r = 0; r < reps; r++) {
+                        int sum = 0;
+                        for (int v = 0; v < size; v++)
+                            if (owner[v] == 0)
+                                sum += board.value(v);
+                        sink += sum;
+                    }
+                };
+                table.run();
+                setBits.run();
+                scan.run();
+                System.out.printf("grid n=%6d  %2.0f%% owned  byte tables %.2f us   set bits %.2f us   owner scan %.2f us%n", size,
+                        100 * share, 1000 * time(reps, table), 1000 * time(reps, setBits), 1000 * time(reps, scan));
+            }
+        }
+        System.out.println("== bits: us to list the free vertices with 20 tokens placed");
+        for (int n : new int[] { 2000, 10000, 90000 }) {
+            int side = (int) Math.sqrt(n);
+            GameState state = new GameState(BoardGenerators.grid(side, side, false, BoardGenerators.GAME_VALUES, 43).board());
+            int size = state.board().size();
+            new Random(43).ints(0, size).distinct().limit(20).forEach(v -> state.setToken(v, 0));
+            int reps = 20000000 / size;
+            Runnable words = () -> {
+                for (int r = 0; r < reps; r++)
+                    for (int v = state.nextFree(0); v != -1; v = state.nextFree(v + 1))
+                        sink += v;
+            };
+            Runnable each = () -> {
+                for (int r = 0; r < reps; r++)
+                    for (int v = 0; v < size; v++)
+                        if (!state.hasToken(v))
+                            sink += v;
+            };
+            words.run();
+            each.run();
+            System.out.printf("grid n=%6d  nextFree %.2f us   hasToken %.2f us%n", size, 1000 * time(reps, words),
+                    1000 * time(reps, each));
+        }
+    }
+
+    /**
+     * Measures transposition table stores and probes from one and from all threads.
+     */
+    public static void transpositionSuite() {
+        System.out.println("== tt: ns per store and probe of random keys in a table of 2^20 entries");
+        TranspositionTable table = new TranspositionTable(1 << 20);
+        int ops = 4000000;
+        for (int threads : new int[] { 1, Math.max(2, Runtime.getRuntime().availableProcessors()) }) {
+            Runnable work = () -> java.util.stream.IntStream.range(0, threads).parallel().forEach(t -> {
+                TranspositionTable.Entry e = new TranspositionTable.Entry();
+                java.util.SplittableRandom rand = new java.util.SplittableRandom(t);
+                double found = 0;
+                for (int i = 0; i < ops / threads; i++) {
+                    long key = rand.nextLong();
+                    table.store(key, i, i & 1023, i & 7);
+                    if (table.probe(rand.nextLong() & 0xFFFFF, e))
+                        found += e.value;
+                }
+                sink += found;
+            });
+            work.run();
+            System.out.printf("threads=%2d  %.1f ns%n", threads, 1e6 * time(ops, work));
+        }
+    }
+
+    /**
+     * Compares the ScoringKernel's row minima against the per-vertex table scan and the
+     * multi-source search of VoronoiPartition, on 10-token playouts of boards with a dense
+     * matrix. The kernel's lead comes from reading each token's row in order.
+     */
+    public static void kernelSuite() {
+        System.out.println("== kernel: us per 10-token score (average degree 8)");
+        for (int n : new int[] { 500, 1000, 2000, 4000 }) {
+            VoronoiGraph g = new VoronoiGraph(n, (1 - 8.0 / n) * (1 - 8.0 / n), 53);
+            Board board = g.board();
+            ScoringKernel kernel = new ScoringKernel(board);
+            VoronoiPartition partition = new VoronoiPartition(board);
+            Random rand = new Random(53);
+            int playouts = 2000;
+            int[][] picks = new int[playouts][];
+            for (int i = 0; i < playouts; i++)
+                picks[i] = rand.ints(0, n).distinct().limit(10).toArray();
+            int[] players = { 0, 1, 0, 1, 0, 1, 0, 1, 0, 1 };
+            Runnable rows = () -> {
+                for (int[] tokens : picks) {
+                    kernel.score(tokens, players, 10);
+                    sink += kernel.total(0) - kernel.total(1);
+                }
+            };
+            Runnable scan = () -> {
+                for (int[] tokens : picks) {
+                    partition.computeFromTable(board.distances(), tokens, players, 10);
+                    sink += partition.total(0) - partition.total(1);
+                }
+            };
+            Runnable search = () -> {
+                for (int[] tokens : picks) {
+                    partition.compute(tokens, players, 10);
+                    sink += partition.total(0) - partition.total(1);
+                }
+            };
+            for (int warm = 0; warm < 3; warm++) {
+                rows.run();
+                scan.run();
+                search.run();
+            }
+            System.out.printf("G(n,p) n=%5d  kernel %.2f us   table scan %.2f us   search %.2f us%n", n,
+                    1000 * time(playouts, rows), 1000 * time(playouts, scan), 1000 * time(playouts, search));
+        }
+    }
+
+    /**
+     * Compares the scalar and vector loops of RowKernel: a token row's minimum, the two players'
+     * masked value sums, and whole 10-token scores. Compile the vector kernel and run with
+     * --add-modules jdk.incubator.vector to measure it; otherwise the preferred kernel is the
+     * scalar one and the columns match.
+     */
+    public static void rowKernelSuite() {
+        RowKernel scalar = new ScalarRowKernel();
+        RowKernel preferred = RowKernel.PREFERRED;
+        System.out.println("== rows: ns per row minimum and per two-player split, us per 10-token score (preferred: "
+                + preferred.getClass().getName() + ")");
+        for (int n : new int[] { 500, 1000, 2000, 4000 }) {
+            VoronoiGraph g = new VoronoiGraph(n, (1 - 8.0 / n) * (1 - 8.0 / n), 59);
+            Board board = g.board();
+            DistanceMatrix matrix = (DistanceMatrix) board.distances();
+            Random rand = new Random(59);
+            int[] values = new int[n];
+            for (int v = 0; v < n; v++)
+                values[v] = board.value(v);
+            double[] best0 = new double[n];
+            double[] best1 = new double[n];
+            int[] totals = new int[2];
+            int ops = 4000000 / n;
+            int[] sources = rand.ints(ops, 0, n).toArray();
+            int playouts = 2000;
+            int[][] picks = new int[playouts][];
+            for (int i = 0; i < playouts; i++)
+                picks[i] = rand.ints(0, n).distinct().limit(10).toArray();
+            int[] players = { 0, 1, 0, 1, 0, 1, 0, 1, 0, 1 };
+            double[][] results = new double[2][3];
+            RowKernel[] kernels = { scalar, preferred };
+            for (int k = 0; k < 2; k++) {
+                RowKernel rows = kernels[k];
+                ScoringKernel kernel = new ScoringKernel(board, rows);
+                Runnable minima = () -> {
+                    java.util.Arrays.fill(best0, Double.POSITIVE_INFINITY);
+                    for (int s : sources)
+                        matrix.minRow(s, best0, rows);
+                    sink += best0[0];
+                };
+                Runnable split = () -> {
+                    for (int i = 0; i < ops; i++) {
+                        matrix.copyRow(sources[i], best1);
+                        rows.split(best0, best1, values, n, totals);
+                        sink += totals[0] - totals[1];
+                    }
+                };
+                Runnable scores = () -> {
+                    for (int[] tokens : picks) {
+                        kernel.score(tokens, players, 10);
+                        sink += kernel.total(0) - kernel.total(1);
+                    }
+                };
+                for (int warm = 0; warm < 3; warm++) {
+                    minima.run();
+                    split.run();
+                    scores.run();
+                }
+                results[k][0] = 1e6 * time(ops, minima);
+                results[k][1] = 1e6 * time(ops, split);
+                results[k][2] = 1000 * time(playouts, scores);
+            }
+            System.out.printf("G(n,p) n=%5d  min %.0f / %.0f ns   split %.0f / %.0f ns   score %.2f / %.2f us (scalar / preferred)%n", n,
+                    results[0][0], results[1][0], results[0][1], results[1][1], results[0][2], results[1][2]);
+        }
+    }
+
+    public static void main(String[] args) {
+        String[] suites = args.length > 0 ? args : new String[] { "dijkstra", "buckets", "apsp", "floyd", "mutate", "csr", "alloc", "gnp", "boards", "load", "snapshot", "dimacs", "partition", "cells", "undo", "games", "bits", "tt", "kernel", "rows" };
+        for (String suite : suites) {
+            switch (suite) {
+                case "dijkstra":
+                    dijkstraSuite();
+                    break;
+                case "buckets":
+                    bucketSuite();
+                    break;
+                case "apsp":
+                    apspSuite();
+                    break;
+                case "floyd":
+                    floydWarshallSuite();
+                    break;
+                case "mutate":
+                    mutationSuite();
+                    break;
+                case "csr":
+                    csrSuite();
+                    break;
+                case "alloc":
+                    allocationSuite();
+                    break;
+                case "gnp":
+                    gnpSuite();
+                    break;
+                case "boards":
+                    boardSuite();
+                    break;
+                case "load":
+                    loadSuite();
+                    break;
+                case "snapshot":
+                    snapshotSuite();
+                    break;
+                case "dimacs":
+                    dimacsSuite();
+                    break;
+                case "partition":
+                    partitionSuite();
+                    break;
+                case "cells":
+                    cellSuite();
+                    break;
+                case "undo":
+                    undoSuite();
+                    break;
+                case "games":
+                    gameSuite();
+                    break;
+                case "bits":
+                    bitsetSuite();
+                    break;
+                case "tt":
+                    transpositionSuite();
+                    break;
+                case "kernel":
+                    kernelSuite();
+                    break;
+                case "rows":
+                    rowKernelSuite();
+                    break;
+                default:
+                    System.out.println("Unknown suite: " + suite);
+            }
+        }
+        if (sink == 42)
+            System.out.println();
+    }
+}
@@ -5,22 +5,26 @@
  * Written by mbender for CS 231 at Colby College.
  */
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Random;
+import java.util.SplittableRandom;
 
-public class VoronoiGraph extends Graph {
+public final class VoronoiGraph extends Graph {
 
-    private HashMap<Vertex, Integer> values;
-    public HashMap<VertexPair, Double> distances;
+    // Value of each vertex, indexed by Vertex.getIndex()
+    private int[] values = new int[0];
+    private DistanceTable distances; // Distances between vertices, or null until calculated
 
-    private HashMap<Vertex, Integer> tokens;
-    private HashMap<Vertex, Integer> ownerP;
-    private HashMap<Vertex, Vertex> ownerV;
-    private HashMap<Integer, Integer> playerValues;
+    private Board board; // Board of the current edges, values and distances, or null after an edit
+    private DistanceTable sharedDistances; // Distances held by a Board handed out, copied before an edit
+    private GameState game; // The game played on this graph, created on first use
+    private ScoringKernel kernel; // Kernel of score(), for the Board it was made for
 
     public VoronoiGraph() {
         Random rand = new Random();
-        values = new HashMap<>();
         reset();
 
         for (int r = 0; r < 4; r++) {
@@ -30,28 +34,51 @@ public class VoronoiGraph extends Graph {
                     addEdge(v, getVertex(r * 4 + c - 4), rand.nextDouble(1, 2));
                 if (c > 0)
                     addEdge(v, getVertex(r * 4 + c - 1), rand.nextDouble(1, 2));
-                values.put(v, rand.nextInt(100));
-                ownerP.put(v, null);
-                ownerV.put(v, null);
+                values[v.getIndex()] = rand.nextInt(100);
             }
         }
         distances = calculateDistances();
     }
 
     public VoronoiGraph(int n, double density) {
-        Random rand = new Random();
-        values = new HashMap<>();
-        reset();
+        this(n, density, new SplittableRandom());
+    }
 
-        for (int i = 0; i < n; i++) {
-            Vertex v = addVertex();
-            for (int j = 0; j < i; j++)
-                if (rand.nextDouble() < 1 - Math.sqrt(density))
-                    addEdge(getVertex(j), v, rand.nextDouble(1, 2));
-            values.put(v, rand.nextInt(100));
-            ownerP.put(v, null);
-            ownerV.put(v, null);
-        }
+    /**
+     * Creates a board of n unconnected vertices with value 0, for generators that add the
+     * edges and values themselves. The distances are not calculated, so edits stay cheap:
+     * call computeDistances() once the board is complete.
+     * 
+     * @param n the number of vertices.
+     */
+    public VoronoiGraph(int n) {
+        super(n);
+        values = new int[n];
+    }
+
+    /**
+     * Creates a reproducible random board: every pair of the n vertices is joined with
+     * probability 1 - sqrt(density) by an edge of length in [1, 2), and every vertex gets a
+     * value in [0, 100). The same seed always gives the same board.
+     * 
+     * @param n       the number of vertices.
+     * @param density the sparsity of the board, from 0 (complete) to 1 (no edges).
+     * @param seed    the seed of the random number generator.
+     */
+    public VoronoiGraph(int n, double density, long seed) {
+        this(n, density, new SplittableRandom(seed));
+    }
+
+    private VoronoiGraph(int n, double density, SplittableRandom rand) {
+        super(n);
+
+        values = new int[n];
+        for (int i = 0; i < n; i++)
+            values[i] = rand.nextInt(100);
+        // The edges are drawn in O(n + m) by skipping over the pairs that get none
+        int[] pairs = GnpGenerator.pairs(n, 1 - Math.sqrt(density), rand.split());
+        for (int k = 0; k < pairs.length; k += 2)
+            addEdge(getVertex(pairs[k + 1]), getVertex(pairs[k]), rand.nextDouble(1, 2));
         distances = calculateDistances();
     }
 
@@ -60,11 +87,243 @@ public class VoronoiGraph extends Graph {
      * 
      * Removes tokens, etc.
      */
-    public void reset() {
-        tokens = new HashMap<>();
-        ownerP = new HashMap<>();
-        ownerV = new HashMap<>();
-        playerValues = new HashMap<>();
+    public synchronized void reset() {
+        if (game != null)
+            game.reset();
+    }
+
+    /**
+     * Adds a Vertex with value 0 to the graph, growing the per-vertex arrays if needed.
+     * If the distances have already been calculated, the table grows by a row and column
+     * at infinite distance, in O(n^2) time, and a row cache starts over; other tables are
+     * recalculated.
+     * 
+     * @return the newly added Vertex.
+     */
+    @Override
+    public Vertex addVertex() {
+        // Copied before the graph changes, so that a Board's table settles ties on the old graph
+        unshareDistances();
+        Vertex v = super.addVertex();
+        if (size() > values.length)
+            values = Arrays.copyOf(values, Math.max(size(), 2 * values.length));
+        if (distances instanceof MutableDistanceTable)
+            distances = ((MutableDistanceTable) distances).withVertexAdded();
+        else if (distances instanceof LazyDistanceRows)
+            distances = new LazyDistanceRows(this, ((LazyDistanceRows) distances).budget());
+        else if (distances != null)
+            distances = AllPairsShortestPaths.compute(this);
+        return v;
+    }
+
+    /**
+     * Removes a Vertex from the graph and clears the per-vertex slot it frees. If the
+     * distances have already been calculated, the rows of the vertices whose shortest paths ran
+     * on through the Vertex are recalculated, one single-source search each, and the table then
+     * drops the Vertex in O(n^2) time; a row cache starts over, and other tables are recalculated.
+     * 
+     * The value of the Vertex leaves its owner's score. If it held a token, or its edges
+     * carried shortest paths between other vertices, the remaining tokens are placed again in
+     * their order, so that every owner follows the new distances.
+     * 
+     * @param vertex the Vertex to remove.
+     * @return true if the Vertex was removed, false otherwise.
+     * @throws IllegalStateException if pushed tokens have not been popped.
+     */
+    @Override
+    public boolean remove(Vertex vertex) {
+        int index = vertex.getIndex();
+        if (index < 0 || index >= size() || getVertex(index) != vertex)
+            return false;
+        GameState state = state();
+        if (state.pushedCount() > 0)
+            throw new IllegalStateException("Pop the " + state.pushedCount() + " pushed tokens before removing a Vertex");
+        // A token on the vertex leaves the placement order before the indices move
+        boolean replay = state.dropVertex(index);
+        unshareDistances();
+        if (distances instanceof MutableDistanceTable) {
+            MutableDistanceTable table = (MutableDistanceTable) distances;
+            // The edges go first, so that the table follows the graph until the Vertex is isolated
+            Edge[] incident = vertex.incidentEdges().toArray(new Edge[0]);
+            int[] neighbours = new int[incident.length];
+            double[] weights = new double[incident.length];
+            for (int k = 0; k < incident.length; k++) {
+                neighbours[k] = incident[k].other(vertex).getIndex();
+                weights[k] = incident[k].distance();
+                super.remove(incident[k]);
+            }
+            replay |= IncrementalDistances.vertexIsolated(table, this, index, neighbours, weights);
+            super.remove(vertex);
+            distances = table.withVertexRemoved(index);
+        }
+        else {
+            // Without the table to tell, any edge may have carried a shortest path
+            replay |= vertex.degree() > 0;
+            super.remove(vertex);
+            if (distances instanceof LazyDistanceRows)
+                distances = new LazyDistanceRows(this, ((LazyDistanceRows) distances).budget());
+            else if (distances != null)
+                distances = AllPairsShortestPaths.compute(this);
+        }
+        int freed = size();
+        values[freed] = 0;
+        state.clearVertex(freed);
+        if (replay)
+            state().replay();
+        return true;
+    }
+
+    /**
+     * Adds an edge between two Vertices. If the distances have already been calculated
+     * they are updated in place, in O(n^2) time, rather than recalculated; a table that a
+     * Board handed out still holds is copied first.
+     * 
+     * Tokens already on the board keep their owners; call reset() before the next game.
+     * 
+     * @param u        the first Vertex.
+     * @param v        the second Vertex.
+     * @param distance the length of the edge.
+     * @return the newly added edge.
+     */
+    @Override
+    public Edge addEdge(Vertex u, Vertex v, double distance) {
+        unshareDistances();
+        Edge e = super.addEdge(u, v, distance);
+        if (distances instanceof MutableDistanceTable)
+            IncrementalDistances.edgeAdded((MutableDistanceTable) distances, u.getIndex(), v.getIndex(), distance);
+        else if (distances != null)
+            refreshDistances();
+        return e;
+    }
+
+    /**
+     * Removes an edge from the graph. If the distances have already been calculated,
+     * only the rows of the Vertices whose shortest paths used the edge are recalculated; a
+     * table that a Board handed out still holds is copied first.
+     * 
+     * Tokens already on the board keep their owners; call reset() before the next game.
+     * 
+     * @param edge the edge to remove.
+     * @return true if the edge was removed, false otherwise.
+     */
+    @Override
+    public boolean remove(Edge edge) {
+        unshareDistances();
+        if (!super.remove(edge))
+            return false;
+        int a = edge.first().getIndex();
+        int b = edge.second().getIndex();
+        if (distances instanceof MutableDistanceTable)
+            IncrementalDistances.edgeRemoved((MutableDistanceTable) distances, this, a, b, edge.distance());
+        else if (distances != null)
+            refreshDistances();
+        return true;
+    }
+
+    /**
+     * Brings a distance table that cannot be edited in place up to date: cached rows
+     * are dropped, and a table mapped from disk is replaced by one in memory so that
+     * later edits are incremental.
+     */
+    private void refreshDistances() {
+        if (distances instanceof LazyDistanceRows)
+            ((LazyDistanceRows) distances).clear();
+        else
+            distances = AllPairsShortestPaths.compute(this);
+    }
+
+    /**
+     * Replaces the distance table with a copy, or with an empty row cache, if a Board handed
+     * out by board() or gameState() holds it, so that the edit about to be made leaves that
+     * Board as it was.
+     */
+    private void unshareDistances() {
+        if (distances == null || distances != sharedDistances)
+            return;
+        if (distances instanceof MutableDistanceTable)
+            distances = ((MutableDistanceTable) distances).copy();
+        else if (distances instanceof LazyDistanceRows)
+            distances = new LazyDistanceRows(this, ((LazyDistanceRows) distances).budget());
+        sharedDistances = null;
+    }
+
+    /**
+     * Moves the per-vertex state of the Vertex at index from to index to.
+     * 
+     * @param from the old index of the moved Vertex.
+     * @param to   the new index of the moved Vertex.
+     */
+    @Override
+    protected void moveVertexData(int from, int to) {
+        values[to] = values[from];
+        if (game != null)
+            game.moveVertex(from, to);
+    }
+
+    /**
+     * Returns the immutable Board of the graph as it is now: its adjacency, values and distance
+     * table. Games and search threads can play on it with their own GameState while this graph
+     * is edited; the graph then hands out a new Board, and copies a distance table before
+     * editing it in place if a Board still holds it.
+     * 
+     * @return the current Board.
+     */
+    public synchronized Board board() {
+        Board b = currentBoard();
+        sharedDistances = b.distances();
+        return b;
+    }
+
+    /**
+     * Returns the game played on this graph, on the current board. The tokens placed through
+     * setToken and pushToken are those of this game; copy() it to play on from here in another
+     * thread.
+     * 
+     * @return the game played on this graph.
+     */
+    public synchronized GameState gameState() {
+        GameState state = state();
+        sharedDistances = state.board().distances();
+        return state;
+    }
+
+    /**
+     * Returns a copy of the game played on this graph, taken under the same lock as setToken,
+     * pushToken, popToken and reset, so that it never holds a token half placed. Search threads
+     * that keep running after their move is due play on such a copy.
+     * 
+     * @return a copy of the game played on this graph, on the current board.
+     */
+    public synchronized GameState copyGameState() {
+        return gameState().copy();
+    }
+
+    /**
+     * Returns the Board of the current edges, values and distances, making a new one after
+     * an edit, without marking its distance table as shared.
+     * 
+     * @return the current Board.
+     */
+    Board currentBoard() {
+        CsrGraph csr = snapshot();
+        if (board == null || board.graph() != csr || board.distances() != distances)
+            board = new Board(csr, values, distances);
+        return board;
+    }
+
+    /**
+     * Returns the game played on this graph, moved onto the current Board if the graph has
+     * been edited since it last played.
+     * 
+     * @return the game played on this graph.
+     */
+    private GameState state() {
+        Board b = currentBoard();
+        if (game == null)
+            game = new GameState(b);
+        else if (game.board() != b)
+            game.rebase(b);
+        return game;
     }
 
     /**
@@ -74,44 +333,104 @@ public class VoronoiGraph extends Graph {
      * @return the value of the given Vertex v.
      */
     public int getValue(Vertex v) {
-        return values.get(v);
+        return values[v.getIndex()];
+    }
+
+    /**
+     * Sets the value of the given Vertex v. Scores already counted are not updated, so values
+     * should only change between games.
+     * 
+     * @param v     the Vertex to set the value of.
+     * @param value the new value of v.
+     */
+    public void setValue(Vertex v, int value) {
+        values[v.getIndex()] = value;
+        board = null;
     }
 
-    public Double getDistance(Vertex u, Vertex v) {
-        return distances.get(new VertexPair(u, v));
+    /**
+     * Returns the shortest distance between the given Vertices u and v.
+     * 
+     * @param u the first Vertex.
+     * @param v the second Vertex.
+     * @return the shortest distance between u and v.
+     */
+    public double getDistance(Vertex u, Vertex v) {
+        return distances.distance(u.getIndex(), v.getIndex());
+    }
+
+    /**
+     * Returns the shortest distance between the Vertices at indices u and v.
+     * 
+     * @param u the index of the first Vertex.
+     * @param v the index of the second Vertex.
+     * @return the shortest distance between u and v.
+     */
+    public double distance(int u, int v) {
+        return distances.distance(u, v);
     }
 
     /**
      * Adds a token to the Vertex v owned by the given player.
      * 
+     * The Vertices the token captures form a region around v: every shortest path from v to a
+     * captured Vertex stays inside it. Only that region and its border are visited, by a walk
+     * that checks each Vertex against the distance table when the table is in memory, and
+     * otherwise by a Dijkstra search from v (see GameState). Ties go to the earlier token.
+     * 
      * @param v      the Vertex chosen.
      * @param player the player placing the token.
+     * @throws IllegalStateException if pushed tokens have not been popped.
      */
-    public void setToken(Vertex v, int player) {
+    public synchronized void setToken(Vertex v, int player) {
+        GameState state = state();
+        if (state.pushedCount() > 0)
+            throw new IllegalStateException("Pop the " + state.pushedCount() + " pushed tokens before setting one");
         if (v == null) {
             System.out.println("Someone tried to put a token at a null entry.");
             return;
         }
-        if (tokens.get(v) != null) {
+        if (state.hasToken(v.getIndex())) {
             System.out.println(
                     "You can't put a token at " + v + ": there is already a token there. This forfeits your turn.");
             return;
         }
+        state.setToken(v.getIndex(), player);
+    }
 
-        tokens.put(v, player);
-        for (Vertex u : getVertices()) {
-            Integer uOwner = ownerP.get(u);
-            VertexPair uOwnerPair = new VertexPair(u, ownerV.get(u));
-            VertexPair uv = new VertexPair(u, v);
-            if ((uOwner == null && distances.get(uv) != Double.POSITIVE_INFINITY)
-                    || (uOwner != null && distances.get(uv) < distances.get(uOwnerPair))) {
-                ownerP.put(u, player);
-                ownerV.put(u, v);
-                playerValues.put(player, playerValues.getOrDefault(player, 0) + getValue(u));
-                if (uOwner != null)
-                    playerValues.put(uOwner, playerValues.get(uOwner) - getValue(u));
-            }
-        }
+    /**
+     * Adds a token to the Vertex v like setToken, and records every ownership change so that
+     * popToken() can take it back. Search players use pushToken and popToken to try moves on
+     * the board without copying it. The board must not be edited while pushed tokens remain.
+     * 
+     * @param v      the Vertex chosen.
+     * @param player the player placing the token.
+     * @throws IllegalArgumentException if v is null or already holds a token.
+     */
+    public synchronized void pushToken(Vertex v, int player) {
+        if (v == null)
+            throw new IllegalArgumentException("Cannot push a token at " + v);
+        state().pushToken(v.getIndex(), player);
+    }
+
+    /**
+     * Takes back the last token added with pushToken, restoring the owners and scores it
+     * changed.
+     * 
+     * @return the Vertex the token was taken from.
+     * @throws IllegalStateException if there is no pushed token.
+     */
+    public synchronized Vertex popToken() {
+        return getVertex(state().popToken());
+    }
+
+    /**
+     * Returns the number of tokens added with pushToken that have not been popped.
+     * 
+     * @return the number of pushed tokens.
+     */
+    public int pushedCount() {
+        return state().pushedCount();
     }
 
     /**
@@ -121,7 +440,91 @@ public class VoronoiGraph extends Graph {
      * @return whether there is already a token at the given Vertex v.
      */
     public boolean hasToken(Vertex v) {
-        return tokens.get(v) != null;
+        return state().hasToken(v.getIndex());
+    }
+
+    /**
+     * Returns the number of tokens on the board.
+     * 
+     * @return the number of tokens placed since the last reset.
+     */
+    public int tokenCount() {
+        return state().tokenCount();
+    }
+
+    /**
+     * Returns the Vertex holding the k-th token placed, counting from 0. Ties between
+     * equally near tokens go to the one placed first.
+     * 
+     * @param k the position of the token in placement order.
+     * @return the Vertex holding the k-th token.
+     */
+    public Vertex getToken(int k) {
+        return getVertex(state().token(k));
+    }
+
+    /**
+     * Returns the Zobrist hash of the tokens on the board, kept up to date by setToken,
+     * pushToken and popToken (see GameState.hash). It changes when the graph is edited.
+     * 
+     * @return the 64-bit hash of the position.
+     */
+    public long positionHash() {
+        return state().hash();
+    }
+
+    /**
+     * Returns the player who placed the token at the given Vertex v.
+     * 
+     * @param v the Vertex to check.
+     * @return the player of the token at v, or -1 if v holds no token.
+     */
+    public int getTokenPlayer(Vertex v) {
+        return state().tokenPlayer(v.getIndex());
+    }
+
+    /**
+     * Returns the Voronoi partition of the tokens on the board, computed from scratch with a
+     * table scan or a multi-source search, whichever suits the board (see VoronoiPartition).
+     * 
+     * @return the partition of the current tokens.
+     */
+    public VoronoiPartition partition() {
+        GameState state = state();
+        int count = state.tokenCount();
+        int[] placed = new int[count];
+        int[] players = new int[count];
+        for (int k = 0; k < count; k++) {
+            placed[k] = state.token(k);
+            players[k] = state.tokenPlayer(placed[k]);
+        }
+        VoronoiPartition p = new VoronoiPartition(state.board());
+        p.computeBest(placed, players, count);
+        return p;
+    }
+
+    /**
+     * Returns the value each player would control with the given tokens on the board, without
+     * placing them: the kernel takes minima over the rows of a dense distance matrix, read in
+     * order and on vector lanes when jdk.incubator.vector is added, when that pays off, and runs a partition search otherwise (see ScoringKernel).
+     * 
+     * @param tokenIndices the Vertex indices of the tokens, in placement order.
+     * @param tokenPlayers the player of each token.
+     * @param count        the number of tokens to use.
+     * @return the total of each player, indexed up to the highest player among the tokens.
+     */
+    public int[] score(int[] tokenIndices, int[] tokenPlayers, int count) {
+        Board b = currentBoard();
+        if (kernel == null || kernel.board() != b)
+            kernel = new ScoringKernel(b);
+        kernel.score(tokenIndices, tokenPlayers, count);
+        int players = 0;
+        for (int k = 0; k < count; k++)
+            players = Math.max(players, tokenPlayers[k] + 1);
+        int[] totals = new int[players];
+        for (int p = 0; p < players; p++)
+            totals[p] = kernel.total(p);
+        return totals;
     }
 
     /**
@@ -131,7 +534,8 @@ public class VoronoiGraph extends Graph {
      * @return the closest token to the given Vertex v.
      */
     public Vertex getClosestToken(Vertex v) {
-        return ownerV.get(v);
+        int owner = state().ownerToken(v.getIndex());
+        return owner == -1 ? null : getVertex(owner);
     }
 
     /**
@@ -141,7 +545,8 @@ public class VoronoiGraph extends Graph {
      * @return the index of the player currently controlling the Vertex v.
      */
     public Integer getCurrentOwner(Vertex v) {
-        return ownerP.get(v);
+        int owner = state().ownerPlayer(v.getIndex());
+        return owner == -1 ? null : owner;
     }
 
     /**
@@ -176,46 +581,85 @@ public class VoronoiGraph extends Graph {
     }
 
     /**
-     * Calculates using the Floyd-Warshall Algorithm the distance between each pair
-     * of Vertices. Returns a HashMap mapping each VertexPair to the distance
-     * between them.
+     * Calculates the distance between each pair of Vertices, with one shortest path
+     * search per Vertex run in parallel on sparse boards and the Floyd-Warshall
+     * Algorithm on dense ones. Boards too large for a square matrix of doubles are
+     * stored as a triangle of floats, and boards too large for all pairs compute rows
+     * on demand (see AllPairsShortestPaths.compute). When the voronoi.distanceCache
+     * system property names a directory, known boards are mapped from disk instead
+     * (see DistanceCache). Returns a DistanceTable indexed by Vertex.getIndex().
      * 
-     * @return a HashMap mapping each VertexPair to the distance
-     *         between them.
+     * @return a DistanceTable holding the distance between each pair of Vertices.
+     * @throws UncheckedIOException if the distances are not cached and the cache
+     *                              directory cannot be written.
      */
-    public HashMap<VertexPair, Double> calculateDistances() {
-        HashMap<VertexPair, Double> out = new HashMap<>();
-        for (Vertex u : getVertices()) {
-            for (Vertex v : getVertices()) 
-                out.put(new VertexPair(u, v), Double.POSITIVE_INFINITY);
-            
-            out.put(new VertexPair(u, u), 0.0);
-
-            for (Edge e : u.incidentEdges())
-                out.put(new VertexPair(u, e.other(u)), e.distance());
+    public DistanceTable calculateDistances() {
+        DistanceCache cache = DistanceCache.fromSystemProperty();
+        if (cache != null && size() <= AllPairsShortestPaths.TRIANGULAR_LIMIT) {
+            try {
+                return cache.load(this);
+            }
+            catch (IOException ex) {
+                throw new UncheckedIOException("Unable to use the distance cache", ex);
+            }
         }
+        return AllPairsShortestPaths.compute(this);
+    }
+
+    /**
+     * Calculates the distances of the board with calculateDistances() and makes them its
+     * distance table. Generators and loaders call this once every edge is in place.
+     */
+    public void computeDistances() {
+        setDistances(calculateDistances());
+    }
+
+    /**
+     * Returns the distance table of the board.
+     * 
+     * @return the DistanceTable indexed by Vertex.getIndex(), or null if the distances have
+     *         not been calculated.
+     */
+    public DistanceTable distances() {
+        return distances;
+    }
 
-        for (Vertex k : getVertices())
-            for (Vertex u : getVertices())
-                for (Vertex v : getVertices()) {
-                    VertexPair uv = new VertexPair(u, v);
-                    VertexPair uk = new VertexPair(u, k);
-                    VertexPair kv = new VertexPair(k, v);
-                    if (out.get(uv) > out.get(uk) + out.get(kv))
-                        out.put(uv, out.get(uk) + out.get(kv));
-                }
+    /**
+     * Makes the given table the distance table of the board, such as a cache of rows computed
+     * on demand or distances read from disk, or drops the distances when it is null. The next
+     * Board handed out uses the table; Boards handed out before keep the one they hold.
+     * 
+     * @param table the DistanceTable indexed by Vertex.getIndex(), or null.
+     * @throws IllegalArgumentException if the table does not cover the Vertices of the graph.
+     */
+    public synchronized void setDistances(DistanceTable table) {
+        if (table != null && table.size() != size())
+            throw new IllegalArgumentException("A table of " + table.size() + " vertices does not fit a board of " + size());
+        distances = table;
+        board = null;
+    }
 
-        return out;
+    /**
+     * Returns the summed value of the Vertices the given player controls.
+     * 
+     * @param player the player.
+     * @return the player's score, 0 for a player without tokens.
+     */
+    public int getScore(int player) {
+        return state().score(player);
     }
 
     /**
-     * Returns a HashMap mapping each player with any controlled Vertex to the
-     * summed value of vertices they control.
+     * Returns a HashMap mapping each player, up to the highest-numbered player who has placed
+     * a token, to the summed value of vertices they control.
      * 
-     * @return a HashMap mapping each player with any controlled Vertex to the
-     *         summed value of vertices they control.
+     * @return a HashMap mapping each player to the summed value of vertices they control.
      */
     public HashMap<Integer, Integer> playerValues() {
+        HashMap<Integer, Integer> playerValues = new HashMap<>();
+        GameState state = state();
+        for (int p = 0; p < state.playerCount(); p++)
+            playerValues.put(p, state.score(p));
         return playerValues;
     }
 }
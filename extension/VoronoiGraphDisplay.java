@@ -12,7 +12,6 @@ import javax.imageio.ImageIO;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
 
-import java.util.HashMap;
 import java.util.Random;
 
 public class VoronoiGraphDisplay {
@@ -55,8 +54,9 @@ public class VoronoiGraphDisplay {
     protected VoronoiGraph graph;
     private LandscapePanel canvas;
     private int gridScale; // width (and height) of each square in the grid
-    HashMap<Vertex, Coord> coords;
+    Coord[] coords; // indexed by Vertex.getIndex()
     private static Color[] colors = new Color[] { Color.RED, Color.BLUE };
+    private static final Font valueFont = new Font("Dialog", Font.BOLD, 12); // font of the vertex values
 
     /**
      * Initializes a display window for a Landscape.
@@ -125,48 +125,45 @@ public class VoronoiGraphDisplay {
         // draw the graph
         // see http://yifanhu.net/PUB/graph_draw_small.pdf for more details
         Random rand = new Random();
-        HashMap<Vertex, HashMap<Vertex, Double>> distances = new HashMap<>();
-        for (Vertex v : graph.getVertices())
-            distances.put(v, graph.distanceFrom(v));
+        int n = graph.size();
 
-        coords = new HashMap<>();
-        for (Vertex v : graph.getVertices())
-            coords.put(v, new Coord(rand.nextInt(canvas.getWidth() / 2) - canvas.getWidth() / 2,
-                    rand.nextInt(canvas.getHeight() / 2) - canvas.getHeight() / 2));
+        coords = new Coord[n];
+        for (int v = 0; v < n; v++)
+            coords[v] = new Coord(rand.nextInt(canvas.getWidth() / 2) - canvas.getWidth() / 2,
+                    rand.nextInt(canvas.getHeight() / 2) - canvas.getHeight() / 2);
 
         double step = 1000;
         for (int i = 0; i < 100; i++) {
-            HashMap<Vertex, Coord> newCoords = new HashMap<>();
-            for (Vertex v : graph.getVertices()) {
+            Coord[] newCoords = new Coord[n];
+            for (int v = 0; v < n; v++) {
                 Coord f = new Coord(0, 0);
                 boolean pickRandom = false;
-                for (Vertex u : graph.getVertices()) {
+                for (int u = 0; u < n; u++) {
                     if (u == v)
                         continue;
-                    Coord xv = coords.get(v);
-                    Coord xu = coords.get(u);
+                    Coord xv = coords[v];
+                    Coord xu = coords[u];
+                    double d = graph.distance(u, v);
                     if ((Math.abs(xv.x - xu.x) > .1 / i) && (Math.abs(xv.y - xu.y) > .1 / i))
                         f.addBy(xu.diff(xv).scale((xu.diff(xv).norm()
-                                - (distances.get(u).get(v) == Double.POSITIVE_INFINITY ? 1000
-                                        : distances.get(u).get(v) * 100))
+                                - (d == Double.POSITIVE_INFINITY ? 1000 : d * 100))
                                 / (xu.diff(xv).norm())));
                     else
                         pickRandom = true;
                 }
                 if (!pickRandom)
-                    newCoords.put(v,
-                            f.x == 0 && f.y == 0 ? coords.get(v) : coords.get(v).sum(f.scale(step / f.norm())));
+                    newCoords[v] = f.x == 0 && f.y == 0 ? coords[v] : coords[v].sum(f.scale(step / f.norm()));
                 else
-                    newCoords.put(v, new Coord(rand.nextInt(canvas.getWidth() / 2) - canvas.getWidth() / 2,
-                            rand.nextInt(canvas.getHeight() / 2) - canvas.getHeight() / 2));
+                    newCoords[v] = new Coord(rand.nextInt(canvas.getWidth() / 2) - canvas.getWidth() / 2,
+                            rand.nextInt(canvas.getHeight() / 2) - canvas.getHeight() / 2);
 
             }
             step *= .9;
             Coord average = new Coord(0, 0);
-            for (Vertex v : graph.getVertices())
-                average.addBy(coords.get(v));
-            average = average.scale(1.0 / graph.size());
-            for (Coord c : newCoords.values()) {
+            for (int v = 0; v < n; v++)
+                average.addBy(coords[v]);
+            average = average.scale(1.0 / n);
+            for (Coord c : newCoords) {
                 c.x -= average.x;
                 c.x = Math.min(Math.max(c.x, -canvas.getWidth() / 2), canvas.getWidth() / 2);
                 c.y -= average.y;
@@ -178,24 +175,24 @@ public class VoronoiGraphDisplay {
             // Thread.sleep(50);
         }
         Coord average = new Coord(0, 0);
-        for (Vertex v : graph.getVertices())
-            average.addBy(coords.get(v));
-        average = average.scale(1.0 / graph.size());
+        for (int v = 0; v < n; v++)
+            average.addBy(coords[v]);
+        average = average.scale(1.0 / n);
         double maxNorm = 0;
-        for (Vertex v : graph.getVertices()) {
-            Coord newCoord = (new Coord(coords.get(v).x - average.x, coords.get(v).y - average.y));
-            coords.put(v, newCoord);
+        for (int v = 0; v < n; v++) {
+            Coord newCoord = (new Coord(coords[v].x - average.x, coords[v].y - average.y));
+            coords[v] = newCoord;
             maxNorm = Math.max(maxNorm, newCoord.norm());
         }
-        for (Vertex v : graph.getVertices())
-            coords.put(v, coords.get(v)
-                    .scale((Math.min(canvas.getWidth() / 2, canvas.getHeight() / 2) - gridScale / 2) / maxNorm));
+        for (int v = 0; v < n; v++)
+            coords[v] = coords[v]
+                    .scale((Math.min(canvas.getWidth() / 2, canvas.getHeight() / 2) - gridScale / 2) / maxNorm);
 
         int singletonCount = 0;
         for (Vertex v : graph.getVertices())
-            if (!v.adjacentVertices().iterator().hasNext())
-                coords.put(v, new Coord(-canvas.getWidth() / 2 + gridScale * ++singletonCount,
-                        -canvas.getHeight() / 2 + gridScale));
+            if (v.incidentEdges().isEmpty())
+                coords[v.getIndex()] = new Coord(-canvas.getWidth() / 2 + gridScale * ++singletonCount,
+                        -canvas.getHeight() / 2 + gridScale);
 
     }
 
@@ -229,10 +226,10 @@ public class VoronoiGraphDisplay {
             g.translate(canvas.getWidth() / 2, canvas.getHeight() / 2);
             for (Edge e : graph.getEdges()) {
                 g.setColor(Color.BLACK);
-                g.drawLine((int) coords.get(e.vertices()[0]).x + gridScale / 4,
-                        (int) coords.get(e.vertices()[0]).y + gridScale / 4,
-                        (int) coords.get(e.vertices()[1]).x + gridScale / 4,
-                        (int) coords.get(e.vertices()[1]).y + gridScale / 4);
+                Coord a = coords[e.first().getIndex()];
+                Coord b = coords[e.second().getIndex()];
+                g.drawLine((int) a.x + gridScale / 4, (int) a.y + gridScale / 4,
+                        (int) b.x + gridScale / 4, (int) b.y + gridScale / 4);
             }
             for (Vertex v : graph.getVertices()) {
                 if (graph.getCurrentOwner(v) == null)
@@ -241,13 +238,14 @@ public class VoronoiGraphDisplay {
                     g.setColor(colors[graph.getCurrentOwner(v)].darker().darker());
                 else
                     g.setColor(colors[graph.getCurrentOwner(v)].brighter());
-                g.fillOval((int) coords.get(v).x, (int) coords.get(v).y, gridScale / 2, gridScale / 2);
+                Coord c = coords[v.getIndex()];
+                g.fillOval((int) c.x, (int) c.y, gridScale / 2, gridScale / 2);
                 g.setColor(Color.YELLOW.darker());
-                g.setFont(new Font("Dialog", Font.BOLD, 12));
+                g.setFont(valueFont);
                 String text = "" + /** v + " | " + */
                         (int) graph.getValue(v);
-                g.drawChars(text.toCharArray(), 0, text.length(), (int) coords.get(v).x + gridScale / 8,
-                        (int) coords.get(v).y + gridScale / 3);
+                g.drawChars(text.toCharArray(), 0, text.length(), (int) c.x + gridScale / 8,
+                        (int) c.y + gridScale / 3);
             }
 
             String redText = "Red: " + graph.playerValues().getOrDefault(0, 0);
@@ -266,4 +264,4 @@ public class VoronoiGraphDisplay {
     public void repaint() {
         this.win.repaint();
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
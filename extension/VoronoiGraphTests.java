@@ -0,0 +1,1165 @@
+import java.util.HashMap;
+
+public class VoronoiGraphTests {
+
+    /**
+     * Writes the lab's graph1.txt, a 4-cycle in the legacy edge-list format, to a temporary file,
+     * so that the tests do not depend on the directory they are run from.
+     *
+     * @return the path of the temporary file
+     */
+    private static String legacyBoardFile() {
+        try {
+            java.nio.file.Path file = java.nio.file.Files.createTempFile( "graph1" , ".txt" );
+            file.toFile().deleteOnExit();
+            java.nio.file.Files.write( file , "n_vertices: 4\nstart_vertex,end_vertex\n0,1\n1,2\n2,3\n3,0\n".getBytes( "US-ASCII" ) );
+            return file.toString();
+        }
+        catch ( java.io.IOException e ) {
+            throw new java.io.UncheckedIOException( e );
+        }
+    }
+
+    public static double distanceTests() {
+
+        double testScore = 0. ;
+
+        //The 4x4 grid board has a distance entry for every pair
+        VoronoiGraph g1 = new VoronoiGraph();
+        if ( g1.distances().size() == 16 ) testScore += 0.5 ;
+
+        //Every vertex is at distance 0 from itself
+        boolean zeros = true;
+        for ( int i = 0 ; i < g1.size() ; i ++ )
+            if ( g1.distance( i , i ) != 0. ) zeros = false;
+        if ( zeros ) testScore += 0.5 ;
+
+        //Distances are symmetric and agree with Dijkstra
+        VoronoiGraph g2 = new VoronoiGraph( 60 , .8 );
+        boolean matches = true;
+        for ( Vertex u : g2.getVertices() ) {
+            HashMap<Vertex, Double> dist = g2.distanceFrom( u );
+            for ( Vertex v : g2.getVertices() ) {
+                double expected = dist.get( v ) == Double.MAX_VALUE ? Double.POSITIVE_INFINITY : dist.get( v );
+                if ( Math.abs( g2.getDistance( u , v ) - expected ) > 1e-9 ||
+                     g2.getDistance( u , v ) != g2.getDistance( v , u ) ) matches = false;
+            }
+        }
+        if ( matches ) testScore += 1. ;
+
+        //Per-source searches agree with Floyd-Warshall and stay exactly symmetric
+        Graph g3 = VoronoiBenchmark.sparseGraph( 300 , 4 , new java.util.Random( 5 ) );
+        DistanceMatrix rows = AllPairsShortestPaths.perSource( g3 );
+        DistanceMatrix fw = AllPairsShortestPaths.floydWarshall( g3 );
+        boolean agree = AllPairsShortestPaths.isSparse( g3 );
+        for ( int u = 0 ; u < g3.size() ; u ++ )
+            for ( int v = 0 ; v < g3.size() ; v ++ )
+                if ( Math.abs( rows.distance( u , v ) - fw.distance( u , v ) ) > 1e-9 ||
+                     rows.distance( u , v ) != rows.distance( v , u ) ) agree = false;
+        if ( agree ) testScore += 1. ;
+
+        //The float triangle rounds the dense distances and settles ties exactly
+        TriangularDistanceMatrix tri = new TriangularDistanceMatrix( g3 );
+        boolean close = true;
+        for ( int u = 0 ; u < g3.size() ; u ++ )
+            for ( int v = 0 ; v < g3.size() ; v ++ )
+                if ( tri.distance( u , v ) != (float) rows.distance( u , v ) ||
+                     tri.closer( u , v , ( v + 1 ) % g3.size() ) != rows.closer( u , v , ( v + 1 ) % g3.size() ) ) close = false;
+        if ( close ) testScore += 1. ;
+
+        return testScore;
+    }
+
+    public static double cacheTests() throws java.io.IOException {
+
+        double testScore = 0. ;
+
+        java.nio.file.Path dir = java.nio.file.Files.createTempDirectory( "voronoi-cache" );
+        DistanceCache cache = new DistanceCache( dir );
+        VoronoiGraph g1 = new VoronoiGraph( 50 , .8 );
+
+        //The first load writes the file, the second maps it
+        DistanceTable first = cache.load( g1 );
+        DistanceTable second = cache.load( g1 );
+        java.nio.file.Path file = dir.resolve( DistanceCache.fingerprint( g1 ) + ".dist" );
+        if ( java.nio.file.Files.exists( file ) && second instanceof MappedDistanceMatrix ) testScore += 0.5 ;
+
+        //The mapped distances are the computed ones
+        boolean same = first.size() == g1.size() && second.size() == g1.size();
+        for ( int u = 0 ; u < g1.size() ; u ++ )
+            for ( int v = 0 ; v < g1.size() ; v ++ )
+                if ( second.distance( u , v ) != g1.distance( Math.min( u , v ) , Math.max( u , v ) ) ) same = false;
+        if ( same ) testScore += 0.5 ;
+
+        //Changing the board changes the fingerprint
+        String before = DistanceCache.fingerprint( g1 );
+        Edge added = g1.addEdge( g1.getVertex( 0 ) , g1.getVertex( 1 ) , 1.5 );
+        if ( !before.equals( DistanceCache.fingerprint( g1 ) ) ) testScore += 0.5 ;
+
+        //A corrupt file is replaced; the graph's own table was updated in place, so it may differ in the last bit
+        java.nio.file.Files.write( file , new byte[] { 1 , 2 , 3 } );
+        g1.remove( added );
+        double reloaded = cache.load( g1 ).distance( 0 , 1 );
+        if ( cache.load( g1 ) instanceof MappedDistanceMatrix &&
+             ( reloaded == g1.distance( 0 , 1 ) || Math.abs( reloaded - g1.distance( 0 , 1 ) ) <= 1e-9 ) ) testScore += 0.5 ;
+
+        java.nio.file.Files.delete( file );
+        java.nio.file.Files.delete( dir );
+
+        //A cache that cannot be written says so instead of falling back quietly
+        java.nio.file.Path blocked = java.nio.file.Files.createTempFile( "voronoi-cache" , ".file" );
+        try {
+            new DistanceCache( blocked ).load( g1 );
+        }
+        catch ( java.io.IOException ex ) {
+            testScore += 0.5 ;
+        }
+        java.nio.file.Files.delete( blocked );
+
+        return testScore;
+    }
+
+    public static double incrementalTests() {
+
+        double testScore = 0. ;
+
+        java.util.Random rand = new java.util.Random( 11 );
+        VoronoiGraph g1 = new VoronoiGraph( 150 , .97 );
+
+        //Random edge insertions and deletions keep the table equal to a fresh computation
+        boolean added = true;
+        boolean removed = true;
+        for ( int step = 0 ; step < 30 ; step ++ ) {
+            Vertex u = g1.getVertex( rand.nextInt( g1.size() ) );
+            Vertex v = g1.getVertex( rand.nextInt( g1.size() ) );
+            g1.addEdge( u , v , rand.nextDouble( 0.5 , 2 ) );
+            if ( !matches( g1 ) ) added = false;
+            Edge e = g1.getEdges().get( rand.nextInt( g1.getEdges().size() ) );
+            g1.remove( e );
+            if ( !matches( g1 ) ) removed = false;
+        }
+        if ( added ) testScore += 1. ;
+        if ( removed ) testScore += 1. ;
+
+        //Adding and removing vertices keeps both kinds of matrix equal to a fresh computation
+        VoronoiGraph g2 = new VoronoiGraph( 120 , .95 , 21 );
+        VoronoiGraph g3 = new VoronoiGraph( 120 , .95 , 21 );
+        g3.setDistances( new TriangularDistanceMatrix( g3 ) );
+        boolean resized = true;
+        for ( int step = 0 ; step < 20 ; step ++ ) {
+            for ( VoronoiGraph g : new VoronoiGraph[] { g2 , g3 } ) {
+                Vertex fresh = g.addVertex();
+                if ( step % 3 != 0 ) g.addEdge( fresh , g.getVertex( ( 7 * step ) % g.size() ) , 1.5 );
+                if ( step % 2 == 0 ) g.addEdge( fresh , g.getVertex( ( 11 * step + 3 ) % g.size() ) , 1.25 );
+                g.remove( g.getVertex( ( 13 * step + 5 ) % g.size() ) );
+            }
+            if ( !matches( g2 ) ) resized = false;
+            DistanceMatrix exact = AllPairsShortestPaths.perSource( g3 );
+            for ( int u = 0 ; u < g3.size() ; u ++ )
+                for ( int v = 0 ; v < g3.size() ; v ++ )
+                    if ( Math.abs( g3.distance( u , v ) - exact.distance( u , v ) ) > 1e-5 * Math.max( 1. , exact.distance( u , v ) ) &&
+                         g3.distance( u , v ) != exact.distance( u , v ) ) resized = false;
+        }
+        if ( resized && g2.distances() instanceof DistanceMatrix && g3.distances() instanceof TriangularDistanceMatrix &&
+             g2.size() == 120 ) testScore += 1. ;
+
+        return testScore;
+    }
+
+    /**
+     * Returns whether g's distance table agrees with a fresh computation and is symmetric.
+     */
+    private static boolean matches( VoronoiGraph g ) {
+        DistanceMatrix fresh = AllPairsShortestPaths.perSource( g );
+        for ( int u = 0 ; u < g.size() ; u ++ )
+            for ( int v = 0 ; v < g.size() ; v ++ )
+                if ( Math.abs( g.distance( u , v ) - fresh.distance( u , v ) ) > 1e-9 ||
+                     g.distance( u , v ) != g.distance( v , u ) ) return false;
+        return true;
+    }
+
+    public static double lazyRowTests() {
+
+        double testScore = 0. ;
+
+        Graph g1 = VoronoiBenchmark.sparseGraph( 400 , 6 , new java.util.Random( 7 ) );
+        DistanceMatrix exact = AllPairsShortestPaths.perSource( g1 );
+
+        //A budget of three rows
+        LazyDistanceRows lazy = new LazyDistanceRows( g1 , 3 * 8 * g1.size() );
+        boolean same = true;
+        for ( int v = 0 ; v < g1.size() ; v ++ )
+            if ( Math.abs( lazy.distance( 5 , v ) - exact.distance( 5 , v ) ) > 1e-9 ) same = false;
+        if ( same && lazy.misses() == 1 && lazy.hits() == g1.size() - 1 ) testScore += 0.5 ;
+
+        //Lookups from the other end reuse the cached row
+        lazy.distance( 17 , 5 );
+        if ( lazy.misses() == 1 && lazy.cachedRows() == 1 ) testScore += 0.5 ;
+
+        //The least recently used row is evicted once the budget is full
+        lazy.row( 1 );
+        lazy.row( 2 );
+        lazy.row( 5 );
+        lazy.row( 3 );
+        if ( lazy.evictions() == 1 && lazy.cachedRows() == 3 && lazy.misses() == 4 ) testScore += 0.5 ;
+
+        //closer() compares through the candidates' rows
+        if ( lazy.closer( 9 , 5 , 3 ) == ( exact.distance( 9 , 5 ) < exact.distance( 9 , 3 ) ) ) testScore += 0.5 ;
+
+        return testScore;
+    }
+
+    public static double engineTests() {
+
+        double testScore = 0. ;
+
+        //Both engines agree on a board with weights in [1, 2)
+        VoronoiGraph g1 = new VoronoiGraph( 120 , .95 );
+        double[] heapRow = new double[ g1.size() ];
+        double[] bucketRow = new double[ g1.size() ];
+        ShortestPathEngine engine = g1.shortestPathEngine();
+        if ( engine instanceof BucketShortestPaths ) testScore += 0.5 ;
+        boolean same = true;
+        for ( int s = 0 ; s < g1.size() ; s ++ ) {
+            new Dijkstra( g1 ).distancesFrom( s , heapRow );
+            engine.distancesFrom( s , bucketRow );
+            for ( int v = 0 ; v < g1.size() ; v ++ )
+                if ( Math.abs( heapRow[ v ] - bucketRow[ v ] ) > 1e-12 || Math.abs( heapRow[ v ] - g1.distance( s , v ) ) > 1e-9 ) same = false;
+        }
+        if ( same ) testScore += 0.5 ;
+
+        //Unit weights and unreachable vertices
+        Graph g2 = new Graph( legacyBoardFile() );
+        g2.addVertex();
+        double[] row = g2.distanceRow( g2.getVertex( 0 ) );
+        if ( row[ 1 ] == 1. && row[ 2 ] == 2. && row[ 3 ] == 1. && row[ 4 ] == Double.POSITIVE_INFINITY ) testScore += 0.5 ;
+
+        //A wide weight range falls back to the heap
+        g2.addEdge( g2.getVertex( 3 ) , g2.getVertex( 4 ) , 1000. );
+        if ( g2.shortestPathEngine() instanceof Dijkstra && g2.distanceRow( g2.getVertex( 0 ) )[ 4 ] == 1001. ) testScore += 0.5 ;
+
+        return testScore;
+    }
+
+    public static double indexTests() {
+
+        double testScore = 0. ;
+
+        //addVertex hands out dense indices
+        Graph g1 = new Graph( 5 );
+        boolean dense = true;
+        for ( int i = 0 ; i < g1.size() ; i ++ )
+            if ( g1.getVertex( i ).getIndex() != i ) dense = false;
+        if ( dense ) testScore += 0.5 ;
+
+        //Removing a vertex moves the last vertex into its slot
+        Vertex v1 = g1.getVertex( 1 );
+        Vertex v4 = g1.getVertex( 4 );
+        g1.remove( v1 );
+        if ( v1.getIndex() == -1 && v4.getIndex() == 1 && g1.getVertex( 1 ) == v4 && g1.size() == 4 ) testScore += 0.5 ;
+
+        //Removing a vertex twice fails
+        if ( !g1.remove( v1 ) ) testScore += 0.5 ;
+
+        //Values move with their vertex (density 1 gives a board without edges)
+        VoronoiGraph g2 = new VoronoiGraph( 5 , 1. );
+        Vertex last = g2.getVertex( g2.size() - 1 );
+        int value = g2.getValue( last );
+        g2.remove( g2.getVertex( 0 ) );
+        if ( last.getIndex() == 0 && g2.getValue( last ) == value ) testScore += 0.5 ;
+
+        return testScore;
+    }
+
+    public static double mutationTests() {
+
+        double testScore = 0. ;
+
+        //Random edits keep the edge list and every incident list consistent
+        java.util.Random rand = new java.util.Random( 17 );
+        Graph g1 = VoronoiBenchmark.sparseGraph( 200 , 6 , rand );
+        g1.addEdge( g1.getVertex( 7 ) , g1.getVertex( 7 ) , 1. );
+        for ( int step = 0 ; step < 300 ; step ++ ) {
+            int pick = rand.nextInt( 3 );
+            if ( pick == 0 && g1.getEdges().size() > 0 )
+                g1.remove( g1.getEdges().get( rand.nextInt( g1.getEdges().size() ) ) );
+            else if ( pick == 1 && g1.size() > 20 )
+                g1.remove( g1.getVertex( rand.nextInt( g1.size() ) ) );
+            else
+                g1.addEdge( g1.getVertex( rand.nextInt( g1.size() ) ) , g1.getVertex( rand.nextInt( g1.size() ) ) , 1. );
+        }
+        boolean consistent = true;
+        int ends = 0;
+        for ( Edge e : g1.getEdges() )
+            for ( Vertex v : e.vertices() )
+                if ( v.getIndex() < 0 || g1.getVertex( v.getIndex() ) != v || !v.incidentEdges().contains( e ) ) consistent = false;
+        for ( Vertex v : g1.getVertices() ) {
+            ends += v.incidentEdges().size();
+            for ( Edge e : v.incidentEdges() )
+                if ( !g1.getEdges().contains( e ) ) consistent = false;
+        }
+        if ( consistent && ends == 2 * g1.getEdges().size() ) testScore += 1. ;
+
+        //getEdge finds exactly the pairs joined by an edge
+        boolean found = true;
+        for ( int i = 0 ; i < 50 ; i ++ )
+            for ( int j = 0 ; j < 50 ; j ++ ) {
+                Vertex u = g1.getVertex( i );
+                Vertex v = g1.getVertex( j );
+                Edge e = g1.getEdge( u , v );
+                boolean joined = false;
+                for ( Edge f : g1.getEdges() )
+                    if ( f.other( u ) == v ) joined = true;
+                if ( joined != ( e != null ) || ( e != null && e.other( u ) != v ) ) found = false;
+            }
+        if ( found ) testScore += 1. ;
+
+        return testScore;
+    }
+
+    public static double generatorTests() {
+
+        double testScore = 0. ;
+
+        //The same seed gives the same board
+        VoronoiGraph g1 = new VoronoiGraph( 300 , .9 , 42 );
+        VoronoiGraph g2 = new VoronoiGraph( 300 , .9 , 42 );
+        boolean same = g1.getEdges().size() == g2.getEdges().size();
+        for ( int k = 0 ; same && k < g1.getEdges().size() ; k ++ ) {
+            Edge a = g1.getEdges().get( k );
+            Edge b = g2.getEdges().get( k );
+            if ( a.first().getIndex() != b.first().getIndex() || a.second().getIndex() != b.second().getIndex() ||
+                 a.distance() != b.distance() ) same = false;
+        }
+        for ( int i = 0 ; i < g1.size() ; i ++ )
+            if ( g1.getValue( g1.getVertex( i ) ) != g2.getValue( g2.getVertex( i ) ) ) same = false;
+        if ( same ) testScore += 0.5 ;
+
+        //Pairs are distinct, ordered and within range
+        int n = 3000;
+        int[] pairs = GnpGenerator.pairs( n , 0.01 , new java.util.SplittableRandom( 7 ) );
+        java.util.HashSet<Long> seen = new java.util.HashSet<>();
+        boolean valid = true;
+        for ( int k = 0 ; k < pairs.length ; k += 2 )
+            if ( pairs[ k ] >= n || pairs[ k + 1 ] < 0 || pairs[ k + 1 ] >= pairs[ k ] ||
+                 !seen.add( (long) pairs[ k ] * n + pairs[ k + 1 ] ) ) valid = false;
+        if ( valid ) testScore += 0.5 ;
+
+        //The number of edges is close to p n (n - 1) / 2 (about 44990, standard deviation 211)
+        double expected = 0.01 * n * ( n - 1 ) / 2;
+        if ( Math.abs( pairs.length / 2 - expected ) < 5 * Math.sqrt( expected ) ) testScore += 0.5 ;
+
+        //p = 1 gives the complete graph and p = 0 none
+        if ( new Graph( 40 , 1. , 1 ).getEdges().size() == 40 * 39 / 2 && new Graph( 40 , 0. , 1 ).getEdges().size() == 0 ) testScore += 0.5 ;
+
+        return testScore;
+    }
+
+    public static double loaderTests() throws java.io.IOException {
+
+        double testScore = 0. ;
+
+        //The lab's own edge list loads with unit weights
+        java.nio.file.Path file = java.nio.file.Paths.get( legacyBoardFile() );
+        VoronoiGraph g1 = EdgeListLoader.load( file );
+        Graph legacy = new Graph( file.toString() );
+        if ( g1.size() == legacy.size() && g1.getEdges().size() == legacy.getEdges().size() &&
+             g1.getEdges().get( 0 ).distance() == 1. ) testScore += 0.5 ;
+
+        //Weights, values, comments, spaces and Windows line breaks are understood
+        String text = "# a small board\r\nn_vertices: 4\r\nstart_vertex,end_vertex,weight\r\n" +
+                      "0,1,1.25\r\n1 2 2.5e-1\r\n\r\n# no weight\r\n2\t3\r\n" +
+                      "vertex,value\r\n0,7\r\n3 , 99\r\n";
+        java.nio.file.Files.write( file , text.getBytes( "US-ASCII" ) );
+        VoronoiGraph g2 = EdgeListLoader.load( file );
+        if ( g2.getEdges().size() == 3 && g2.getEdges().get( 0 ).distance() == 1.25 &&
+             g2.getEdges().get( 1 ).distance() == 0.25 && g2.getEdges().get( 2 ).distance() == 1. &&
+             g2.getValue( g2.getVertex( 0 ) ) == 7 && g2.getValue( g2.getVertex( 3 ) ) == 99 &&
+             g2.getValue( g2.getVertex( 1 ) ) == 0 && g2.distance( 0 , 3 ) == 2.5 ) testScore += 1. ;
+
+        //Vertices out of range and lines that are neither edges nor the values header are reported with their line
+        java.nio.file.Files.write( file , "n_vertices: 2\n0,5\n".getBytes( "US-ASCII" ) );
+        try {
+            EdgeListLoader.load( file );
+        }
+        catch ( java.io.IOException ex ) {
+            if ( ex.getMessage().startsWith( "line 2" ) ) testScore += 0.25 ;
+        }
+        java.nio.file.Files.write( file , "n_vertices: 2\n0,1\nx,1\nvertex,value\n0,3\n".getBytes( "US-ASCII" ) );
+        try {
+            EdgeListLoader.load( file );
+        }
+        catch ( java.io.IOException ex ) {
+            if ( ex.getMessage().startsWith( "line 3" ) ) testScore += 0.25 ;
+        }
+        //A board without edges may list its values right after the vertex count
+        java.nio.file.Files.write( file , "n_vertices: 3\nvertex,value\n2,5\n".getBytes( "US-ASCII" ) );
+        VoronoiGraph g3 = EdgeListLoader.load( file );
+        if ( g3.size() == 3 && g3.getEdges().isEmpty() && g3.getValue( g3.getVertex( 2 ) ) == 5 ) testScore += 0.5 ;
+        java.nio.file.Files.delete( file );
+
+        return testScore;
+    }
+
+    public static double snapshotTests() throws java.io.IOException {
+
+        double testScore = 0. ;
+
+        java.nio.file.Path file = java.nio.file.Files.createTempFile( "board" , ".vbrd" );
+        VoronoiGraph g1 = new VoronoiGraph( 200 , .97 , 8 );
+        g1.addEdge( g1.getVertex( 5 ) , g1.getVertex( 5 ) , 1.5 );
+
+        //A round trip keeps the edges, weights and values, and the stored distances exactly
+        BoardSnapshot.write( g1 , file , true );
+        VoronoiGraph g2 = BoardSnapshot.read( file );
+        boolean same = g2.size() == g1.size() && g2.getEdges().size() == g1.getEdges().size();
+        for ( int v = 0 ; same && v < g1.size() ; v ++ ) {
+            Vertex a = g1.getVertex( v );
+            Vertex b = g2.getVertex( v );
+            double wa = 0. ;
+            double wb = 0. ;
+            for ( int i = 0 ; i < a.degree() ; i ++ ) wa += a.weight( i ) * ( a.neighbour( i ).getIndex() + 1 );
+            for ( int i = 0 ; i < b.degree() ; i ++ ) wb += b.weight( i ) * ( b.neighbour( i ).getIndex() + 1 );
+            if ( a.degree() != b.degree() || Math.abs( wa - wb ) > 1e-9 || g1.getValue( a ) != g2.getValue( b ) ) same = false;
+            for ( int u = 0 ; u < g1.size() ; u ++ )
+                if ( g1.distance( v , u ) != g2.distance( v , u ) ) same = false;
+        }
+        if ( same ) testScore += 1. ;
+
+        //Without distances the file is smaller and the distances are recalculated
+        long withDistances = java.nio.file.Files.size( file );
+        BoardSnapshot.write( g1 , file , false );
+        VoronoiGraph g3 = BoardSnapshot.read( file );
+        if ( java.nio.file.Files.size( file ) < withDistances && Math.abs( g3.distance( 0 , 199 ) - g1.distance( 0 , 199 ) ) < 1e-9 ) testScore += 0.5 ;
+
+        //Truncated files are rejected
+        byte[] bytes = java.nio.file.Files.readAllBytes( file );
+        java.nio.file.Files.write( file , java.util.Arrays.copyOf( bytes , bytes.length - 8 ) );
+        try {
+            BoardSnapshot.read( file );
+        }
+        catch ( java.io.IOException ex ) {
+            testScore += 0.5 ;
+        }
+        java.nio.file.Files.delete( file );
+
+        return testScore;
+    }
+
+    public static double dimacsTests() throws java.io.IOException {
+
+        double testScore = 0. ;
+
+        //Arcs in both directions merge into one edge with the smaller weight; self-loops are dropped
+        java.nio.file.Path gr = java.nio.file.Files.createTempFile( "road" , ".gr" );
+        java.nio.file.Path co = java.nio.file.Files.createTempFile( "road" , ".co" );
+        java.nio.file.Files.write( gr , ( "c a small road network\np sp 5 8\n" +
+                "a 1 2 10\na 2 1 12\na 2 3 5\na 3 2 5\na 3 3 1\na 3 4 7\na 4 5 2\na 5 4 2\n" ).getBytes( "US-ASCII" ) );
+        java.nio.file.Files.write( co , ( "c coordinates\np aux sp co 5\n" +
+                "v 1 0 0\nv 2 1 1\nv 3 2 2\nv 4 -1000000 -1000000\nv 5 -1000000 -999999\n" ).getBytes( "US-ASCII" ) );
+        VoronoiGraph g1 = DimacsImporter.load( gr , BoardGenerators.constant( 5 ) , 1 );
+        if ( g1.size() == 5 && g1.getEdges().size() == 4 && g1.getEdge( g1.getVertex( 0 ) , g1.getVertex( 1 ) ).distance() == 10. &&
+             g1.distance( 0 , 4 ) == 24. && g1.distances() instanceof LazyDistanceRows &&
+             g1.getValue( g1.getVertex( 2 ) ) == 5 ) testScore += 0.5 ;
+
+        //Density values favour the crowded corner
+        VoronoiGraph g2 = DimacsImporter.loadByDensity( gr , co , 90 );
+        if ( g2.getValue( g2.getVertex( 0 ) ) == 90 && g2.getValue( g2.getVertex( 3 ) ) == 60 ) testScore += 0.5 ;
+
+        //Tokens on a lazily computed board claim the vertices a full table would give them
+        java.nio.file.Path big = java.nio.file.Files.createTempFile( "grid" , ".gr" );
+        StringBuilder text = new StringBuilder( "p sp 900 3480\n" );
+        java.util.Random rand = new java.util.Random( 2 );
+        for ( int r = 0 ; r < 30 ; r ++ )
+            for ( int c = 0 ; c < 30 ; c ++ ) {
+                int v = r * 30 + c + 1;
+                if ( c < 29 ) text.append( "a " + v + " " + ( v + 1 ) + " " + ( 1 + rand.nextInt( 9 ) ) + "\na " + ( v + 1 ) + " " + v + " 10\n" );
+                if ( r < 29 ) text.append( "a " + v + " " + ( v + 30 ) + " " + ( 1 + rand.nextInt( 9 ) ) + "\na " + ( v + 30 ) + " " + v + " 10\n" );
+            }
+        java.nio.file.Files.write( big , text.toString().getBytes( "US-ASCII" ) );
+        VoronoiGraph g3 = DimacsImporter.load( big , BoardGenerators.GAME_VALUES , 3 );
+        DistanceMatrix full = AllPairsShortestPaths.perSource( g3 );
+        int[] picks = { 0 , 899 , 450 , 29 , 870 , 200 };
+        for ( int k = 0 ; k < picks.length ; k ++ ) g3.setToken( g3.getVertex( picks[ k ] ) , k % 2 );
+        boolean owners = true;
+        for ( int u = 0 ; u < g3.size() ; u ++ ) {
+            int best = -1;
+            for ( int k = 0 ; k < picks.length ; k ++ )
+                if ( best == -1 || full.distance( picks[ k ] , u ) < full.distance( picks[ best ] , u ) ) best = k;
+            if ( g3.getClosestToken( g3.getVertex( u ) ) != g3.getVertex( picks[ best ] ) ) owners = false;
+        }
+        if ( owners && ( (LazyDistanceRows) g3.distances() ).cachedRows() <= picks.length ) testScore += 1. ;
+
+        //Files with fewer arcs than the problem line declares, or coordinates missing a node, are refused
+        int refused = 0;
+        java.nio.file.Files.write( gr , "p sp 3 3\na 1 2 1\na 2 3 1\n".getBytes( "US-ASCII" ) );
+        try {
+            DimacsImporter.load( gr , BoardGenerators.constant( 5 ) , 1 );
+        }
+        catch ( java.io.IOException ex ) {
+            if ( ex.getMessage().contains( "3 arcs" ) ) refused ++ ;
+        }
+        java.nio.file.Files.write( gr , "p sp 3 2\na 1 2 1\na 2 3 1\n".getBytes( "US-ASCII" ) );
+        java.nio.file.Files.write( co , "v 1 0 0\nv 3 1 1\n".getBytes( "US-ASCII" ) );
+        try {
+            DimacsImporter.loadByDensity( gr , co , 10 );
+        }
+        catch ( java.io.IOException ex ) {
+            if ( ex.getMessage().contains( "node 2" ) ) refused ++ ;
+        }
+        if ( refused == 2 ) testScore += 1. ;
+
+        java.nio.file.Files.delete( gr );
+        java.nio.file.Files.delete( co );
+        java.nio.file.Files.delete( big );
+
+        return testScore;
+    }
+
+    public static double boardTests() {
+
+        double testScore = 0. ;
+
+        //Grids have rows (cols - 1) + cols (rows - 1) edges and tori 2 rows cols
+        VoronoiGraph grid = BoardGenerators.grid( 5 , 7 , false , BoardGenerators.GAME_VALUES , 1 );
+        VoronoiGraph torus = BoardGenerators.grid( 5 , 7 , true , BoardGenerators.constant( 3 ) , 1 );
+        boolean valued = true;
+        for ( Vertex v : torus.getVertices() )
+            if ( torus.getValue( v ) != 3 || v.degree() != 4 ) valued = false;
+        if ( grid.getEdges().size() == 5 * 6 + 7 * 4 && torus.getEdges().size() == 70 && valued &&
+             grid.distance( 0 , 34 ) < Double.POSITIVE_INFINITY ) testScore += 0.5 ;
+
+        //Geometric edges are no longer than twice the shortest, and the same seed repeats the board
+        VoronoiGraph rgg = BoardGenerators.randomGeometric( 400 , 0.1 , BoardGenerators.powerLaw( 2.5 , 1000 ) , 9 );
+        VoronoiGraph again = BoardGenerators.randomGeometric( 400 , 0.1 , BoardGenerators.powerLaw( 2.5 , 1000 ) , 9 );
+        boolean bounded = rgg.getEdges().size() > 0 && rgg.getEdges().size() == again.getEdges().size();
+        for ( Edge e : rgg.getEdges() )
+            if ( e.distance() < 1 || e.distance() > 2 ) bounded = false;
+        for ( Vertex v : rgg.getVertices() )
+            if ( rgg.getValue( v ) < 1 || rgg.getValue( v ) > 1000 ) bounded = false;
+        if ( bounded ) testScore += 0.5 ;
+
+        //Barabasi-Albert adds m edges per vertex after a clique of m + 1, without parallel edges
+        VoronoiGraph ba = BoardGenerators.barabasiAlbert( 500 , 3 , BoardGenerators.GAME_VALUES , 4 );
+        boolean simple = ba.getEdges().size() == 6 + 3 * ( 500 - 4 );
+        for ( Edge e : ba.getEdges() ) {
+            int parallel = 0;
+            for ( int i = 0 ; i < e.first().degree() ; i ++ )
+                if ( e.first().neighbour( i ) == e.second() ) parallel ++ ;
+            if ( parallel != 1 ) simple = false;
+        }
+        if ( simple ) testScore += 0.5 ;
+
+        //Stochastic blocks are dense inside and sparse between
+        VoronoiGraph sbm = BoardGenerators.stochasticBlock( new int[] { 100 , 100 } , 0.2 , 0.01 , BoardGenerators.GAME_VALUES , 5 );
+        int inside = 0;
+        int across = 0;
+        for ( Edge e : sbm.getEdges() )
+            if ( ( e.first().getIndex() < 100 ) == ( e.second().getIndex() < 100 ) ) inside ++ ;
+            else across ++ ;
+        // Expected 1980 inside (sd 40) and 100 across (sd 10)
+        if ( Math.abs( inside - 1980 ) < 200 && Math.abs( across - 100 ) < 50 ) testScore += 0.5 ;
+
+        return testScore;
+    }
+
+    public static double traversalTests() {
+
+        double testScore = 0. ;
+
+        //The index-based accessors walk the same neighbours and edges as the list methods
+        VoronoiGraph g1 = new VoronoiGraph( 80 , .9 );
+        boolean same = true;
+        for ( Vertex v : g1.getVertices() ) {
+            java.util.ArrayList<Vertex> adjacent = v.adjacentVertices();
+            if ( v.degree() != adjacent.size() ) same = false;
+            for ( int i = 0 ; i < v.degree() ; i ++ )
+                if ( v.neighbour( i ) != adjacent.get( i ) || v.edge( i ) != v.incidentEdges().get( i ) ||
+                     v.weight( i ) != v.getEdgeTo( adjacent.get( i ) ).distance() ) same = false;
+        }
+        for ( Edge e : g1.getEdges() )
+            if ( e.first() != e.vertices()[ 0 ] || e.second() != e.vertices()[ 1 ] ) same = false;
+        if ( same ) testScore += 1. ;
+
+        return testScore;
+    }
+
+    public static double csrTests() {
+
+        double testScore = 0. ;
+
+        //Each row of the snapshot lists the vertex's neighbours and weights in order
+        Graph g1 = VoronoiBenchmark.sparseGraph( 100 , 6 , new java.util.Random( 3 ) );
+        CsrGraph csr = g1.snapshot();
+        boolean same = csr.size() == g1.size() && csr.entries() == 2 * g1.getEdges().size();
+        for ( Vertex u : g1.getVertices() ) {
+            int k = csr.start( u.getIndex() );
+            if ( csr.degree( u.getIndex() ) != u.incidentEdges().size() ) same = false;
+            for ( Edge e : u.incidentEdges() ) {
+                if ( csr.target( k ) != e.other( u ).getIndex() || csr.weight( k ) != e.distance() ) same = false;
+                k ++ ;
+            }
+        }
+        if ( same ) testScore += 1. ;
+
+        //The snapshot is kept until the graph is edited
+        boolean kept = g1.snapshot() == csr;
+        g1.addEdge( g1.getVertex( 0 ) , g1.getVertex( 1 ) , 0.25 );
+        CsrGraph edited = g1.snapshot();
+        if ( kept && edited != csr && edited.minWeight() == 0.25 && g1.distanceRow( g1.getVertex( 0 ) )[ 1 ] == 0.25 ) testScore += 1. ;
+
+        return testScore;
+    }
+
+    public static double tokenTests() {
+
+        double testScore = 0. ;
+
+        VoronoiGraph g1 = new VoronoiGraph( 80 , .8 );
+        int[] placed = new int[ 10 ];
+        for ( int t = 0 ; t < placed.length ; t ++ ) {
+            placed[ t ] = ( t * 37 ) % g1.size();
+            g1.setToken( g1.getVertex( placed[ t ] ) , t % 2 );
+        }
+
+        //Every vertex belongs to the first-placed token among its nearest tokens
+        boolean owners = true;
+        int[] totals = new int[ 2 ];
+        for ( Vertex u : g1.getVertices() ) {
+            int best = -1;
+            for ( int t = 0 ; t < placed.length ; t ++ )
+                if ( best == -1 ? g1.distance( u.getIndex() , placed[ t ] ) != Double.POSITIVE_INFINITY
+                                : g1.distance( u.getIndex() , placed[ t ] ) < g1.distance( u.getIndex() , placed[ best ] ) )
+                    best = t;
+            if ( best == -1 ) {
+                if ( g1.getCurrentOwner( u ) != null ) owners = false;
+            }
+            else {
+                if ( g1.getClosestToken( u ) != g1.getVertex( placed[ best ] ) || g1.getCurrentOwner( u ) != best % 2 ) owners = false;
+                totals[ best % 2 ] += g1.getValue( u );
+            }
+        }
+        if ( owners ) testScore += 1. ;
+
+        //Player totals add up the owned values
+        if ( g1.playerValues().getOrDefault( 0 , 0 ) == totals[ 0 ] &&
+             g1.playerValues().getOrDefault( 1 , 0 ) == totals[ 1 ] ) testScore += 0.5 ;
+
+        //Reset clears the tokens
+        g1.reset();
+        if ( !g1.hasToken( g1.getVertex( placed[ 0 ] ) ) && g1.getCurrentOwner( g1.getVertex( 0 ) ) == null ) testScore += 0.5 ;
+
+        return testScore;
+    }
+
+    public static double partitionTests() {
+
+        double testScore = 0. ;
+
+        //Integer weights keep every tie exact, so the search and the table scan must agree everywhere
+        VoronoiGraph g1 = new VoronoiGraph( 144 );
+        for ( int v = 0 ; v < 144 ; v ++ ) {
+            g1.setValue( g1.getVertex( v ) , 1 + v % 9 );
+            if ( v % 12 < 11 ) g1.addEdge( g1.getVertex( v ) , g1.getVertex( v + 1 ) , 1 + ( v * 7 ) % 3 );
+            if ( v < 132 ) g1.addEdge( g1.getVertex( v ) , g1.getVertex( v + 12 ) , 1 + ( v * 5 ) % 3 );
+        }
+        g1.computeDistances();
+        int[] tokens = { 5 , 77 , 143 , 60 , 5 , 100 , 31 };
+        int[] players = { 0 , 1 , 0 , 1 , 1 , 0 , 1 };
+        VoronoiPartition search = new VoronoiPartition( g1 );
+        VoronoiPartition scan = new VoronoiPartition( g1 );
+        search.compute( tokens , players , tokens.length );
+        scan.computeFromTable( g1.distances() , tokens , players , tokens.length );
+        boolean same = true;
+        for ( int u = 0 ; u < g1.size() ; u ++ ) {
+            int best = 0;
+            for ( int k = 1 ; k < tokens.length ; k ++ )
+                if ( g1.distance( tokens[ k ] , u ) < g1.distance( tokens[ best ] , u ) ) best = k;
+            if ( search.ownerToken( u ) != tokens[ best ] || search.ownerPlayer( u ) != players[ best ] ||
+                 scan.ownerPlayer( u ) != players[ best ] || search.distance( u ) != g1.distance( tokens[ best ] , u ) ) same = false;
+        }
+        if ( same && search.total( 0 ) == scan.total( 0 ) && search.total( 1 ) == scan.total( 1 ) ) testScore += 1. ;
+
+        //The board's own partition agrees with the owners kept by setToken
+        VoronoiGraph g2 = new VoronoiGraph( 90 , .1 , 6 );
+        for ( int t = 0 ; t < 8 ; t ++ ) g2.setToken( g2.getVertex( ( t * 23 ) % g2.size() ) , t % 2 );
+        VoronoiPartition p2 = g2.partition();
+        if ( p2.total( 0 ) == g2.playerValues().getOrDefault( 0 , 0 ) &&
+             p2.total( 1 ) == g2.playerValues().getOrDefault( 1 , 0 ) ) testScore += 0.5 ;
+
+        //A vertex halfway between two tokens goes to the one placed first, and unreachable vertices to no one
+        VoronoiGraph g3 = new VoronoiGraph( 4 );
+        g3.addEdge( g3.getVertex( 0 ) , g3.getVertex( 1 ) , 2. );
+        g3.addEdge( g3.getVertex( 1 ) , g3.getVertex( 2 ) , 2. );
+        VoronoiPartition p3 = new VoronoiPartition( g3 );
+        p3.compute( new int[] { 2 , 0 } , new int[] { 1 , 0 } , 2 );
+        if ( p3.ownerPlayer( 1 ) == 1 && p3.ownerPlayer( 3 ) == -1 && p3.distance( 3 ) == Double.POSITIVE_INFINITY ) testScore += 0.5 ;
+
+        return testScore;
+    }
+
+    public static double cellTests() {
+
+        double testScore = 0. ;
+
+        //After every move the owners kept by setToken match a partition computed from scratch, ties included
+        VoronoiGraph g1 = new VoronoiGraph( 400 );
+        for ( int v = 0 ; v < 400 ; v ++ ) {
+            g1.setValue( g1.getVertex( v ) , 1 + v % 7 );
+            if ( v % 20 < 19 ) g1.addEdge( g1.getVertex( v ) , g1.getVertex( v + 1 ) , 1 + v % 2 );
+            if ( v < 380 ) g1.addEdge( g1.getVertex( v ) , g1.getVertex( v + 20 ) , 1 + ( v / 20 ) % 2 );
+        }
+        int[] picks = { 210 , 0 , 399 , 190 , 42 , 357 , 230 , 21 , 378 , 105 };
+        int[] players = new int[ picks.length ];
+        VoronoiPartition check = new VoronoiPartition( g1 );
+        boolean same = true;
+        for ( int k = 0 ; k < picks.length ; k ++ ) {
+            players[ k ] = k % 2;
+            g1.setToken( g1.getVertex( picks[ k ] ) , players[ k ] );
+            check.compute( picks , players , k + 1 );
+            for ( int u = 0 ; u < g1.size() ; u ++ )
+                if ( g1.getClosestToken( g1.getVertex( u ) ) != g1.getVertex( check.ownerToken( u ) ) ) same = false;
+            if ( g1.playerValues().getOrDefault( 0 , 0 ) != check.total( 0 ) ||
+                 g1.playerValues().getOrDefault( 1 , 0 ) != check.total( 1 ) ) same = false;
+        }
+        if ( same && g1.distances() == null ) testScore += 1. ;
+
+        //Vertices beyond another component stay unowned until a token is placed there
+        VoronoiGraph g2 = new VoronoiGraph( 5 );
+        g2.addEdge( g2.getVertex( 0 ) , g2.getVertex( 1 ) , 1. );
+        g2.addEdge( g2.getVertex( 3 ) , g2.getVertex( 4 ) , 1. );
+        g2.setToken( g2.getVertex( 0 ) , 0 );
+        boolean apart = g2.getCurrentOwner( g2.getVertex( 3 ) ) == null && g2.getCurrentOwner( g2.getVertex( 1 ) ) == 0;
+        g2.setToken( g2.getVertex( 4 ) , 1 );
+        if ( apart && g2.getCurrentOwner( g2.getVertex( 3 ) ) == 1 && g2.getCurrentOwner( g2.getVertex( 2 ) ) == null ) testScore += 1. ;
+
+        //Ties on lazy rows go to the earlier token without computing a single row
+        VoronoiGraph g3 = new VoronoiGraph( 6 );
+        for ( int v = 0 ; v < 6 ; v ++ ) g3.addEdge( g3.getVertex( v ) , g3.getVertex( ( v + 1 ) % 6 ) , 1.5 );
+        g3.setDistances( new LazyDistanceRows( g3 , 1 << 20 ) );
+        g3.setToken( g3.getVertex( 0 ) , 0 );
+        g3.setToken( g3.getVertex( 2 ) , 1 );
+        if ( g3.getCurrentOwner( g3.getVertex( 1 ) ) == 0 && g3.getCurrentOwner( g3.getVertex( 4 ) ) == 0 &&
+             g3.getCurrentOwner( g3.getVertex( 3 ) ) == 1 && ( (LazyDistanceRows) g3.distances() ).cachedRows() == 0 ) testScore += 1. ;
+
+        return testScore;
+    }
+
+    public static double undoTests() {
+
+        double testScore = 0. ;
+
+        //Popping pushed tokens restores every owner and score, on a table board and on a lazy one
+        boolean restored = true;
+        VoronoiGraph[] boards = { new VoronoiGraph( 120 , .9 , 8 ) , BoardGenerators.grid( 30 , 30 , false , BoardGenerators.GAME_VALUES , 8 ) };
+        boards[ 1 ].setDistances( new LazyDistanceRows( boards[ 1 ] , 1 << 20 ) );
+        for ( VoronoiGraph g : boards ) {
+            java.util.Random rand = new java.util.Random( 8 );
+            g.setToken( g.getVertex( 3 ) , 0 );
+            g.setToken( g.getVertex( 50 ) , 1 );
+            Vertex[] closest = new Vertex[ g.size() ];
+            for ( int u = 0 ; u < g.size() ; u ++ ) closest[ u ] = g.getClosestToken( g.getVertex( u ) );
+            java.util.HashMap<Integer, Integer> before = g.playerValues();
+            for ( int round = 0 ; round < 20 ; round ++ ) {
+                int depth = 1 + rand.nextInt( 6 );
+                for ( int k = 0 ; k < depth ; k ++ ) {
+                    Vertex v = g.getVertex( rand.nextInt( g.size() ) );
+                    if ( !g.hasToken( v ) ) g.pushToken( v , k % 2 );
+                }
+                while ( g.pushedCount() > 0 ) g.popToken();
+            }
+            for ( int u = 0 ; u < g.size() ; u ++ )
+                if ( g.getClosestToken( g.getVertex( u ) ) != closest[ u ] ) restored = false;
+            if ( !g.playerValues().equals( before ) || g.tokenCount() != 2 ) restored = false;
+
+            //Moves made after popping score as if the pushes never happened
+            g.setToken( g.getVertex( 77 ) , 0 );
+            VoronoiPartition check = new VoronoiPartition( g );
+            check.compute( new int[] { 3 , 50 , 77 } , new int[] { 0 , 1 , 0 } , 3 );
+            if ( g.getScore( 0 ) != check.total( 0 ) || g.getScore( 1 ) != check.total( 1 ) ) restored = false;
+        }
+        if ( restored ) testScore += 1. ;
+
+        //Setting a token over pushed ones is refused, as are pushing onto a token and popping too often
+        VoronoiGraph g1 = new VoronoiGraph( 40 , .8 , 9 );
+        g1.pushToken( g1.getVertex( 0 ) , 0 );
+        int refused = 0;
+        try {
+            g1.setToken( g1.getVertex( 1 ) , 1 );
+        }
+        catch ( IllegalStateException e ) {
+            refused ++;
+        }
+        try {
+            g1.pushToken( g1.getVertex( 0 ) , 1 );
+        }
+        catch ( IllegalArgumentException e ) {
+            refused ++;
+        }
+        g1.popToken();
+        try {
+            g1.popToken();
+        }
+        catch ( IllegalStateException e ) {
+            refused ++;
+        }
+        if ( refused == 3 && g1.tokenCount() == 0 && g1.pushedCount() == 0 &&
+             g1.getCurrentOwner( g1.getVertex( 0 ) ) == null && g1.getScore( 0 ) == 0 ) testScore += 1. ;
+
+        return testScore;
+    }
+
+    public static double gameStateTests() throws InterruptedException {
+
+        double testScore = 0. ;
+
+        //Games played at once on one board in different threads end as they do one after another
+        VoronoiGraph g1 = new VoronoiGraph( 150 , .9 , 12 );
+        Board board = g1.board();
+        int games = 8;
+        int[][] moves = new int[ games ][ 10 ];
+        for ( int k = 0 ; k < games ; k ++ ) {
+            java.util.Random rand = new java.util.Random( k );
+            for ( int i = 0 ; i < 10 ; i ++ ) moves[ k ][ i ] = rand.nextInt( board.size() );
+        }
+        int[][] together = new int[ games ][ 2 ];
+        Thread[] threads = new Thread[ games ];
+        for ( int k = 0 ; k < games ; k ++ ) {
+            final int game = k;
+            threads[ k ] = new Thread( () -> {
+                GameState state = new GameState( board );
+                for ( int i = 0 ; i < 10 ; i ++ )
+                    if ( !state.hasToken( moves[ game ][ i ] ) ) state.setToken( moves[ game ][ i ] , i % 2 );
+                together[ game ][ 0 ] = state.score( 0 );
+                together[ game ][ 1 ] = state.score( 1 );
+            } );
+            threads[ k ].start();
+        }
+        for ( Thread t : threads ) t.join();
+        boolean same = true;
+        for ( int k = 0 ; k < games ; k ++ ) {
+            g1.reset();
+            for ( int i = 0 ; i < 10 ; i ++ )
+                if ( !g1.hasToken( g1.getVertex( moves[ k ][ i ] ) ) ) g1.setToken( g1.getVertex( moves[ k ][ i ] ) , i % 2 );
+            if ( g1.getScore( 0 ) != together[ k ][ 0 ] || g1.getScore( 1 ) != together[ k ][ 1 ] ) same = false;
+        }
+        if ( same ) testScore += 1. ;
+
+        //Editing the graph leaves a board handed out, and games copied on it, as they were
+        VoronoiGraph g2 = new VoronoiGraph( 60 , .8 , 13 );
+        g2.setToken( g2.getVertex( 0 ) , 0 );
+        Board before = g2.board();
+        GameState copy = g2.gameState().copy();
+        double d = before.distance( 5 , 40 );
+        int value = before.value( 5 );
+        g2.addEdge( g2.getVertex( 5 ) , g2.getVertex( 40 ) , d / 4 );
+        g2.setValue( g2.getVertex( 5 ) , value + 1 );
+        copy.setToken( 40 , 1 );
+        g2.setToken( g2.getVertex( 40 ) , 1 );
+        boolean kept = before.distance( 5 , 40 ) == d && before.value( 5 ) == value && copy.board() == before &&
+                       g2.board() != before && g2.getDistance( g2.getVertex( 5 ) , g2.getVertex( 40 ) ) == d / 4 &&
+                       copy.tokenCount() == 2 && g2.gameState().tokenCount() == 2;
+        copy.reset();
+        if ( kept && copy.tokenCount() == 0 && g2.tokenCount() == 2 ) testScore += 1. ;
+
+        //Removing a Vertex that held a token leaves no Vertex owned by it, and the owners match a partition from scratch
+        VoronoiGraph g3 = new VoronoiGraph( 60 , .8 , 14 );
+        int[] picks = { 3 , 17 , 29 , 44 , 58 };
+        for ( int k = 0 ; k < picks.length ; k ++ ) g3.setToken( g3.getVertex( picks[ k ] ) , k % 2 );
+        g3.remove( g3.getVertex( 17 ) );
+        GameState state = g3.gameState();
+        int[] left = new int[ state.tokenCount() ];
+        int[] leftPlayers = new int[ left.length ];
+        for ( int k = 0 ; k < left.length ; k ++ ) {
+            left[ k ] = state.token( k );
+            leftPlayers[ k ] = state.tokenPlayer( left[ k ] );
+        }
+        VoronoiPartition check = new VoronoiPartition( g3.board() );
+        check.compute( left , leftPlayers , left.length );
+        boolean replayed = left.length == 4;
+        for ( int u = 0 ; u < g3.size() ; u ++ )
+            if ( state.ownerToken( u ) != check.ownerToken( u ) ) replayed = false;
+        replayed = replayed && state.score( 0 ) == check.total( 0 ) && state.score( 1 ) == check.total( 1 );
+        //Removing a Vertex without a token takes its value out of its owner's score
+        int free = state.nextFree( 0 );
+        int owner = state.ownerPlayer( free );
+        int score = state.score( owner ) - g3.getValue( g3.getVertex( free ) );
+        g3.remove( g3.getVertex( free ) );
+        if ( replayed && g3.gameState().score( owner ) == score ) testScore += 1. ;
+
+        //Removing a Vertex without a token whose edges carried shortest paths moves the owners with the distances
+        VoronoiGraph g4 = new VoronoiGraph( 8 );
+        g4.computeDistances();
+        for ( int v = 1 ; v < 8 ; v ++ ) g4.addEdge( g4.getVertex( v - 1 ) , g4.getVertex( v ) , 1. );
+        g4.addEdge( g4.getVertex( 0 ) , g4.getVertex( 7 ) , 2.5 );
+        for ( int v = 0 ; v < 8 ; v ++ ) g4.setValue( g4.getVertex( v ) , v + 1 );
+        g4.setToken( g4.getVertex( 0 ) , 0 );
+        g4.setToken( g4.getVertex( 5 ) , 1 );
+        g4.remove( g4.getVertex( 2 ) );
+        GameState after = g4.gameState();
+        int[] tokens4 = { after.token( 0 ) , after.token( 1 ) };
+        VoronoiPartition check4 = new VoronoiPartition( g4.board() );
+        check4.compute( tokens4 , new int[] { 0 , 1 } , 2 );
+        boolean followed = true;
+        for ( int u = 0 ; u < g4.size() ; u ++ )
+            if ( after.ownerToken( u ) != check4.ownerToken( u ) ) followed = false;
+        if ( followed && after.score( 0 ) == check4.total( 0 ) && after.score( 1 ) == check4.total( 1 ) ) testScore += 1. ;
+
+        return testScore;
+    }
+
+    public static double bitsetTests() {
+
+        double testScore = 0. ;
+
+        //The bitsets follow the tokens and owners through moves, pushes and pops, and their values are the scores
+        VoronoiGraph g1 = new VoronoiGraph( 300 , .9 , 14 );
+        GameState state = new GameState( g1.board() );
+        java.util.Random rand = new java.util.Random( 14 );
+        boolean agree = true;
+        for ( int k = 0 ; k < 12 ; k ++ ) {
+            int v = rand.nextInt( state.board().size() );
+            if ( state.hasToken( v ) ) continue;
+            if ( k < 6 ) state.setToken( v , k % 2 );
+            else state.pushToken( v , k % 2 );
+            GameState copy = state.copy();
+            for ( GameState s : new GameState[] { state , copy } ) {
+                long[] tokens = s.tokenBits();
+                int free = 0;
+                int next = s.nextFree( 0 );
+                for ( int u = 0 ; u < s.board().size() ; u ++ ) {
+                    boolean bit = ( tokens[ u >>> 6 ] >>> u & 1 ) == 1;
+                    if ( bit != s.hasToken( u ) ) agree = false;
+                    if ( !bit ) {
+                        if ( next != u ) agree = false;
+                        next = s.nextFree( u + 1 );
+                        free ++;
+                    }
+                    for ( int p = 0 ; p < 2 ; p ++ )
+                        if ( ( ( s.ownedBits( p )[ u >>> 6 ] >>> u & 1 ) == 1 ) != ( s.ownerPlayer( u ) == p ) ) agree = false;
+                }
+                if ( next != -1 || free != s.freeCount() ) agree = false;
+                for ( int p = 0 ; p < 2 ; p ++ )
+                    if ( s.board().valueOf( s.ownedBits( p ) ) != s.score( p ) ) agree = false;
+            }
+        }
+        while ( state.pushedCount() > 0 ) state.popToken();
+        for ( int p = 0 ; p < 2 ; p ++ )
+            if ( state.board().valueOf( state.ownedBits( p ) ) != state.score( p ) ) agree = false;
+        if ( agree ) testScore += 1. ;
+
+        //valueOf sums any bitset, reading whole bytes, and agrees with adding up the vertices one by one
+        Board board = BoardGenerators.grid( 13 , 11 , false , BoardGenerators.GAME_VALUES , 14 ).board();
+        boolean sums = true;
+        for ( int trial = 0 ; trial < 50 ; trial ++ ) {
+            long[] bits = new long[ ( board.size() + 63 ) / 64 ];
+            int expected = 0;
+            for ( int v = 0 ; v < board.size() ; v ++ )
+                if ( rand.nextInt( 4 ) < trial % 5 ) {
+                    bits[ v >>> 6 ] |= 1L << v;
+                    expected += board.value( v );
+                }
+            if ( board.valueOf( bits ) != expected ) sums = false;
+        }
+        if ( sums ) testScore += 1. ;
+
+        return testScore;
+    }
+
+    public static double zobristTests() throws InterruptedException {
+
+        double testScore = 0. ;
+
+        //Every order of placing the same tokens gives the same hash, and popping restores the hash before the push
+        VoronoiGraph g1 = new VoronoiGraph( 80 , .8 , 15 );
+        int[] moves = { 4 , 17 , 33 , 60 , 71 };
+        g1.reset();
+        for ( int k = 0 ; k < moves.length ; k ++ ) g1.setToken( g1.getVertex( moves[ k ] ) , k % 2 );
+        long forward = g1.positionHash();
+        g1.reset();
+        for ( int k = moves.length - 1 ; k >= 0 ; k -- ) g1.setToken( g1.getVertex( moves[ k ] ) , k % 2 );
+        boolean same = g1.positionHash() == forward;
+        g1.pushToken( g1.getVertex( 5 ) , 0 );
+        long pushed = g1.positionHash();
+        g1.popToken();
+        same = same && pushed != forward && g1.positionHash() == forward && g1.gameState().copy().hash() == forward;
+        g1.reset();
+        for ( int k = 0 ; k < moves.length ; k ++ ) g1.setToken( g1.getVertex( moves[ k ] ) , 1 - k % 2 );
+        same = same && g1.positionHash() != forward;
+        //An edit moves the game to a new board and its keys
+        g1.addEdge( g1.getVertex( 0 ) , g1.getVertex( 1 ) , 1.5 );
+        GameState fresh = new GameState( g1.board() );
+        for ( int k = 0 ; k < moves.length ; k ++ ) fresh.setToken( moves[ k ] , 1 - k % 2 );
+        //The side to move and the moves left have keys of their own
+        Board keys = g1.board();
+        java.util.Set<Long> distinct = new java.util.HashSet<>();
+        for ( int p = 0 ; p < 2 ; p ++ ) {
+            distinct.add( keys.sideKey( p ) );
+            for ( int v = 0 ; v < 10 ; v ++ ) distinct.add( keys.zobrist( v , p ) );
+        }
+        for ( int m = 0 ; m <= 10 ; m ++ ) distinct.add( keys.turnKey( m ) );
+        same = same && distinct.size() == 2 + 20 + 11;
+        if ( same && g1.positionHash() == fresh.hash() ) testScore += 1. ;
+
+        //The table keeps deeper and newer entries, and threads storing at once never make a probe return another key's entry
+        TranspositionTable table = new TranspositionTable( 1000 );
+        TranspositionTable.Entry e = new TranspositionTable.Entry();
+        long a = 5L;
+        long b = 5L + ( 1L << 40 ) + ( 1L << 8 );
+        table.store( a , 1.5 , 7 , 10 );
+        boolean kept = table.capacity() == 1024 && table.probe( a , e ) && e.value == 1.5 && e.move == 7 && e.depth == 10;
+        table.store( b , 2.5 , 8 , 3 );
+        kept = kept && table.probe( a , e ) && !table.probe( b , e );
+        table.newSearch();
+        table.store( b , 2.5 , -1 , 3 );
+        kept = kept && !table.probe( a , e ) && table.probe( b , e ) && e.move == -1 && e.depth == 3;
+        TranspositionTable shared = new TranspositionTable( 64 );
+        boolean[] consistent = { true };
+        Thread[] threads = new Thread[ 4 ];
+        for ( int t = 0 ; t < threads.length ; t ++ ) {
+            final int seed = t;
+            threads[ t ] = new Thread( () -> {
+                java.util.Random rand = new java.util.Random( seed );
+                TranspositionTable.Entry mine = new TranspositionTable.Entry();
+                for ( int i = 0 ; i < 200000 ; i ++ ) {
+                    long key = rand.nextLong();
+                    shared.store( key , key % 1000 , (int) ( key & 0xFFFF ) , rand.nextInt( 8 ) );
+                    long other = rand.nextLong();
+                    if ( shared.probe( other , mine ) && ( mine.value != other % 1000 || mine.move != ( other & 0xFFFF ) ) )
+                        consistent[ 0 ] = false;
+                    if ( shared.probe( key , mine ) && ( mine.value != key % 1000 || mine.move != ( key & 0xFFFF ) ) )
+                        consistent[ 0 ] = false;
+                }
+            } );
+            threads[ t ].start();
+        }
+        for ( Thread t : threads ) t.join();
+        if ( kept && consistent[ 0 ] ) testScore += 1. ;
+
+        return testScore;
+    }
+
+    public static double kernelTests() {
+
+        double testScore = 0. ;
+
+        //The kernel's totals match a scan of the table, with 2 and 3 players, on a board full of ties and a random one
+        VoronoiGraph ties = new VoronoiGraph( 64 );
+        java.util.Random rand = new java.util.Random( 16 );
+        for ( int r = 0 ; r < 8 ; r ++ )
+            for ( int c = 0 ; c < 8 ; c ++ ) {
+                Vertex v = ties.getVertex( r * 8 + c );
+                ties.setValue( v , rand.nextInt( 100 ) );
+                if ( r > 0 ) ties.addEdge( v , ties.getVertex( r * 8 + c - 8 ) , 1.0 );
+                if ( c > 0 ) ties.addEdge( v , ties.getVertex( r * 8 + c - 1 ) , 1.0 );
+            }
+        ties.computeDistances();
+        boolean match = true;
+        for ( VoronoiGraph g : new VoronoiGraph[] { ties , new VoronoiGraph( 200 , .9 , 16 ) } ) {
+            Board board = g.board();
+            ScoringKernel kernel = new ScoringKernel( board );
+            VoronoiPartition scan = new VoronoiPartition( board );
+            for ( int trial = 0 ; trial < 40 ; trial ++ ) {
+                int count = 2 + rand.nextInt( 10 );
+                int players = 2 + trial % 2;
+                int[] tokens = rand.ints( 0 , board.size() ).distinct().limit( count ).toArray();
+                int[] owners = new int[ count ];
+                for ( int k = 0 ; k < count ; k ++ ) owners[ k ] = k % players;
+                kernel.score( tokens , owners , count );
+                scan.computeFromTable( board.distances() , tokens , owners , count );
+                int[] totals = g.score( tokens , owners , count );
+                for ( int p = 0 ; p < players ; p ++ )
+                    if ( kernel.total( p ) != scan.total( p ) || ( p < totals.length ? totals[ p ] : 0 ) != scan.total( p ) ) match = false;
+            }
+        }
+        if ( match && ties.distances() instanceof DistanceMatrix ) testScore += 1. ;
+
+        //Boards without a dense matrix are scored by a partition search with the same totals
+        VoronoiGraph g2 = BoardGenerators.grid( 20 , 20 , false , BoardGenerators.GAME_VALUES , 16 );
+        g2.setDistances( new LazyDistanceRows( g2 , 1 << 20 ) );
+        ScoringKernel kernel = new ScoringKernel( g2.board() );
+        VoronoiPartition search = new VoronoiPartition( g2.board() );
+        boolean searched = true;
+        for ( int trial = 0 ; trial < 20 ; trial ++ ) {
+            int[] tokens = rand.ints( 0 , g2.size() ).distinct().limit( 6 ).toArray();
+            int[] owners = { 0 , 1 , 0 , 1 , 0 , 1 };
+            kernel.score( tokens , owners , 6 );
+            search.compute( tokens , owners , 6 );
+            if ( kernel.total( 0 ) != search.total( 0 ) || kernel.total( 1 ) != search.total( 1 ) ) searched = false;
+        }
+        if ( searched ) testScore += 1. ;
+
+        //A near-tie left by summation order, 0.1 + 0.2 against 0.3, goes to the earlier token in every scorer
+        VoronoiGraph g3 = new VoronoiGraph( 4 );
+        g3.addEdge( g3.getVertex( 0 ) , g3.getVertex( 1 ) , 0.1 );
+        g3.addEdge( g3.getVertex( 1 ) , g3.getVertex( 2 ) , 0.2 );
+        g3.addEdge( g3.getVertex( 2 ) , g3.getVertex( 3 ) , 0.3 );
+        g3.computeDistances();
+        for ( int v = 0 ; v < 4 ; v ++ ) g3.setValue( g3.getVertex( v ) , 1 << v );
+        g3.setToken( g3.getVertex( 0 ) , 0 );
+        g3.setToken( g3.getVertex( 3 ) , 1 );
+        int[] tokens3 = { 0 , 3 };
+        int[] owners3 = { 0 , 1 };
+        ScoringKernel kernel3 = new ScoringKernel( g3.board() );
+        kernel3.score( tokens3 , owners3 , 2 );
+        VoronoiPartition search3 = new VoronoiPartition( g3.board() );
+        search3.compute( tokens3 , owners3 , 2 );
+        VoronoiPartition scan3 = new VoronoiPartition( g3.board() );
+        scan3.computeFromTable( g3.board().distances() , tokens3 , owners3 , 2 );
+        if ( g3.getScore( 0 ) == 7 && kernel3.total( 0 ) == 7 && search3.total( 0 ) == 7 && scan3.total( 0 ) == 7 ) testScore += 0.5 ;
+
+        //The preferred row kernel is the vector one exactly when it is compiled and its module added, and agrees with the scalar loops
+        RowKernel scalar = new ScalarRowKernel();
+        boolean vectorLoads = ModuleLayer.boot().findModule( "jdk.incubator.vector" ).isPresent() &&
+                              VoronoiGraphTests.class.getResource( "VectorRowKernel.class" ) != null;
+        boolean agree = vectorLoads != ( RowKernel.PREFERRED instanceof ScalarRowKernel );
+        for ( int n : new int[] { 1 , 7 , 64 , 203 } ) {
+            double[] data = new double[ 2 * n ];
+            double[] min0 = new double[ n ];
+            double[] min1 = new double[ n ];
+            int[] values = new int[ n ];
+            for ( int v = 0 ; v < n ; v ++ ) {
+                data[ v ] = rand.nextInt( 8 ) == 0 ? Double.POSITIVE_INFINITY : rand.nextInt( 4 ) * 0.1;
+                data[ n + v ] = rand.nextInt( 8 ) == 0 ? Double.POSITIVE_INFINITY : rand.nextInt( 4 ) * 0.1 + ( rand.nextBoolean() ? 1e-12 : 0. );
+                min0[ v ] = rand.nextInt( 3 ) == 0 ? Double.POSITIVE_INFINITY : 0.1 + 0.2;
+                min1[ v ] = min0[ v ];
+                values[ v ] = rand.nextInt( 100 );
+            }
+            RowKernel.PREFERRED.minRow( data , n , min0 , n );
+            scalar.minRow( data , n , min1 , n );
+            if ( !java.util.Arrays.equals( min0 , min1 ) ) agree = false;
+            int[] totals0 = new int[ 2 ];
+            int[] totals1 = new int[ 2 ];
+            if ( RowKernel.PREFERRED.split( data , min0 , values , n , totals0 ) != scalar.split( data , min1 , values , n , totals1 ) ||
+                 !java.util.Arrays.equals( totals0 , totals1 ) ) agree = false;
+        }
+        if ( agree ) testScore += 0.5 ;
+
+        return testScore;
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.out.println( distanceTests() + "/4" );
+        System.out.println( engineTests() + "/2" );
+        System.out.println( cacheTests() + "/2.5" );
+        System.out.println( lazyRowTests() + "/2" );
+        System.out.println( incrementalTests() + "/3" );
+        System.out.println( indexTests() + "/2" );
+        System.out.println( mutationTests() + "/2" );
+        System.out.println( generatorTests() + "/2" );
+        System.out.println( boardTests() + "/2" );
+        System.out.println( loaderTests() + "/2.5" );
+        System.out.println( snapshotTests() + "/2" );
+        System.out.println( dimacsTests() + "/3" );
+        System.out.println( traversalTests() + "/1" );
+        System.out.println( csrTests() + "/2" );
+        System.out.println( tokenTests() + "/2" );
+        System.out.println( partitionTests() + "/2" );
+        System.out.println( cellTests() + "/3" );
+        System.out.println( undoTests() + "/2" );
+        System.out.println( gameStateTests() + "/4" );
+        System.out.println( bitsetTests() + "/2" );
+        System.out.println( zobristTests() + "/2" );
+        System.out.println( kernelTests() + "/3" );
+    }
+}
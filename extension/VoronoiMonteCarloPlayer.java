@@ -2,10 +2,13 @@
  * Author: Muneeb Azfar Nafees
  * 
  * Purpose of this class: Create a Voronoi player using Monte Carlo simulation to evaluate the best vertex to place a token on.
+ * Each playout is scored with a ScoringKernel, which streams distance rows in order on small
+ * boards and needs no all-pairs distances on large ones.
+ * The search reads a copy of the game and the graph's immutable Board, so a search that runs out of
+ * time and keeps going in the background never reads the live game while it changes.
  */
 
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.Random;
 
 public class VoronoiMonteCarloPlayer extends VoronoiPlayerAlgorithm {
     // Number of turns in the game
@@ -21,83 +24,73 @@ public class VoronoiMonteCarloPlayer extends VoronoiPlayerAlgorithm {
 
     @Override
     public Vertex chooseVertex(int playerIndex, int numRemainingTurns) {
-        // Build sets of placed tokens so far to get the current state of the game
-        Set<Vertex> myTokens = new HashSet<>();
-        Set<Vertex> oppTokens = new HashSet<>();
-        for (Vertex v : graph.getVertices()) {
-            if (graph.hasToken(v)) {
-                Integer owner = graph.getCurrentOwner(v);
-                if (owner != null) {
-                    if (owner == playerIndex){
-                        myTokens.add(graph.getClosestToken(v));
-                    }
-                    else{
-                        oppTokens.add(graph.getClosestToken(v));
-                    }
-                }
-            }
-        }
-
-        // Compute list of truly available vertices
-        List<Vertex> allVerts = new ArrayList<>(graph.getVertices());
-        List<Vertex> available = allVerts.stream().filter(v -> !graph.hasToken(v)).collect(Collectors.toList()); // unclaimed vertices
-
+        int opponent = playerIndex == 0 ? 1 : 0;
         int movesDone = TOTAL_TURNS - numRemainingTurns +  // my past picks
                         (TOTAL_TURNS - numRemainingTurns); // opponent's past picks
         int movesLeft = 2*TOTAL_TURNS - movesDone;
 
-        Vertex best = null;
+        // The copy is taken under the graph's lock, and is played on the board of that moment
+        GameState game = graph.copyGameState();
+        Board board = game.board();
+
+        // Compute the truly available vertices, which also form the pool of playout picks
+        int[] pool = new int[game.freeCount()];
+        int available = 0;
+        for (int v = game.nextFree(0); v != -1; v = game.nextFree(v + 1)) {
+            pool[available++] = v;
+        }
+        if (available == 0) {
+            return null;
+        }
+
+        // Tokens placed so far in placement order, followed by room for one playout
+        int placedTokens = game.tokenCount();
+        int picks = Math.min(movesLeft - 1, available - 1);
+        int[] simTokens = new int[placedTokens + 1 + Math.max(0, picks)];
+        int[] simPlayers = new int[simTokens.length];
+        for (int k = 0; k < placedTokens; k++) {
+            simTokens[k] = game.token(k);
+            simPlayers[k] = game.tokenPlayer(simTokens[k]);
+        }
+        // Made for this call, since a search that ran out of time may still be using an earlier one
+        ScoringKernel kernel = new ScoringKernel(board);
+
+        int best = -1;
         double bestScore = Double.NEGATIVE_INFINITY;
 
         // For each candidate v, run SIMULATIONS_PER_CANDIDATE random playouts
-        for (Vertex candidate : available) {
+        for (int c = 0; c < available; c++) {
+            int candidate = pool[c];
+            // Keep the candidate out of the picks by moving it to the end of the pool
+            pool[c] = pool[available - 1];
+            pool[available - 1] = candidate;
+
             double sumDelta = 0;
             for (int sim = 0; sim < SIMULATIONS_PER_CANDIDATE; sim++) {
-                // copy token sets
-                Set<Vertex> simMy = new HashSet<>(myTokens);
-                Set<Vertex> simOpp = new HashSet<>(oppTokens);
                 // apply this turn's candidate
-                simMy.add(candidate);
+                simTokens[placedTokens] = candidate;
+                simPlayers[placedTokens] = playerIndex;
 
-                // remaining vertices to pick from
-                List<Vertex> pool = new ArrayList<>(available);
-                pool.remove(candidate);
-                Collections.shuffle(pool, rand);
-
-                // simulate alternating picks from pool
+                // simulate alternating picks drawn without replacement from the pool
                 boolean myTurn = false;  // next pick is opponent
-                for (int i = 0; i < movesLeft - 1; i++) {
-                    Vertex pick = pool.get(i);
-                    if (myTurn){
-                        simMy.add(pick);
-                    }
-                    else{
-                        simOpp.add(pick);
-                    }
+                for (int i = 0; i < picks; i++) {
+                    int j = i + rand.nextInt(available - 1 - i);
+                    int pick = pool[j];
+                    pool[j] = pool[i];
+                    pool[i] = pick;
+                    simTokens[placedTokens + 1 + i] = pick;
+                    simPlayers[placedTokens + 1 + i] = myTurn ? playerIndex : opponent;
                     myTurn = !myTurn;
                 }
 
-                // score by Voronoi assignment
-                int myScore = 0, oppScore = 0;
-                for (Vertex u : allVerts) {
-                    double bestMy = Double.POSITIVE_INFINITY;
-                    for (Vertex t : simMy)
-                        bestMy = Math.min(bestMy, graph.getDistance(u, t));
-                    double bestOpp = Double.POSITIVE_INFINITY;
-                    for (Vertex t : simOpp)
-                        bestOpp = Math.min(bestOpp, graph.getDistance(u, t));
-
-                    if (bestMy < bestOpp){
-                        myScore += graph.getValue(u);
-                    }
-                    else{
-                        oppScore += graph.getValue(u);
-                    }
-                }
-
-                sumDelta += (myScore - oppScore);
+                // score by Voronoi assignment of every token in one pass
+                kernel.score(simTokens, simPlayers, placedTokens + 1 + Math.max(0, picks));
+                sumDelta += kernel.total(playerIndex) - kernel.total(opponent);
             }
 
+            pool[available - 1] = pool[c];
+            pool[c] = candidate;
+
             // average score over all simulations
             double avgDelta = sumDelta / SIMULATIONS_PER_CANDIDATE;
             // if this candidate is better than the best so far, update best
@@ -107,6 +100,9 @@ public class VoronoiMonteCarloPlayer extends VoronoiPlayerAlgorithm {
             }
         }
 
-        return best;
+        if (best == -1) {
+            return null;
+        }
+        return graph.getVertex(best);
     }
-}
\ No newline at end of file
+}
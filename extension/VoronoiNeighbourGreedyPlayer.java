@@ -39,10 +39,11 @@ public class VoronoiNeighbourGreedyPlayer extends VoronoiPlayerAlgorithm{
             // Check if the vertex does not have a token on it
             if(!graph.hasToken(v)){
                 int totalValue = 0;
-                // Iterate through all adjacent vertices of v
-                for(Vertex neighbour : v.adjacentVertices()){
+                // Iterate through all adjacent vertices of v without allocating
+                for(int i = 0; i < v.degree(); i++){
+                    Vertex neighbour = v.neighbour(i);
                     // Check if the neighbour does not have a token and is within distance 1.1
-                    if(!graph.hasToken(neighbour) && v.getEdgeTo(neighbour).distance() <= 1.1){
+                    if(!graph.hasToken(neighbour) && v.weight(i) <= 1.1){
                         totalValue += graph.getValue(neighbour);
                     }
                 }
@@ -42,9 +42,10 @@ public class VoronoiNeighbourGreedyPlayer2 extends VoronoiPlayerAlgorithm{
             if(!graph.hasToken(v)){
                 double totalValue = 0.0;
                 // Inverse-distance neighbor loop with opponent-aware filtering
-                for (Vertex neighbour : v.adjacentVertices()) {
+                for (int i = 0; i < v.degree(); i++) {
+                    Vertex neighbour = v.neighbour(i);
                     if (!graph.hasToken(neighbour)) {
-                        double distYou = v.getEdgeTo(neighbour).distance();
+                        double distYou = v.weight(i);
                         Vertex oppTok = graph.getClosestToken(neighbour);
                         // Only count this neighbor if you can reach it at least as quickly as opponent
                         if (oppTok == null || graph.getDistance(oppTok, neighbour) >= distYou) {
@@ -0,0 +1,256 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the class: Computes the Voronoi partition of a board, the token nearest to every
+ * vertex and the player who owns it, together with each player's total value. Ties, as
+ * DistanceTable.tied() defines them, follow the game's rule: a vertex goes to the earliest placed
+ * of its nearest tokens, and vertices no token can reach belong to no one.
+ *
+ * compute() runs one Dijkstra seeded from every token at once, with labels ordered by distance
+ * and then by placement order, in O(m log n) time and without any all-pairs table.
+ * computeFromTable() scans the tokens for every vertex of a distance table instead, in O(n k)
+ * time, which wins when the table is in memory and there are few tokens; prefersTable() picks.
+ *
+ * An instance reuses its arrays between runs, so it is not thread-safe: give each thread its
+ * own. Made for a Board, it is never out of date; made for a VoronoiGraph, it reads the graph's
+ * current Board and must be recreated after the graph is edited.
+ *
+ */
+
+import java.util.Arrays;
+
+public class VoronoiPartition {
+
+    // A table scan is preferred while tokens * n is at most this many times m log n
+    public static final double SCAN_FACTOR = 2.0;
+
+    private final Board board; // The board, for its vertex values and distances
+    private final CsrGraph graph; // Snapshot of the board's adjacency
+    private final IndexedMinHeap heap; // Frontier of the multi-source search
+    private final double[] dist; // Distance from each vertex to its owning token
+    private final int[] rank; // Placement order of each vertex's owning token, or -1
+    private int[] tokens = new int[0]; // Vertex index of each token, in placement order
+    private int[] players = new int[0]; // Player of each token
+    private int[] totals = new int[0]; // Summed value owned by each player
+
+    /**
+     * Constructor to initialize a partition engine for the current board of a graph.
+     *
+     * @param board the graph
+     */
+    public VoronoiPartition(VoronoiGraph board) {
+        this(board.currentBoard());
+    }
+
+    /**
+     * Constructor to initialize a partition engine for the board.
+     *
+     * @param board the board
+     */
+    public VoronoiPartition(Board board) {
+        this.board = board;
+        this.graph = board.graph();
+        this.heap = new IndexedMinHeap(graph.size());
+        this.dist = new double[graph.size()];
+        this.rank = new int[graph.size()];
+    }
+
+    /**
+     * Returns whether a scan of the board's distance table is expected to beat the multi-source
+     * search for the given number of tokens: the table must be a dense in-memory matrix and the
+     * scan's tokens * n lookups at most SCAN_FACTOR times m log n.
+     *
+     * @param board  the graph
+     * @param tokens the number of tokens
+     * @return true if computeFromTable() should be used
+     */
+    public static boolean prefersTable(VoronoiGraph board, int tokens) {
+        return prefersTable(board.currentBoard(), tokens);
+    }
+
+    /**
+     * Returns whether a scan of the board's distance table is expected to beat the multi-source
+     * search for the given number of tokens (see prefersTable(VoronoiGraph, int)).
+     *
+     * @param board  the board
+     * @param tokens the number of tokens
+     * @return true if computeFromTable() should be used
+     */
+    public static boolean prefersTable(Board board, int tokens) {
+        if (!(board.distances() instanceof DistanceMatrix)) {
+            return false;
+        }
+        int n = board.size();
+        CsrGraph csr = board.graph();
+        double search = (n + (double) csr.entries()) * Math.max(1, Math.log(n) / Math.log(2));
+        return (double) tokens * n <= SCAN_FACTOR * search;
+    }
+
+    /**
+     * Returns the board the partition is computed on.
+     *
+     * @return the board
+     */
+    public Board board() {
+        return board;
+    }
+
+    /**
+     * Computes the partition with a single Dijkstra seeded from every token.
+     *
+     * @param tokenIndices  the vertex indices of the tokens, in placement order
+     * @param tokenPlayers  the player of each token
+     * @param count         the number of tokens to use
+     */
+    public void compute(int[] tokenIndices, int[] tokenPlayers, int count) {
+        start(tokenIndices, tokenPlayers, count);
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(rank, -1);
+        for (int k = 0; k < count; k++) {
+            int t = tokens[k];
+            // A vertex holding two tokens keeps the first
+            if (rank[t] == -1) {
+                dist[t] = 0.0;
+                rank[t] = k;
+                heap.insertOrDecrease(t, 0.0);
+            }
+        }
+
+        while (!heap.isEmpty()) {
+            double du = heap.peekKey();
+            int u = heap.poll();
+            int ru = rank[u];
+            for (int k = graph.start(u), end = graph.end(u); k < end; k++) {
+                int v = graph.target(k);
+                double alt = du + graph.weight(k);
+                // Tied distances go to the earlier token; a settled vertex whose token improves
+                // through a zero-weight edge or a tie is searched again
+                if (DistanceTable.shorter(alt, dist[v]) || (ru < rank[v] && !DistanceTable.shorter(dist[v], alt))) {
+                    dist[v] = Math.min(alt, dist[v]);
+                    rank[v] = ru;
+                    heap.insertOrDecrease(v, dist[v]);
+                }
+                else if (alt < dist[v]) {
+                    // A tie won by the current token still keeps the shorter distance
+                    dist[v] = alt;
+                    heap.insertOrDecrease(v, alt);
+                }
+            }
+        }
+        finish();
+    }
+
+    /**
+     * Computes the partition by scanning every token for every vertex of a distance table.
+     *
+     * @param table         the distance table of the board
+     * @param tokenIndices  the vertex indices of the tokens, in placement order
+     * @param tokenPlayers  the player of each token
+     * @param count         the number of tokens to use
+     */
+    public void computeFromTable(DistanceTable table, int[] tokenIndices, int[] tokenPlayers, int count) {
+        start(tokenIndices, tokenPlayers, count);
+        int n = graph.size();
+        for (int u = 0; u < n; u++) {
+            double best = Double.POSITIVE_INFINITY;
+            int bestRank = -1;
+            for (int k = 0; k < count; k++) {
+                double d = table.distance(tokens[k], u);
+                if (DistanceTable.shorter(d, best)) {
+                    bestRank = k;
+                }
+                best = Math.min(best, d);
+            }
+            dist[u] = best;
+            rank[u] = bestRank;
+        }
+        finish();
+    }
+
+    /**
+     * Computes the partition with whichever method prefersTable() picks for the board.
+     *
+     * @param tokenIndices  the vertex indices of the tokens, in placement order
+     * @param tokenPlayers  the player of each token
+     * @param count         the number of tokens to use
+     */
+    public void computeBest(int[] tokenIndices, int[] tokenPlayers, int count) {
+        if (prefersTable(board, count)) {
+            computeFromTable(board.distances(), tokenIndices, tokenPlayers, count);
+        }
+        else {
+            compute(tokenIndices, tokenPlayers, count);
+        }
+    }
+
+    /**
+     * Returns the vertex index of the token owning the vertex.
+     *
+     * @param v the vertex index
+     * @return the index of the nearest token's vertex, or -1 if no token reaches v
+     */
+    public int ownerToken(int v) {
+        return rank[v] == -1 ? -1 : tokens[rank[v]];
+    }
+
+    /**
+     * Returns the player owning the vertex.
+     *
+     * @param v the vertex index
+     * @return the player of the nearest token, or -1 if no token reaches v
+     */
+    public int ownerPlayer(int v) {
+        return rank[v] == -1 ? -1 : players[rank[v]];
+    }
+
+    /**
+     * Returns the distance from the vertex to the token owning it.
+     *
+     * @param v the vertex index
+     * @return the distance to the nearest token, or infinity if no token reaches v
+     */
+    public double distance(int v) {
+        return dist[v];
+    }
+
+    /**
+     * Returns the summed value of the vertices a player owns.
+     *
+     * @param player the player
+     * @return the player's total, 0 for a player without tokens
+     */
+    public int total(int player) {
+        return player >= 0 && player < totals.length ? totals[player] : 0;
+    }
+
+    /**
+     * Copies the tokens of the next run, growing the arrays if needed.
+     */
+    private void start(int[] tokenIndices, int[] tokenPlayers, int count) {
+        if (tokens.length < count) {
+            tokens = new int[count];
+            players = new int[count];
+        }
+        int maxPlayer = -1;
+        for (int k = 0; k < count; k++) {
+            tokens[k] = tokenIndices[k];
+            players[k] = tokenPlayers[k];
+            maxPlayer = Math.max(maxPlayer, players[k]);
+        }
+        if (totals.length < maxPlayer + 1) {
+            totals = new int[maxPlayer + 1];
+        }
+    }
+
+    /**
+     * Sums the value each player owns.
+     */
+    private void finish() {
+        Arrays.fill(totals, 0);
+        for (int v = 0; v < graph.size(); v++) {
+            if (rank[v] != -1) {
+                totals[players[rank[v]]] += board.value(v);
+            }
+        }
+    }
+}
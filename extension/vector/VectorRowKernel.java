@@ -0,0 +1,99 @@
+/**
+ * Author: Muneeb Azfar Nafees
+ *
+ * Purpose of the class: The loops of RowKernel on jdk.incubator.vector lanes. minRow() takes the
+ * lanewise minimum of a token's row and the running minima, and split() compares the two players'
+ * minima a vector at a time, adding each vertex's value into the lanes of the player that reaches
+ * it first under a mask. The values are ints, so they are read with an int species of as many
+ * lanes as the preferred double species, and the comparison masks are cast across to it.
+ *
+ * The class needs the incubating module at compile and run time, so it lives outside the main
+ * sources and is only loaded by name (see RowKernel.PREFERRED):
+ *
+ *   javac --add-modules jdk.incubator.vector -cp . -d . vector/*.java
+ *
+ */
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+public class VectorRowKernel implements RowKernel {
+
+    // Widest double vector the platform runs natively
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    // Int vector with one lane per double lane, for the values of the same vertices
+    private static final VectorSpecies<Integer> INTS =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+
+    /**
+     * Constructor to check that the platform has vectors of more than one double; RowKernel then
+     * falls back to the scalar kernel.
+     *
+     * @throws UnsupportedOperationException if a double vector has a single lane
+     */
+    public VectorRowKernel() {
+        if (DOUBLES.length() < 2) {
+            throw new UnsupportedOperationException("no double vectors wider than one lane");
+        }
+    }
+
+    @Override
+    public void minRow(double[] data, int offset, double[] min, int n) {
+        int v = 0;
+        for (int bound = DOUBLES.loopBound(n); v < bound; v += DOUBLES.length()) {
+            DoubleVector.fromArray(DOUBLES, min, v)
+                    .min(DoubleVector.fromArray(DOUBLES, data, offset + v))
+                    .intoArray(min, v);
+        }
+        for (; v < n; v++) {
+            min[v] = Math.min(min[v], data[offset + v]);
+        }
+    }
+
+    @Override
+    public boolean split(double[] best0, double[] best1, int[] values, int n, int[] totals) {
+        IntVector sum0 = IntVector.zero(INTS);
+        IntVector sum1 = IntVector.zero(INTS);
+        VectorMask<Double> tied = DOUBLES.maskAll(false);
+        int v = 0;
+        for (int bound = DOUBLES.loopBound(n); v < bound; v += DOUBLES.length()) {
+            DoubleVector d0 = DoubleVector.fromArray(DOUBLES, best0, v);
+            DoubleVector d1 = DoubleVector.fromArray(DOUBLES, best1, v);
+            VectorMask<Double> near0 = shorter(d0, d1);
+            VectorMask<Double> near1 = shorter(d1, d0);
+            IntVector value = IntVector.fromArray(INTS, values, v);
+            sum0 = sum0.add(value, near0.cast(INTS));
+            sum1 = sum1.add(value, near1.cast(INTS));
+            tied = tied.or(near0.or(near1).not().and(d0.compare(VectorOperators.NE, Double.POSITIVE_INFINITY)));
+        }
+        int total0 = sum0.reduceLanes(VectorOperators.ADD);
+        int total1 = sum1.reduceLanes(VectorOperators.ADD);
+        boolean anyTied = tied.anyTrue();
+        for (; v < n; v++) {
+            double d0 = best0[v];
+            double d1 = best1[v];
+            boolean near0 = DistanceTable.shorter(d0, d1);
+            boolean near1 = DistanceTable.shorter(d1, d0);
+            total0 += near0 ? values[v] : 0;
+            total1 += near1 ? values[v] : 0;
+            anyTied |= !near0 && !near1 && d0 != Double.POSITIVE_INFINITY;
+        }
+        totals[0] = total0;
+        totals[1] = total1;
+        return anyTied;
+    }
+
+    /**
+     * Returns the lanes where a is shorter than b by more than a tie, as DistanceTable.shorter()
+     * decides for one pair.
+     */
+    private static VectorMask<Double> shorter(DoubleVector a, DoubleVector b) {
+        VectorMask<Double> unbounded = b.compare(VectorOperators.EQ, Double.POSITIVE_INFINITY);
+        VectorMask<Double> clear = b.sub(a).compare(VectorOperators.GT, b.mul(DistanceTable.TIE_EPSILON));
+        return a.compare(VectorOperators.LT, b).and(unbounded.or(clear));
+    }
+}